@@ -0,0 +1,152 @@
+package com.hotelreservation.analytics;
+
+/**
+ * Room nights sold and revenue per day for one room type.
+ * A booking adds +1 room and +price at check-in and the opposite at check-out, so recording
+ * costs O(log days) however long the stay. A day's totals are the prefix sum of these
+ * differences: a Fenwick tree gives the sum up to the first requested day, and the rest
+ * of the range is accumulated day by day.
+ * The covered day range grows on demand. Not thread-safe.
+ */
+final class DailyCounters {
+    private static final int MIN_CAPACITY = 1024;
+
+    private int origin;  // epoch day of index 0
+    private long[] soldDiff = new long[0];
+    private long[] revenueDiff = new long[0];
+    // Fenwick trees over the diffs, 1-based
+    private long[] soldTree = new long[1];
+    private long[] revenueTree = new long[1];
+
+    /**
+     * Counts one room sold for every night in [checkInDay, checkOutDay) and spreads revenue
+     * over those nights: each gets an equal share, and the last night also the remainder,
+     * so the nights add up to exactly revenue.
+     */
+    void add(int checkInDay, int checkOutDay, long revenue) {
+        count(checkInDay, checkOutDay, 1, revenue);
+    }
+
+    /**
+     * Undoes an earlier add with the same arguments.
+     */
+    void remove(int checkInDay, int checkOutDay, long revenue) {
+        count(checkInDay, checkOutDay, -1, -revenue);
+    }
+
+    /**
+     * Writes the totals of days fromDay .. fromDay + sold.length - 1 into sold and revenue.
+     */
+    void fill(int fromDay, long[] sold, long[] revenue) {
+        int capacity = soldDiff.length;
+        int start = fromDay - origin;
+        int prefixEnd = Math.max(0, Math.min(start, capacity));
+        long soldSum = prefix(soldTree, prefixEnd);
+        long revenueSum = prefix(revenueTree, prefixEnd);
+
+        for (int day = 0; day < sold.length; day++) {
+            int index = start + day;
+            if (index >= 0 && index < capacity) {
+                soldSum += soldDiff[index];
+                revenueSum += revenueDiff[index];
+            }
+            sold[day] = soldSum;
+            revenue[day] = revenueSum;
+        }
+    }
+
+    /**
+     * Adds every count held by other into these counters.
+     */
+    void merge(DailyCounters other) {
+        int capacity = other.soldDiff.length;
+        if (capacity == 0) {
+            return;
+        }
+        cover(other.origin, other.origin + capacity - 1);
+        int offset = other.origin - origin;
+        for (int i = 0; i < capacity; i++) {
+            soldDiff[offset + i] += other.soldDiff[i];
+            revenueDiff[offset + i] += other.revenueDiff[i];
+        }
+        rebuildTrees();
+    }
+
+    // ===== Private Helpers =====
+
+    private void count(int checkInDay, int checkOutDay, int rooms, long revenue) {
+        cover(checkInDay, checkOutDay);
+        int nights = checkOutDay - checkInDay;
+        long perNight = revenue / nights;
+        long remainder = revenue - perNight * nights;
+        addDiff(checkInDay - origin, rooms, perNight);
+        addDiff(checkOutDay - 1 - origin, 0, remainder);
+        addDiff(checkOutDay - origin, -rooms, -perNight - remainder);
+    }
+
+    private void addDiff(int index, long sold, long revenue) {
+        soldDiff[index] += sold;
+        revenueDiff[index] += revenue;
+        for (int i = index + 1; i < soldTree.length; i += i & -i) {
+            soldTree[i] += sold;
+            revenueTree[i] += revenue;
+        }
+    }
+
+    // Sum of the first count diffs
+    private static long prefix(long[] tree, int count) {
+        long sum = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // Grows the arrays so that days firstDay .. lastDay have an index
+    private void cover(int firstDay, int lastDay) {
+        int capacity = soldDiff.length;
+        if (capacity > 0 && firstDay >= origin && lastDay < origin + capacity) {
+            return;
+        }
+
+        int newOrigin;
+        int newCapacity;
+        if (capacity == 0) {
+            newCapacity = Math.max(MIN_CAPACITY, lastDay - firstDay + 1);
+            newOrigin = firstDay;
+        } else {
+            int low = Math.min(origin, firstDay);
+            int high = Math.max(origin + capacity - 1, lastDay);
+            newCapacity = Math.max(2 * capacity, high - low + 1);
+            // Leave the spare room on the side that grew
+            newOrigin = firstDay < origin ? high - newCapacity + 1 : origin;
+        }
+
+        long[] sold = new long[newCapacity];
+        long[] revenue = new long[newCapacity];
+        if (capacity > 0) {
+            System.arraycopy(soldDiff, 0, sold, origin - newOrigin, capacity);
+            System.arraycopy(revenueDiff, 0, revenue, origin - newOrigin, capacity);
+        }
+        soldDiff = sold;
+        revenueDiff = revenue;
+        origin = newOrigin;
+        rebuildTrees();
+    }
+
+    // Linear-time Fenwick construction from the raw diffs
+    private void rebuildTrees() {
+        int n = soldDiff.length;
+        soldTree = new long[n + 1];
+        revenueTree = new long[n + 1];
+        for (int i = 1; i <= n; i++) {
+            soldTree[i] += soldDiff[i - 1];
+            revenueTree[i] += revenueDiff[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= n) {
+                soldTree[parent] += soldTree[i];
+                revenueTree[parent] += revenueTree[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.hotelreservation.analytics;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.enums.RoomType;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Per-day, per-room-type counters of room nights sold and revenue,
+ * updated as bookings commit. Revenue is each booking's total price, spread evenly over its
+ * nights with the remainder on the last one, so the nights add up to exactly what was charged.
+ * Recording a booking is O(log days); a report over a range is O(days), independent
+ * of how many bookings exist.
+ * Safe for concurrent use: each room type's counters are guarded by their own monitor.
+ */
+public class OccupancyAnalytics {
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+    private static final int RECOMPUTE_THRESHOLD = 1 << 14;
+
+    private final EnumMap<RoomType, DailyCounters> countersByType = new EnumMap<>(RoomType.class);
+
+    public OccupancyAnalytics() {
+        for (RoomType type : ROOM_TYPES) {
+            countersByType.put(type, new DailyCounters());
+        }
+    }
+
+    public void record(Booking booking) {
+        DailyCounters counters = countersByType.get(booking.getRoomTypeAtBooking());
+        synchronized (counters) {
+            counters.add((int) booking.getCheckIn().toEpochDay(), (int) booking.getCheckOut().toEpochDay(),
+                    booking.getTotalPrice());
+        }
+    }
+
+    /**
+     * Takes a cancelled booking back out of the counters.
+     */
+    public void remove(Booking booking) {
+        DailyCounters counters = countersByType.get(booking.getRoomTypeAtBooking());
+        synchronized (counters) {
+            counters.remove((int) booking.getCheckIn().toEpochDay(), (int) booking.getCheckOut().toEpochDay(),
+                    booking.getTotalPrice());
+        }
+    }
+
+    /**
+     * Reports on [from, to) for roomType, taking roomCount rooms as available each day.
+     */
+    public OccupancyReport report(RoomType roomType, LocalDate from, LocalDate to, int roomCount) {
+        int days = (int) (to.toEpochDay() - from.toEpochDay());
+        long[] sold = new long[days];
+        long[] revenue = new long[days];
+
+        DailyCounters counters = countersByType.get(roomType);
+        synchronized (counters) {
+            counters.fill((int) from.toEpochDay(), sold, revenue);
+        }
+        return new OccupancyReport(roomType, from, roomCount, sold, revenue);
+    }
+
+    /**
+     * Rebuilds the counters from scratch, splitting the bookings across the common fork-join pool.
+     * Used on startup and to verify the incrementally maintained counters.
+     */
+    public static OccupancyAnalytics recompute(List<Booking> bookings) {
+        return ForkJoinPool.commonPool().invoke(new RecomputeTask(bookings, 0, bookings.size()));
+    }
+
+    // ===== Private Helpers =====
+
+    private void mergeFrom(OccupancyAnalytics other) {
+        for (RoomType type : ROOM_TYPES) {
+            countersByType.get(type).merge(other.countersByType.get(type));
+        }
+    }
+
+    private static final class RecomputeTask extends RecursiveTask<OccupancyAnalytics> {
+        private final List<Booking> bookings;
+        private final int from;
+        private final int to;
+
+        RecomputeTask(List<Booking> bookings, int from, int to) {
+            this.bookings = bookings;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected OccupancyAnalytics compute() {
+            if (to - from <= RECOMPUTE_THRESHOLD) {
+                OccupancyAnalytics analytics = new OccupancyAnalytics();
+                for (int i = from; i < to; i++) {
+                    analytics.record(bookings.get(i));
+                }
+                return analytics;
+            }
+
+            int middle = (from + to) >>> 1;
+            RecomputeTask left = new RecomputeTask(bookings, from, middle);
+            left.fork();
+            OccupancyAnalytics right = new RecomputeTask(bookings, middle, to).compute();
+            OccupancyAnalytics result = left.join();
+            result.mergeFrom(right);
+            return result;
+        }
+    }
+}
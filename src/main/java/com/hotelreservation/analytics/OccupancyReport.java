@@ -0,0 +1,104 @@
+package com.hotelreservation.analytics;
+
+import com.hotelreservation.enums.RoomType;
+
+import java.time.LocalDate;
+
+/**
+ * Occupancy, ADR and RevPAR for one room type over a date range, per day and in total.
+ * Occupancy is room nights sold over room nights available (rooms x days);
+ * ADR (average daily rate) is revenue per room night sold;
+ * RevPAR (revenue per available room) is revenue over room nights available.
+ */
+public class OccupancyReport {
+    private final RoomType roomType;
+    private final LocalDate from;
+    private final int roomCount;
+    private final long[] roomNightsSold;
+    private final long[] revenue;
+    private final long totalRoomNightsSold;
+    private final long totalRevenue;
+
+    OccupancyReport(RoomType roomType, LocalDate from, int roomCount, long[] roomNightsSold, long[] revenue) {
+        this.roomType = roomType;
+        this.from = from;
+        this.roomCount = roomCount;
+        this.roomNightsSold = roomNightsSold;
+        this.revenue = revenue;
+
+        long sold = 0;
+        long earned = 0;
+        for (int day = 0; day < roomNightsSold.length; day++) {
+            sold += roomNightsSold[day];
+            earned += revenue[day];
+        }
+        this.totalRoomNightsSold = sold;
+        this.totalRevenue = earned;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    public int getDays() {
+        return roomNightsSold.length;
+    }
+
+    public LocalDate getDate(int day) {
+        return from.plusDays(day);
+    }
+
+    // ===== Per Day =====
+
+    public long getRoomNightsSold(int day) {
+        return roomNightsSold[day];
+    }
+
+    public long getRevenue(int day) {
+        return revenue[day];
+    }
+
+    public double getOccupancyRate(int day) {
+        return ratio(roomNightsSold[day], roomCount);
+    }
+
+    public double getAverageDailyRate(int day) {
+        return ratio(revenue[day], roomNightsSold[day]);
+    }
+
+    public double getRevPar(int day) {
+        return ratio(revenue[day], roomCount);
+    }
+
+    // ===== Whole Range =====
+
+    public long getRoomNightsSold() {
+        return totalRoomNightsSold;
+    }
+
+    public long getRevenue() {
+        return totalRevenue;
+    }
+
+    public double getOccupancyRate() {
+        return ratio(totalRoomNightsSold, (long) roomCount * getDays());
+    }
+
+    public double getAverageDailyRate() {
+        return ratio(totalRevenue, totalRoomNightsSold);
+    }
+
+    public double getRevPar() {
+        return ratio(totalRevenue, (long) roomCount * getDays());
+    }
+
+    // ===== Private Helpers =====
+
+    private static double ratio(long numerator, long denominator) {
+        return denominator == 0 ? 0 : (double) numerator / denominator;
+    }
+}
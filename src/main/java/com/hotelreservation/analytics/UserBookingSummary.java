@@ -0,0 +1,87 @@
+package com.hotelreservation.analytics;
+
+import com.hotelreservation.entities.Booking;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Totals over one user's active bookings: how many, how many nights and what they cost,
+ * overall and per calendar year. A stay counts towards the year it checks in.
+ * Immutable.
+ */
+public class UserBookingSummary {
+    private final int userId;
+    private final int bookingCount;
+    private final long nightsBooked;
+    private final long totalSpent;
+    private final int[] years;          // ascending
+    private final long[] spentByYear;
+
+    private UserBookingSummary(int userId, int bookingCount, long nightsBooked, long totalSpent,
+                               int[] years, long[] spentByYear) {
+        this.userId = userId;
+        this.bookingCount = bookingCount;
+        this.nightsBooked = nightsBooked;
+        this.totalSpent = totalSpent;
+        this.years = years;
+        this.spentByYear = spentByYear;
+    }
+
+    /**
+     * Summarizes bookings, which must all belong to userId.
+     */
+    public static UserBookingSummary of(int userId, List<Booking> bookings) {
+        int[] years = new int[bookings.size()];
+        long[] spent = new long[bookings.size()];
+        int yearCount = 0;
+        long nights = 0;
+        long total = 0;
+
+        for (Booking booking : bookings) {
+            long stay = ChronoUnit.DAYS.between(booking.getCheckIn(), booking.getCheckOut());
+            long cost = booking.getTotalPrice();
+            nights += stay;
+            total += cost;
+
+            int year = booking.getCheckIn().getYear();
+            int index = Arrays.binarySearch(years, 0, yearCount, year);
+            if (index < 0) {
+                index = -index - 1;
+                System.arraycopy(years, index, years, index + 1, yearCount - index);
+                System.arraycopy(spent, index, spent, index + 1, yearCount - index);
+                years[index] = year;
+                spent[index] = 0;
+                yearCount++;
+            }
+            spent[index] += cost;
+        }
+        return new UserBookingSummary(userId, bookings.size(), nights, total,
+                Arrays.copyOf(years, yearCount), Arrays.copyOf(spent, yearCount));
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getBookingCount() {
+        return bookingCount;
+    }
+
+    public long getNightsBooked() {
+        return nightsBooked;
+    }
+
+    public long getTotalSpent() {
+        return totalSpent;
+    }
+
+    /**
+     * What the user's stays checking in during year cost.
+     */
+    public long getSpentInYear(int year) {
+        int index = Arrays.binarySearch(years, year);
+        return index >= 0 ? spentByYear[index] : 0;
+    }
+}
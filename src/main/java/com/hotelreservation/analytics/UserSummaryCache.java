@@ -0,0 +1,112 @@
+package com.hotelreservation.analytics;
+
+import com.hotelreservation.metrics.CacheStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded least-recently-used cache of user booking summaries.
+ * Users are spread over independently locked segments, each evicting its own
+ * least recently read entry, so lookups for different users rarely contend.
+ * The caller invalidates a user's entry whenever one of their bookings changes.
+ */
+public class UserSummaryCache {
+    public static final int DEFAULT_CAPACITY = 100_000;
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Access-ordered map that drops its eldest entry once full
+    private final class Segment extends LinkedHashMap<Integer, UserBookingSummary> {
+        private final int maxSize;
+
+        Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, UserBookingSummary> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    public UserSummaryCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Holds at most capacity summaries, rounded up to a multiple of the segment count.
+     */
+    public UserSummaryCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        int perSegment = (capacity + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        this.capacity = perSegment * SEGMENTS;
+    }
+
+    /**
+     * Returns the cached summary and marks it recently used, or null on a miss.
+     */
+    public UserBookingSummary get(int userId) {
+        Segment segment = segmentFor(userId);
+        UserBookingSummary summary;
+        synchronized (segment) {
+            summary = segment.get(userId);
+        }
+        (summary != null ? hits : misses).increment();
+        return summary;
+    }
+
+    public void put(UserBookingSummary summary) {
+        Segment segment = segmentFor(summary.getUserId());
+        synchronized (segment) {
+            segment.put(summary.getUserId(), summary);
+        }
+    }
+
+    public void invalidate(int userId) {
+        Segment segment = segmentFor(userId);
+        synchronized (segment) {
+            segment.remove(userId);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Hit, miss and eviction counts since the cache was created.
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size(), capacity);
+    }
+
+    // ===== Private Helpers =====
+
+    private Segment segmentFor(int userId) {
+        int h = userId * 0x9E3779B9;
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+}
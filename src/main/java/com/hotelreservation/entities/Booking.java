@@ -2,6 +2,7 @@ package com.hotelreservation.entities;
 
 import com.hotelreservation.enums.RoomType;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 
 /**
  * Immutable booking with historical snapshots.
@@ -14,9 +15,24 @@ public class Booking {
     private final RoomType roomTypeAtBooking;
     private final int pricePerNightAtBooking;
     private final int userBalanceAtBooking;
+    private final int totalPrice;
 
+    /**
+     * A booking charged its nights at pricePerNightAtBooking, with no rate adjustments.
+     */
     public Booking(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut,
                    RoomType roomTypeAtBooking, int pricePerNightAtBooking, int userBalanceAtBooking) {
+        this(userId, roomNumber, checkIn, checkOut, roomTypeAtBooking, pricePerNightAtBooking,
+                userBalanceAtBooking,
+                (int) ChronoUnit.DAYS.between(checkIn, checkOut) * pricePerNightAtBooking);
+    }
+
+    /**
+     * A booking charged totalPrice for the whole stay, e.g. after seasonal or weekend rates.
+     */
+    public Booking(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut,
+                   RoomType roomTypeAtBooking, int pricePerNightAtBooking, int userBalanceAtBooking,
+                   int totalPrice) {
         this.userId = userId;
         this.roomNumber = roomNumber;
         this.checkIn = checkIn;
@@ -24,6 +40,7 @@ public class Booking {
         this.roomTypeAtBooking = roomTypeAtBooking;
         this.pricePerNightAtBooking = pricePerNightAtBooking;
         this.userBalanceAtBooking = userBalanceAtBooking;
+        this.totalPrice = totalPrice;
     }
 
     // Getters only (immutable)
@@ -54,4 +71,11 @@ public class Booking {
     public int getUserBalanceAtBooking() {
         return userBalanceAtBooking;
     }
-}
\ No newline at end of file
+
+    /**
+     * What the user was charged for the whole stay.
+     */
+    public int getTotalPrice() {
+        return totalPrice;
+    }
+}
\ No newline at end of file
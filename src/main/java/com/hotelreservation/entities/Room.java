@@ -2,18 +2,23 @@ package com.hotelreservation.entities;
 
 import com.hotelreservation.enums.RoomType;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Represents a hotel room with proper encapsulation.
+ * Type and price live in one immutable, versioned RoomState that updates swap with a
+ * compare-and-set, so readers never lock and never see a type and price from different updates.
+ * Read getState() once when both are needed.
+ * Stored rooms are changed through RoomRepository, which keeps the type index in sync;
+ * Service also brings the availability bitmap and type inventory along.
  */
 public class Room {
     private final int roomNumber;  // Immutable
-    private RoomType roomType;
-    private int pricePerNight;
+    private final AtomicReference<RoomState> state;
 
     public Room(int roomNumber, RoomType roomType, int pricePerNight) {
         this.roomNumber = roomNumber;
-        this.roomType = roomType;
-        this.pricePerNight = pricePerNight;
+        this.state = new AtomicReference<>(new RoomState(roomType, pricePerNight, 0));
     }
 
     // Getters
@@ -21,20 +26,59 @@ public class Room {
         return roomNumber;
     }
 
+    public RoomState getState() {
+        return state.get();
+    }
+
     public RoomType getRoomType() {
-        return roomType;
+        return state.get().getRoomType();
     }
 
     public int getPricePerNight() {
-        return pricePerNight;
+        return state.get().getPricePerNight();
+    }
+
+    public int getVersion() {
+        return state.get().getVersion();
+    }
+
+    // Setters (only for mutable fields); they bypass the repository's indexes, so rooms
+    // outside this package change through update
+    void setRoomType(RoomType roomType) {
+        RoomState current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, current.next(roomType, current.getPricePerNight())));
+    }
+
+    void setPricePerNight(int pricePerNight) {
+        RoomState current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, current.next(current.getRoomType(), pricePerNight)));
     }
 
-    // Setters (only for mutable fields)
-    public void setRoomType(RoomType roomType) {
-        this.roomType = roomType;
+    /**
+     * Replaces type and price together and returns the new state.
+     */
+    public RoomState update(RoomType roomType, int pricePerNight) {
+        RoomState current;
+        RoomState updated;
+        do {
+            current = state.get();
+            updated = current.next(roomType, pricePerNight);
+        } while (!state.compareAndSet(current, updated));
+        return updated;
     }
 
-    public void setPricePerNight(int pricePerNight) {
-        this.pricePerNight = pricePerNight;
+    /**
+     * Replaces type and price only if the room is still at expectedVersion.
+     * Returns false if another update got there first; the caller re-reads and retries.
+     * Stored rooms go through RoomRepository.compareAndUpdate, which keeps the type index in sync.
+     */
+    boolean compareAndUpdate(int expectedVersion, RoomType roomType, int pricePerNight) {
+        RoomState current = state.get();
+        return current.getVersion() == expectedVersion
+                && state.compareAndSet(current, current.next(roomType, pricePerNight));
     }
-}
\ No newline at end of file
+}
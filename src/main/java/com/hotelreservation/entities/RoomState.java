@@ -0,0 +1,39 @@
+package com.hotelreservation.entities;
+
+import com.hotelreservation.enums.RoomType;
+
+/**
+ * Immutable type, price and version of a room at one moment.
+ * Every update replaces the whole state, so a reader holding one always sees a type
+ * and a price that were set together.
+ */
+public final class RoomState {
+    private final RoomType roomType;
+    private final int pricePerNight;
+    private final int version;
+
+    RoomState(RoomType roomType, int pricePerNight, int version) {
+        this.roomType = roomType;
+        this.pricePerNight = pricePerNight;
+        this.version = version;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public int getPricePerNight() {
+        return pricePerNight;
+    }
+
+    /**
+     * Starts at 0 and grows by one with every update of the room, wrapping after 2^32 updates.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    RoomState next(RoomType roomType, int pricePerNight) {
+        return new RoomState(roomType, pricePerNight, version + 1);
+    }
+}
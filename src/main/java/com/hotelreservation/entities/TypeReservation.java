@@ -0,0 +1,39 @@
+package com.hotelreservation.entities;
+
+import com.hotelreservation.enums.RoomType;
+import java.time.LocalDate;
+
+/**
+ * Immutable hold on one room of a type for a stay, without a room number yet.
+ * Checking in assigns a free room of the type and turns the hold into a Booking.
+ */
+public class TypeReservation {
+    private final int userId;
+    private final RoomType roomType;
+    private final LocalDate checkIn;
+    private final LocalDate checkOut;
+
+    public TypeReservation(int userId, RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        this.userId = userId;
+        this.roomType = roomType;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+    }
+
+    // Getters only (immutable)
+    public int getUserId() {
+        return userId;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+}
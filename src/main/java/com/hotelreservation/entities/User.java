@@ -1,15 +1,23 @@
 package com.hotelreservation.entities;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Represents a user with proper encapsulation.
+ * Balance and version are packed into one atomic long (version in the high 32 bits),
+ * so every update is a single compare-and-set: concurrent bookings never lose a deduction,
+ * and an optimistic writer can tell whether the balance changed since it read it.
  */
 public class User {
+    /** Returned by deductIfCovered when the balance is too low */
+    public static final long NOT_DEDUCTED = Long.MIN_VALUE;
+
     private final int userId;  // Immutable
-    private int balance;
+    private final AtomicLong state;
 
     public User(int userId, int balance) {
         this.userId = userId;
-        this.balance = balance;
+        this.state = new AtomicLong(pack(0, balance));
     }
 
     // Getters
@@ -18,16 +26,82 @@ public class User {
     }
 
     public int getBalance() {
-        return balance;
+        return balanceOf(state.get());
+    }
+
+    /**
+     * Starts at 0 and grows by one with every balance change, wrapping after 2^32 changes.
+     */
+    public int getVersion() {
+        return versionOf(state.get());
     }
 
     // Setter
     public void setBalance(int balance) {
-        this.balance = balance;
+        long current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, pack(versionOf(current) + 1, balance)));
     }
 
-    // Business method
+    // Business methods
     public void deductBalance(int amount) {
-        this.balance -= amount;
+        addBalance(-amount);
+    }
+
+    public void addBalance(int amount) {
+        long current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, pack(versionOf(current) + 1, balanceOf(current) + amount)));
+    }
+
+    /**
+     * Atomically deducts the amount if the balance covers it.
+     * Returns false, leaving the balance untouched, otherwise.
+     */
+    public boolean tryDeductBalance(int amount) {
+        return deductIfCovered(amount) != NOT_DEDUCTED;
+    }
+
+    /**
+     * Like tryDeductBalance, but returns the balance from just before the deduction,
+     * or NOT_DEDUCTED. Safe when several services charge the same user without a common lock.
+     */
+    public long deductIfCovered(int amount) {
+        long current;
+        int balance;
+        do {
+            current = state.get();
+            balance = balanceOf(current);
+            if (balance < amount) {
+                return NOT_DEDUCTED;
+            }
+        } while (!state.compareAndSet(current, pack(versionOf(current) + 1, balance - amount)));
+        return balance;
+    }
+
+    /**
+     * Sets the balance only if it has not changed since version was read.
+     * Returns false if another update got there first; the caller re-reads and retries.
+     */
+    public boolean compareAndSetBalance(int expectedVersion, int balance) {
+        long current = state.get();
+        return versionOf(current) == expectedVersion
+                && state.compareAndSet(current, pack(expectedVersion + 1, balance));
+    }
+
+    // ===== Private Helpers =====
+
+    private static long pack(int version, int balance) {
+        return ((long) version << 32) | (balance & 0xFFFFFFFFL);
+    }
+
+    private static int versionOf(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int balanceOf(long state) {
+        return (int) state;
     }
-}
\ No newline at end of file
+}
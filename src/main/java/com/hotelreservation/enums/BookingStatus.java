@@ -0,0 +1,19 @@
+package com.hotelreservation.enums;
+
+/**
+ * Outcome of Service.tryBookRoom.
+ */
+public enum BookingStatus {
+    SUCCESS,
+    INSUFFICIENT_BALANCE,
+    ROOM_UNAVAILABLE,
+    ROOM_NOT_FOUND,
+    USER_NOT_FOUND,
+    INVALID_DATES,
+    /** A request with the same idempotency key is still running */
+    IN_PROGRESS,
+    /** Too many requests with idempotency keys are running to take another; retry later */
+    BUSY,
+    /** The idempotency key was already used for a different stay */
+    KEY_REUSED
+}
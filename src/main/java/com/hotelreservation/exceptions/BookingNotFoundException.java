@@ -0,0 +1,10 @@
+package com.hotelreservation.exceptions;
+
+/**
+ * Thrown when a booking id does not exist or the booking was already cancelled.
+ */
+public class BookingNotFoundException extends RuntimeException {
+    public BookingNotFoundException(String message) {
+        super(message);
+    }
+}
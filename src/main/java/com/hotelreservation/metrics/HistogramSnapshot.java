@@ -0,0 +1,72 @@
+package com.hotelreservation.metrics;
+
+/**
+ * Immutable copy of a LatencyHistogram. All values are in nanoseconds and,
+ * like the histogram itself, accurate to within ~3%.
+ */
+public class HistogramSnapshot {
+    private final long[] counts;
+    private final long count;
+
+    HistogramSnapshot(long[] counts) {
+        this.counts = counts;
+
+        long sum = 0;
+        for (long c : counts) {
+            sum += c;
+        }
+        this.count = sum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Upper bound of the highest bucket holding a value.
+     */
+    public long getMax() {
+        for (int bucket = counts.length - 1; bucket >= 0; bucket--) {
+            if (counts[bucket] > 0) {
+                return LatencyHistogram.highestValueIn(bucket);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Mean taking every value as the middle of its bucket.
+     */
+    public double getMean() {
+        if (count == 0) {
+            return 0;
+        }
+        double total = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (counts[bucket] > 0) {
+                long middle = (LatencyHistogram.lowestValueIn(bucket) + LatencyHistogram.highestValueIn(bucket)) / 2;
+                total += (double) middle * counts[bucket];
+            }
+        }
+        return total / count;
+    }
+
+    /**
+     * Smallest value that at least percentile percent of the recorded values do not exceed,
+     * rounded up to its bucket's upper bound, e.g. getValueAtPercentile(99.9).
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return LatencyHistogram.highestValueIn(bucket);
+            }
+        }
+        return 0;
+    }
+}
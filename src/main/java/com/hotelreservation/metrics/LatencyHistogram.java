@@ -0,0 +1,52 @@
+package com.hotelreservation.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent log-linear histogram of nanosecond latencies, in the style of HdrHistogram.
+ * Values below 64 ns are counted exactly; above that every power of two is split into
+ * 32 linear buckets, so a reported value is within 1/32 (~3%) of the recorded one.
+ * Values up to 2^40 ns (~18 minutes) are tracked; longer ones count as the maximum.
+ * Recording is a single atomic increment; snapshots copy the counts while recording continues.
+ */
+public class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final long MAX_TRACKABLE = (1L << 40) - 1;
+    static final int BUCKETS = bucketOf(MAX_TRACKABLE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(0, Math.min(nanos, MAX_TRACKABLE))));
+    }
+
+    /**
+     * Copies the current counts. Records made while copying may or may not be included.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new HistogramSnapshot(copy);
+    }
+
+    // ===== Bucket Arithmetic =====
+
+    static int bucketOf(long value) {
+        int highestBit = 63 - Long.numberOfLeadingZeros(value | 1);
+        int shift = Math.max(0, highestBit - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long lowestValueIn(int bucket) {
+        int shift = Math.max(0, bucket / SUB_BUCKETS - 1);
+        return (long) (bucket - shift * SUB_BUCKETS) << shift;
+    }
+
+    static long highestValueIn(int bucket) {
+        int shift = Math.max(0, bucket / SUB_BUCKETS - 1);
+        return lowestValueIn(bucket) + (1L << shift) - 1;
+    }
+}
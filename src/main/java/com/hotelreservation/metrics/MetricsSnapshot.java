@@ -0,0 +1,89 @@
+package com.hotelreservation.metrics;
+
+import com.hotelreservation.metrics.ServiceMetrics.FailureCause;
+import com.hotelreservation.metrics.ServiceMetrics.Operation;
+import com.hotelreservation.metrics.ServiceMetrics.Phase;
+import com.hotelreservation.reports.ReportWriter;
+
+import java.io.Writer;
+
+/**
+ * Point-in-time copy of ServiceMetrics.
+ */
+public class MetricsSnapshot {
+    private static final int CAUSES = FailureCause.values().length;
+
+    private final long[] calls;
+    private final long[] failures;
+    private final HistogramSnapshot[] latencies;
+    private final HistogramSnapshot[] phaseLatencies;
+
+    MetricsSnapshot(long[] calls, long[] failures, HistogramSnapshot[] latencies,
+                    HistogramSnapshot[] phaseLatencies) {
+        this.calls = calls;
+        this.failures = failures;
+        this.latencies = latencies;
+        this.phaseLatencies = phaseLatencies;
+    }
+
+    /**
+     * Calls made, successful or not.
+     */
+    public long getCalls(Operation operation) {
+        return calls[operation.ordinal()];
+    }
+
+    public long getFailures(Operation operation) {
+        long sum = 0;
+        for (int cause = 0; cause < CAUSES; cause++) {
+            sum += failures[operation.ordinal() * CAUSES + cause];
+        }
+        return sum;
+    }
+
+    public long getFailures(Operation operation, FailureCause cause) {
+        return failures[operation.ordinal() * CAUSES + cause.ordinal()];
+    }
+
+    public HistogramSnapshot getLatency(Operation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    public HistogramSnapshot getPhaseLatency(Phase phase) {
+        return phaseLatencies[phase.ordinal()];
+    }
+
+    /**
+     * Writes one line per operation and per bookRoom phase, latencies in nanoseconds.
+     */
+    public void writeTo(Writer out) {
+        ReportWriter writer = new ReportWriter(out);
+        for (Operation operation : Operation.values()) {
+            writer.append(operation.name())
+                    .append(" calls=").append(getCalls(operation))
+                    .append(" failures=").append(getFailures(operation));
+            for (FailureCause cause : FailureCause.values()) {
+                long count = getFailures(operation, cause);
+                if (count > 0) {
+                    writer.append(' ').append(cause.name()).append('=').append(count);
+                }
+            }
+            writeLatency(writer, getLatency(operation));
+        }
+        for (Phase phase : Phase.values()) {
+            writer.append("BOOK_ROOM.").append(phase.name());
+            writeLatency(writer, getPhaseLatency(phase));
+        }
+        writer.flush();
+    }
+
+    // ===== Private Helpers =====
+
+    private static void writeLatency(ReportWriter writer, HistogramSnapshot latency) {
+        writer.append(" p50=").append(latency.getValueAtPercentile(50))
+                .append(" p99=").append(latency.getValueAtPercentile(99))
+                .append(" p99.9=").append(latency.getValueAtPercentile(99.9))
+                .append(" max=").append(latency.getMax())
+                .newLine();
+    }
+}
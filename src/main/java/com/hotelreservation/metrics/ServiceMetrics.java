@@ -0,0 +1,207 @@
+package com.hotelreservation.metrics;
+
+import com.hotelreservation.enums.BookingStatus;
+import com.hotelreservation.exceptions.BookingNotFoundException;
+import com.hotelreservation.exceptions.InsufficientBalanceException;
+import com.hotelreservation.exceptions.InvalidBookingException;
+import com.hotelreservation.exceptions.RoomNotFoundException;
+import com.hotelreservation.exceptions.UserNotFoundException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for the service operations.
+ * Every operation records its call count, its latency and, when it fails, the cause.
+ * bookRoom additionally times each of its phases on a sample of calls (1 in 32 by default),
+ * as reading the clock at every phase boundary would cost more than the phases themselves.
+ * Recording never allocates or blocks. When disabled, no clock is read and nothing is recorded.
+ * Each call counts under one operation only: checkIn books and searches through the same
+ * paths as bookRoom and findAvailableRooms but is recorded as CHECK_IN alone.
+ */
+public class ServiceMetrics {
+
+    public enum Operation {
+        BOOK_ROOM, BOOK_ROOMS, CANCEL_BOOKING, MODIFY_BOOKING, SET_ROOM, SET_USER, FIND_AVAILABLE_ROOMS,
+        RESERVE_ROOM_TYPE, CHECK_IN, CANCEL_RESERVATION
+    }
+
+    /** Consecutive stages of bookRoom, each timed from the end of the previous one */
+    public enum Phase {
+        /** Date validation and room and user lookups */
+        LOOKUP,
+        /** Waiting for the room and user locks */
+        LOCK,
+        OVERLAP_CHECK,
+        BALANCE_CHECK,
+        /** Charging the user, saving and journaling the booking */
+        COMMIT,
+        /** Waiting for the journal to reach disk */
+        DURABILITY
+    }
+
+    /** Failure causes, one per type in the exceptions package */
+    public enum FailureCause {
+        INVALID_BOOKING, ROOM_NOT_FOUND, USER_NOT_FOUND, BOOKING_NOT_FOUND, INSUFFICIENT_BALANCE, OTHER;
+
+        public static FailureCause of(RuntimeException e) {
+            if (e instanceof InvalidBookingException) {
+                return INVALID_BOOKING;
+            } else if (e instanceof RoomNotFoundException) {
+                return ROOM_NOT_FOUND;
+            } else if (e instanceof UserNotFoundException) {
+                return USER_NOT_FOUND;
+            } else if (e instanceof BookingNotFoundException) {
+                return BOOKING_NOT_FOUND;
+            } else if (e instanceof InsufficientBalanceException) {
+                return INSUFFICIENT_BALANCE;
+            }
+            return OTHER;
+        }
+
+        public static FailureCause of(BookingStatus status) {
+            switch (status) {
+                case INVALID_DATES:
+                case ROOM_UNAVAILABLE:
+                    return INVALID_BOOKING;
+                case ROOM_NOT_FOUND:
+                    return ROOM_NOT_FOUND;
+                case USER_NOT_FOUND:
+                    return USER_NOT_FOUND;
+                case INSUFFICIENT_BALANCE:
+                    return INSUFFICIENT_BALANCE;
+                default:
+                    return OTHER;
+            }
+        }
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final Phase[] PHASES = Phase.values();
+    private static final FailureCause[] CAUSES = FailureCause.values();
+    /**
+     * Start time handed out while disabled, and passed by work done on behalf of another
+     * operation; nothing is recorded against it.
+     */
+    public static final long NOT_TIMED = Long.MIN_VALUE;
+    private static final int DEFAULT_PHASE_SAMPLE_RATE = 32;
+
+    private final LongAdder[] calls = adders(OPERATIONS.length);
+    // Indexed by operation * CAUSES.length + cause
+    private final LongAdder[] failures = adders(OPERATIONS.length * CAUSES.length);
+    private final LatencyHistogram[] latencies = histograms(OPERATIONS.length);
+    private final LatencyHistogram[] phaseLatencies = histograms(PHASES.length);
+    private volatile boolean enabled = true;
+    private volatile int phaseSampleRate = DEFAULT_PHASE_SAMPLE_RATE;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Times the phases of one call in rate; 1 times every call.
+     */
+    public void setPhaseSampleRate(int rate) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("Sample rate must be at least 1: " + rate);
+        }
+        this.phaseSampleRate = rate;
+    }
+
+    /**
+     * Start time for an operation or its first phase.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Start time of the first phase of an operation that started at started,
+     * or a value that endPhase ignores if this call is not sampled.
+     */
+    public long startPhases(long started) {
+        if (started == NOT_TIMED || ThreadLocalRandom.current().nextInt(phaseSampleRate) != 0) {
+            return NOT_TIMED;
+        }
+        return started;
+    }
+
+    /**
+     * Records phase as lasting from since until now, and returns now as the start of the next phase.
+     */
+    public long endPhase(Phase phase, long since) {
+        if (since == NOT_TIMED) {
+            return NOT_TIMED;
+        }
+        long now = System.nanoTime();
+        phaseLatencies[phase.ordinal()].record(now - since);
+        return now;
+    }
+
+    public void succeeded(Operation operation, long start) {
+        if (start != NOT_TIMED) {
+            complete(operation, start);
+        }
+    }
+
+    public void failed(Operation operation, FailureCause cause, long start) {
+        if (start != NOT_TIMED) {
+            complete(operation, start);
+            failures[operation.ordinal() * CAUSES.length + cause.ordinal()].increment();
+        }
+    }
+
+    public void failed(Operation operation, RuntimeException e, long start) {
+        failed(operation, FailureCause.of(e), start);
+    }
+
+    /**
+     * Copies every counter and histogram without pausing recording.
+     */
+    public MetricsSnapshot snapshot() {
+        long[] callCounts = new long[calls.length];
+        for (int i = 0; i < calls.length; i++) {
+            callCounts[i] = calls[i].sum();
+        }
+        long[] failureCounts = new long[failures.length];
+        for (int i = 0; i < failures.length; i++) {
+            failureCounts[i] = failures[i].sum();
+        }
+        HistogramSnapshot[] latencyCopies = new HistogramSnapshot[latencies.length];
+        for (int i = 0; i < latencies.length; i++) {
+            latencyCopies[i] = latencies[i].snapshot();
+        }
+        HistogramSnapshot[] phaseCopies = new HistogramSnapshot[phaseLatencies.length];
+        for (int i = 0; i < phaseLatencies.length; i++) {
+            phaseCopies[i] = phaseLatencies[i].snapshot();
+        }
+        return new MetricsSnapshot(callCounts, failureCounts, latencyCopies, phaseCopies);
+    }
+
+    // ===== Private Helpers =====
+
+    private void complete(Operation operation, long start) {
+        calls[operation.ordinal()].increment();
+        latencies[operation.ordinal()].record(System.nanoTime() - start);
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static LatencyHistogram[] histograms(int count) {
+        LatencyHistogram[] histograms = new LatencyHistogram[count];
+        for (int i = 0; i < count; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+}
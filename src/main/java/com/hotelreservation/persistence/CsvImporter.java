@@ -0,0 +1,320 @@
+package com.hotelreservation.persistence;
+
+import com.hotelreservation.enums.RoomType;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Reads the room and user CSV files that ReportExporter writes, for bulk loading.
+ * Rooms: room_number,room_type,price_per_night. Users: user_id,balance. A header line is optional.
+ * The file is memory-mapped and split into ranges that are parsed in parallel straight from
+ * the mapped bytes into primitive arrays, without creating a String per field or line.
+ * A file that starts with a header line is taken to be an export, which lists rows latest
+ * first: its batches are handed over from the end of the file, each with its rows reversed,
+ * so rows are applied oldest first and a round trip keeps the order rooms and users were
+ * added in. A file without a header is handed over in file order. Either way batches arrive
+ * on the calling thread one at a time, as if the lines were applied one by one in that order.
+ */
+public final class CsvImporter {
+    private static final long RANGE_SIZE = 8L << 20;
+    private static final int MAX_LINE = 1024;
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+    private static final byte[][] ROOM_TYPE_NAMES = new byte[ROOM_TYPES.length][];
+
+    static {
+        for (int i = 0; i < ROOM_TYPES.length; i++) {
+            ROOM_TYPE_NAMES[i] = ROOM_TYPES[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /** Receives parsed rooms; the arrays hold count rows and are not reused afterwards */
+    public interface RoomBatchHandler {
+        void accept(int[] roomNumbers, RoomType[] roomTypes, int[] prices, int count);
+    }
+
+    /** Receives parsed users; the arrays hold count rows and are not reused afterwards */
+    public interface UserBatchHandler {
+        void accept(int[] userIds, int[] balances, int count);
+    }
+
+    private CsvImporter() {
+    }
+
+    /**
+     * Parses a room CSV file and returns the number of rooms read.
+     */
+    public static long readRooms(Path file, RoomBatchHandler handler) throws IOException {
+        return read(file, true, batch -> handler.accept(batch.keys, batch.roomTypes, batch.values, batch.size));
+    }
+
+    /**
+     * Parses a user CSV file and returns the number of users read.
+     */
+    public static long readUsers(Path file, UserBatchHandler handler) throws IOException {
+        return read(file, false, batch -> handler.accept(batch.keys, batch.values, batch.size));
+    }
+
+    // ===== Private Helpers =====
+
+    private interface BatchSink {
+        void accept(Batch batch);
+    }
+
+    // Parsed rows of one range; roomTypes is null for users
+    private static final class Batch {
+        int[] keys;
+        int[] values;
+        RoomType[] roomTypes;
+        int size;
+
+        Batch(int capacity, boolean rooms) {
+            keys = new int[capacity];
+            values = new int[capacity];
+            roomTypes = rooms ? new RoomType[capacity] : null;
+        }
+
+        void add(int key, RoomType roomType, int value) {
+            if (size == keys.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+                if (roomTypes != null) {
+                    roomTypes = Arrays.copyOf(roomTypes, capacity);
+                }
+            }
+            keys[size] = key;
+            values[size] = value;
+            if (roomTypes != null) {
+                roomTypes[size] = roomType;
+            }
+            size++;
+        }
+
+        void reverse() {
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                int key = keys[i];
+                keys[i] = keys[j];
+                keys[j] = key;
+                int value = values[i];
+                values[i] = values[j];
+                values[j] = value;
+                if (roomTypes != null) {
+                    RoomType roomType = roomTypes[i];
+                    roomTypes[i] = roomTypes[j];
+                    roomTypes[j] = roomType;
+                }
+            }
+        }
+    }
+
+    private static boolean isNumberStart(byte b) {
+        return b == '-' || (b >= '0' && b <= '9');
+    }
+
+    private static long read(Path file, boolean rooms, BatchSink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            boolean latestFirst = size > 0
+                    && !isNumberStart(channel.map(FileChannel.MapMode.READ_ONLY, 0, 1).get(0));
+            List<Future<Batch>> ranges = new ArrayList<>();
+            try {
+                for (long from = 0; from < size; from += RANGE_SIZE) {
+                    long start = from;
+                    ranges.add(ForkJoinPool.commonPool().submit(() -> {
+                        try {
+                            Batch batch = new RangeParser(channel, file, size, start, rooms).parse();
+                            if (latestFirst) {
+                                batch.reverse();
+                            }
+                            return batch;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+                }
+
+                long total = 0;
+                for (int i = 0; i < ranges.size(); i++) {
+                    Batch batch = join(ranges.get(latestFirst ? ranges.size() - 1 - i : i));
+                    sink.accept(batch);
+                    total += batch.size;
+                }
+                return total;
+            } finally {
+                for (Future<Batch> range : ranges) {
+                    range.cancel(false);
+                }
+            }
+        }
+    }
+
+    private static Batch join(Future<Batch> range) throws IOException {
+        try {
+            return range.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while importing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Parses the lines starting inside [start, start + RANGE_SIZE).
+     * The line crossing start belongs to the previous range; the last line may run past the end.
+     */
+    private static final class RangeParser {
+        private final Path file;
+        private final ByteBuffer buffer;
+        private final long base;
+        private final int end;
+        private final boolean atEndOfFile;
+        private final boolean rooms;
+        private int pos;
+
+        RangeParser(FileChannel channel, Path file, long size, long start, boolean rooms) throws IOException {
+            // Map one byte early to see whether a line starts exactly at start
+            this.base = start == 0 ? 0 : start - 1;
+            long mapEnd = Math.min(start + RANGE_SIZE + MAX_LINE, size);
+            this.file = file;
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, mapEnd - base);
+            this.end = (int) (Math.min(start + RANGE_SIZE, size) - base);
+            this.atEndOfFile = mapEnd == size;
+            this.rooms = rooms;
+            this.pos = (int) (start - base);
+        }
+
+        Batch parse() throws IOException {
+            // Sized for short lines of this range; grows if they are shorter still
+            Batch batch = new Batch(Math.max((end - pos) / 16, 16), rooms);
+            if (base > 0 && buffer.get(0) != '\n') {
+                skipLine();
+            } else if (base == 0 && pos < end && !isNumberStart(buffer.get(0))) {
+                skipLine();  // header
+            }
+
+            while (pos < end) {
+                byte first = buffer.get(pos);
+                if (first == '\n' || first == '\r') {
+                    skipLine();
+                    continue;
+                }
+                int key = parseInt();
+                expect(',');
+                RoomType roomType = null;
+                if (rooms) {
+                    roomType = parseRoomType();
+                    expect(',');
+                }
+                int value = parseInt();
+                endLine();
+                batch.add(key, roomType, value);
+            }
+            return batch;
+        }
+
+        private int parseInt() throws IOException {
+            boolean negative = pos < buffer.limit() && buffer.get(pos) == '-';
+            if (negative) {
+                pos++;
+            }
+            int digitsFrom = pos;
+            long value = 0;
+            while (pos < buffer.limit()) {
+                int digit = buffer.get(pos) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE + 1L) {
+                    throw malformed();
+                }
+                pos++;
+            }
+            if (pos == digitsFrom) {
+                throw malformed();
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw malformed();
+            }
+            return (int) value;
+        }
+
+        private RoomType parseRoomType() throws IOException {
+            for (int type = 0; type < ROOM_TYPE_NAMES.length; type++) {
+                byte[] name = ROOM_TYPE_NAMES[type];
+                if (matches(name) && pos + name.length < buffer.limit() && buffer.get(pos + name.length) == ',') {
+                    pos += name.length;
+                    return ROOM_TYPES[type];
+                }
+            }
+            throw malformed();
+        }
+
+        private boolean matches(byte[] name) {
+            if (pos + name.length > buffer.limit()) {
+                return false;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (buffer.get(pos + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void expect(char separator) throws IOException {
+            if (pos >= buffer.limit() || buffer.get(pos) != separator) {
+                throw malformed();
+            }
+            pos++;
+        }
+
+        // Accepts \n, \r\n or the end of the file after the last field
+        private void endLine() throws IOException {
+            if (pos < buffer.limit() && buffer.get(pos) == '\r') {
+                pos++;
+            }
+            if (pos < buffer.limit() && buffer.get(pos) == '\n') {
+                pos++;
+            } else if (pos < buffer.limit() || !atEndOfFile) {
+                throw malformed();
+            }
+        }
+
+        private void skipLine() throws IOException {
+            while (pos < buffer.limit()) {
+                if (buffer.get(pos++) == '\n') {
+                    return;
+                }
+            }
+            if (!atEndOfFile) {
+                throw malformed();
+            }
+        }
+
+        private IOException malformed() {
+            return new IOException("Malformed CSV line at byte " + (base + pos) + ": " + file);
+        }
+    }
+}
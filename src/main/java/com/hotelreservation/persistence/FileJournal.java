@@ -0,0 +1,492 @@
+package com.hotelreservation.persistence;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.TypeReservation;
+import com.hotelreservation.enums.RoomType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead log of compact binary records.
+ * Record layout: type byte, fixed-size payload, CRC32C of type and payload.
+ * Bookings are written as priced records carrying the total charged; the older BOOKING and
+ * MODIFY records are still replayed, with the total derived from the nightly price.
+ * Room type reservations are journaled under their ids; a check-in closes its reservation
+ * and saves its booking in one record.
+ * Durability uses group commit: while one caller fsyncs, others keep appending,
+ * and the next caller to wait flushes all of them with a single fsync.
+ */
+public class FileJournal implements Journal {
+    static final byte ROOM = 1;
+    static final byte USER = 2;
+    static final byte BOOKING = 3;
+    static final byte CANCEL = 4;
+    static final byte MODIFY = 5;
+    static final byte PRICED_BOOKING = 6;
+    static final byte PRICED_MODIFY = 7;
+    static final byte RESERVE = 8;
+    static final byte CANCEL_RESERVATION = 9;
+    static final byte CHECK_IN = 10;
+    static final byte OVERBOOKING = 11;
+
+    private static final int ROOM_PAYLOAD = 4 + 1 + 4;
+    private static final int USER_PAYLOAD = 4 + 4;
+    static final int BOOKING_PAYLOAD = 4 + 4 + 4 + 4 + 1 + 4 + 4;
+    static final int PRICED_BOOKING_PAYLOAD = BOOKING_PAYLOAD + 4;
+    private static final int CANCEL_PAYLOAD = 4 + 4;
+    private static final int MODIFY_PAYLOAD = CANCEL_PAYLOAD + BOOKING_PAYLOAD;
+    private static final int PRICED_MODIFY_PAYLOAD = CANCEL_PAYLOAD + PRICED_BOOKING_PAYLOAD;
+    static final int RESERVE_PAYLOAD = 4 + 4 + 1 + 4 + 4;
+    private static final int CANCEL_RESERVATION_PAYLOAD = 4;
+    private static final int CHECK_IN_PAYLOAD = 4 + PRICED_BOOKING_PAYLOAD;
+    private static final int OVERBOOKING_PAYLOAD = 1 + 4;
+    private static final int MAX_RECORD = 1 + PRICED_MODIFY_PAYLOAD + 4;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private final FileChannel channel;
+    private final CRC32C crc = new CRC32C();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_SIZE);
+    private ByteBuffer flushing = ByteBuffer.allocate(BUFFER_SIZE);
+    private long appendedPosition;
+    private long durablePosition;
+    private boolean flushInProgress;
+    private IOException failure;
+
+    private FileJournal(FileChannel channel, long position) {
+        this.channel = channel;
+        this.appendedPosition = position;
+        this.durablePosition = position;
+    }
+
+    /**
+     * Replays the journal at file into handler, then opens it for appending.
+     * A torn or corrupt tail left by a crash is truncated.
+     */
+    public static FileJournal open(Path file, JournalHandler handler) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long validEnd = replay(channel, handler);
+            channel.truncate(validEnd);
+            channel.position(validEnd);
+            return new FileJournal(channel, validEnd);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a new, empty journal file for appending.
+     */
+    public static FileJournal create(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        return new FileJournal(channel, 0);
+    }
+
+    /**
+     * Replays every intact record of the file into handler without opening it for writing.
+     */
+    public static void replay(Path file, JournalHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            replay(channel, handler);
+        }
+    }
+
+    @Override
+    public long appendRoom(int roomNumber, RoomType roomType, int pricePerNight) {
+        lock.lock();
+        try {
+            ByteBuffer buffer = reserve();
+            int start = buffer.position();
+            buffer.put(ROOM).putInt(roomNumber).put((byte) roomType.ordinal()).putInt(pricePerNight);
+            return seal(buffer, start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long appendUser(int userId, int balance) {
+        lock.lock();
+        try {
+            ByteBuffer buffer = reserve();
+            int start = buffer.position();
+            buffer.put(USER).putInt(userId).putInt(balance);
+            return seal(buffer, start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long appendBooking(Booking booking) {
+        lock.lock();
+        try {
+            ByteBuffer buffer = reserve();
+            int start = buffer.position();
+            putBooking(buffer.put(PRICED_BOOKING), booking);
+            return seal(buffer, start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long appendCancel(Booking booking) {
+        lock.lock();
+        try {
+            ByteBuffer buffer = reserve();
+            int start = buffer.position();
+            buffer.put(CANCEL).putInt(booking.getRoomNumber()).putInt((int) booking.getCheckIn().toEpochDay());
+            return seal(buffer, start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long appendModify(Booking cancelled, Booking replacement) {
+        lock.lock();
+        try {
+            ByteBuffer buffer = reserve();
+            int start = buffer.position();
+            buffer.put(PRICED_MODIFY).putInt(cancelled.getRoomNumber())
+                    .putInt((int) cancelled.getCheckIn().toEpochDay());
+            putBooking(buffer, replacement);
+            return seal(buffer, start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long appendReservation(int reservationId, TypeReservation reservation) {
+        lock.lock();
+        try {
+            ByteBuffer buffer = reserve();
+            int start = buffer.position();
+            putReservation(buffer.put(RESERVE), reservationId, reservation);
+            return seal(buffer, start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long appendCancelReservation(int reservationId) {
+        lock.lock();
+        try {
+            ByteBuffer buffer = reserve();
+            int start = buffer.position();
+            buffer.put(CANCEL_RESERVATION).putInt(reservationId);
+            return seal(buffer, start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long appendCheckIn(int reservationId, Booking booking) {
+        lock.lock();
+        try {
+            ByteBuffer buffer = reserve();
+            int start = buffer.position();
+            buffer.put(CHECK_IN).putInt(reservationId);
+            putBooking(buffer, booking);
+            return seal(buffer, start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long appendOverbookingAllowance(RoomType roomType, int allowance) {
+        lock.lock();
+        try {
+            ByteBuffer buffer = reserve();
+            int start = buffer.position();
+            buffer.put(OVERBOOKING).put((byte) roomType.ordinal()).putInt(allowance);
+            return seal(buffer, start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until every record up to position is fsynced.
+     * Whoever finds unflushed data while no flush is running performs the flush
+     * for everyone appended so far.
+     */
+    @Override
+    public void awaitDurable(long position) {
+        lock.lock();
+        try {
+            while (durablePosition < position) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Journal write failed", failure);
+                }
+                if (flushInProgress) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+                flushPending();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the file position just past the last appended record.
+     */
+    public long position() {
+        lock.lock();
+        try {
+            return appendedPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes outstanding records and closes the file.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            awaitDurable(appendedPosition);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ===== Private Helpers =====
+
+    // Caller holds the lock and clears flushInProgress before returning
+    private void flushPending() {
+        ByteBuffer batch = pending;
+        pending = flushing;
+        flushing = batch;
+        long batchEnd = appendedPosition;
+        flushInProgress = true;
+
+        lock.unlock();
+        IOException error = null;
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            lock.lock();
+        }
+
+        batch.clear();
+        flushInProgress = false;
+        if (error != null) {
+            failure = error;
+        } else {
+            durablePosition = batchEnd;
+        }
+        flushed.signalAll();
+    }
+
+    // Caller holds the lock
+    private ByteBuffer reserve() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+        if (pending.remaining() < MAX_RECORD) {
+            ByteBuffer larger = ByteBuffer.allocate(pending.capacity() * 2);
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+        return pending;
+    }
+
+    // Caller holds the lock
+    private long seal(ByteBuffer buffer, int start) {
+        crc.reset();
+        crc.update(buffer.array(), start, buffer.position() - start);
+        buffer.putInt((int) crc.getValue());
+        appendedPosition += buffer.position() - start;
+        return appendedPosition;
+    }
+
+    private static long replay(FileChannel channel, JournalHandler handler) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        CRC32C checksum = new CRC32C();
+        long position = 0;
+        channel.position(0);
+
+        while (channel.read(buffer) > 0 || buffer.position() > 0) {
+            buffer.flip();
+            int consumed = 0;
+            while (buffer.remaining() > 0) {
+                int length = recordLength(buffer.get(buffer.position()));
+                if (length < 0) {
+                    return position;  // Corrupt type byte
+                }
+                if (buffer.remaining() < length) {
+                    break;
+                }
+
+                int start = buffer.position();
+                checksum.reset();
+                checksum.update(buffer.array(), start, length - 4);
+                if (buffer.getInt(start + length - 4) != (int) checksum.getValue()) {
+                    return position;  // Torn write
+                }
+
+                dispatch(buffer, handler);
+                buffer.position(start + length);
+                position += length;
+                consumed++;
+            }
+
+            if (consumed == 0 && buffer.remaining() > 0 && channel.position() == channel.size()) {
+                return position;  // Truncated final record
+            }
+            buffer.compact();
+        }
+        return position;
+    }
+
+    // Priced booking payload, shared with snapshot files
+    static void putBooking(ByteBuffer buffer, Booking booking) {
+        buffer.putInt(booking.getUserId())
+                .putInt(booking.getRoomNumber())
+                .putInt((int) booking.getCheckIn().toEpochDay())
+                .putInt((int) booking.getCheckOut().toEpochDay())
+                .put((byte) booking.getRoomTypeAtBooking().ordinal())
+                .putInt(booking.getPricePerNightAtBooking())
+                .putInt(booking.getUserBalanceAtBooking())
+                .putInt(booking.getTotalPrice());
+    }
+
+    // Reads a booking payload; unpriced payloads predate rate rules and lack the total
+    static Booking getBooking(ByteBuffer buffer, boolean priced) {
+        int userId = buffer.getInt();
+        int roomNumber = buffer.getInt();
+        LocalDate checkIn = LocalDate.ofEpochDay(buffer.getInt());
+        LocalDate checkOut = LocalDate.ofEpochDay(buffer.getInt());
+        RoomType roomType = ROOM_TYPES[buffer.get()];
+        int pricePerNight = buffer.getInt();
+        int balance = buffer.getInt();
+        if (!priced) {
+            return new Booking(userId, roomNumber, checkIn, checkOut, roomType, pricePerNight, balance);
+        }
+        return new Booking(userId, roomNumber, checkIn, checkOut, roomType, pricePerNight, balance,
+                buffer.getInt());
+    }
+
+    // Reservation payload, shared with snapshot files
+    static void putReservation(ByteBuffer buffer, int reservationId, TypeReservation reservation) {
+        buffer.putInt(reservationId)
+                .putInt(reservation.getUserId())
+                .put((byte) reservation.getRoomType().ordinal())
+                .putInt((int) reservation.getCheckIn().toEpochDay())
+                .putInt((int) reservation.getCheckOut().toEpochDay());
+    }
+
+    // Reads a reservation payload into handler
+    static void getReservation(ByteBuffer buffer, JournalHandler handler) {
+        int reservationId = buffer.getInt();
+        int userId = buffer.getInt();
+        RoomType roomType = ROOM_TYPES[buffer.get()];
+        LocalDate checkIn = LocalDate.ofEpochDay(buffer.getInt());
+        LocalDate checkOut = LocalDate.ofEpochDay(buffer.getInt());
+        handler.onReservation(reservationId, new TypeReservation(userId, roomType, checkIn, checkOut));
+    }
+
+    private static int recordLength(byte type) {
+        switch (type) {
+            case ROOM:
+                return 1 + ROOM_PAYLOAD + 4;
+            case USER:
+                return 1 + USER_PAYLOAD + 4;
+            case BOOKING:
+                return 1 + BOOKING_PAYLOAD + 4;
+            case CANCEL:
+                return 1 + CANCEL_PAYLOAD + 4;
+            case MODIFY:
+                return 1 + MODIFY_PAYLOAD + 4;
+            case PRICED_BOOKING:
+                return 1 + PRICED_BOOKING_PAYLOAD + 4;
+            case PRICED_MODIFY:
+                return 1 + PRICED_MODIFY_PAYLOAD + 4;
+            case RESERVE:
+                return 1 + RESERVE_PAYLOAD + 4;
+            case CANCEL_RESERVATION:
+                return 1 + CANCEL_RESERVATION_PAYLOAD + 4;
+            case CHECK_IN:
+                return 1 + CHECK_IN_PAYLOAD + 4;
+            case OVERBOOKING:
+                return 1 + OVERBOOKING_PAYLOAD + 4;
+            default:
+                return -1;
+        }
+    }
+
+    private static void dispatch(ByteBuffer buffer, JournalHandler handler) {
+        byte type = buffer.get();
+        switch (type) {
+            case ROOM:
+                handler.onRoom(buffer.getInt(), ROOM_TYPES[buffer.get()], buffer.getInt());
+                break;
+            case USER:
+                handler.onUser(buffer.getInt(), buffer.getInt());
+                break;
+            case BOOKING:
+            case PRICED_BOOKING:
+                handler.onBooking(getBooking(buffer, type == PRICED_BOOKING));
+                break;
+            case CANCEL:
+                handler.onCancel(buffer.getInt(), LocalDate.ofEpochDay(buffer.getInt()));
+                break;
+            case MODIFY:
+            case PRICED_MODIFY:
+                handler.onCancel(buffer.getInt(), LocalDate.ofEpochDay(buffer.getInt()));
+                handler.onBooking(getBooking(buffer, type == PRICED_MODIFY));
+                break;
+            case RESERVE:
+                getReservation(buffer, handler);
+                break;
+            case CANCEL_RESERVATION:
+                handler.onReservationClosed(buffer.getInt());
+                break;
+            case CHECK_IN:
+                handler.onReservationClosed(buffer.getInt());
+                handler.onBooking(getBooking(buffer, true));
+                break;
+            case OVERBOOKING:
+                handler.onOverbookingAllowance(ROOM_TYPES[buffer.get()], buffer.getInt());
+                break;
+            default:
+                throw new IllegalStateException("Unknown record type: " + type);
+        }
+    }
+}
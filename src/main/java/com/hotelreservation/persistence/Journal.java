@@ -0,0 +1,106 @@
+package com.hotelreservation.persistence;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.TypeReservation;
+import com.hotelreservation.enums.RoomType;
+
+/**
+ * Records service mutations for durability.
+ * Appends return a position; awaitDurable blocks until everything up to it is on disk.
+ */
+public interface Journal extends AutoCloseable {
+
+    /**
+     * Journal that keeps nothing, used when persistence is off.
+     */
+    Journal NONE = new Journal() {
+        @Override
+        public long appendRoom(int roomNumber, RoomType roomType, int pricePerNight) {
+            return 0;
+        }
+
+        @Override
+        public long appendUser(int userId, int balance) {
+            return 0;
+        }
+
+        @Override
+        public long appendBooking(Booking booking) {
+            return 0;
+        }
+
+        @Override
+        public long appendCancel(Booking booking) {
+            return 0;
+        }
+
+        @Override
+        public long appendModify(Booking cancelled, Booking replacement) {
+            return 0;
+        }
+
+        @Override
+        public long appendReservation(int reservationId, TypeReservation reservation) {
+            return 0;
+        }
+
+        @Override
+        public long appendCancelReservation(int reservationId) {
+            return 0;
+        }
+
+        @Override
+        public long appendCheckIn(int reservationId, Booking booking) {
+            return 0;
+        }
+
+        @Override
+        public long appendOverbookingAllowance(RoomType roomType, int allowance) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long position) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    long appendRoom(int roomNumber, RoomType roomType, int pricePerNight);
+
+    long appendUser(int userId, int balance);
+
+    long appendBooking(Booking booking);
+
+    /**
+     * Records a cancellation. The booking is named by its room and check-in day,
+     * which no other active booking shares.
+     */
+    long appendCancel(Booking booking);
+
+    /**
+     * Records cancelled being replaced by replacement as one record, so replay never sees only half.
+     */
+    long appendModify(Booking cancelled, Booking replacement);
+
+    /**
+     * Records a room type reservation with its id, so replay opens it under the same id.
+     */
+    long appendReservation(int reservationId, TypeReservation reservation);
+
+    long appendCancelReservation(int reservationId);
+
+    /**
+     * Records a reservation being closed by the booking it was checked in as, in one record.
+     */
+    long appendCheckIn(int reservationId, Booking booking);
+
+    long appendOverbookingAllowance(RoomType roomType, int allowance);
+
+    void awaitDurable(long position);
+
+    @Override
+    void close();
+}
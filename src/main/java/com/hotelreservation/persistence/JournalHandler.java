@@ -0,0 +1,33 @@
+package com.hotelreservation.persistence;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.TypeReservation;
+import com.hotelreservation.enums.RoomType;
+
+import java.time.LocalDate;
+
+/**
+ * Receives journal records, in order, while a journal is replayed.
+ */
+public interface JournalHandler {
+
+    void onRoom(int roomNumber, RoomType roomType, int pricePerNight);
+
+    void onUser(int userId, int balance);
+
+    void onBooking(Booking booking);
+
+    /**
+     * The room's active booking checking in on checkIn was cancelled.
+     */
+    void onCancel(int roomNumber, LocalDate checkIn);
+
+    void onReservation(int reservationId, TypeReservation reservation);
+
+    /**
+     * The reservation was cancelled or checked in.
+     */
+    void onReservationClosed(int reservationId);
+
+    void onOverbookingAllowance(RoomType roomType, int allowance);
+}
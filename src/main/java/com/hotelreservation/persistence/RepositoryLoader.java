@@ -0,0 +1,101 @@
+package com.hotelreservation.persistence;
+
+import com.hotelreservation.analytics.OccupancyAnalytics;
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.entities.TypeReservation;
+import com.hotelreservation.entities.User;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.repositories.BookingRepository;
+import com.hotelreservation.repositories.ReservationRepository;
+import com.hotelreservation.repositories.RoomRepository;
+import com.hotelreservation.repositories.UserRepository;
+
+import java.time.LocalDate;
+
+/**
+ * Rebuilds repositories from replayed records.
+ * Records were validated when first written, so they are applied without re-validation.
+ */
+public class RepositoryLoader implements JournalHandler {
+    private final RoomRepository roomRepository;
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final OccupancyAnalytics analytics;
+    private final ReservationRepository reservationRepository;
+
+    public RepositoryLoader(RoomRepository roomRepository, UserRepository userRepository,
+                            BookingRepository bookingRepository) {
+        this(roomRepository, userRepository, bookingRepository, new OccupancyAnalytics(),
+                new ReservationRepository());
+    }
+
+    /**
+     * Also records every replayed booking in analytics, and reservations and overbooking
+     * allowances in reservationRepository.
+     */
+    public RepositoryLoader(RoomRepository roomRepository, UserRepository userRepository,
+                            BookingRepository bookingRepository, OccupancyAnalytics analytics,
+                            ReservationRepository reservationRepository) {
+        this.roomRepository = roomRepository;
+        this.userRepository = userRepository;
+        this.bookingRepository = bookingRepository;
+        this.analytics = analytics;
+        this.reservationRepository = reservationRepository;
+    }
+
+    @Override
+    public void onRoom(int roomNumber, RoomType roomType, int pricePerNight) {
+        Room room = roomRepository.findByRoomNumber(roomNumber).orElse(null);
+        if (room != null) {
+            roomRepository.update(room, roomType, pricePerNight);
+        } else {
+            roomRepository.save(new Room(roomNumber, roomType, pricePerNight));
+        }
+    }
+
+    @Override
+    public void onUser(int userId, int balance) {
+        User user = userRepository.findByUserId(userId).orElse(null);
+        if (user != null) {
+            user.setBalance(balance);
+        } else {
+            userRepository.save(new User(userId, balance));
+        }
+    }
+
+    @Override
+    public void onBooking(Booking booking) {
+        bookingRepository.save(booking);
+        analytics.record(booking);
+
+        userRepository.findByUserId(booking.getUserId())
+                .ifPresent(user -> user.deductBalance(booking.getTotalPrice()));
+    }
+
+    @Override
+    public void onCancel(int roomNumber, LocalDate checkIn) {
+        Booking booking = bookingRepository.cancel(bookingRepository.findIdByCheckIn(roomNumber, checkIn));
+        if (booking == null) {
+            return;
+        }
+        analytics.remove(booking);
+        userRepository.findByUserId(booking.getUserId())
+                .ifPresent(user -> user.addBalance(booking.getTotalPrice()));
+    }
+
+    @Override
+    public void onReservation(int reservationId, TypeReservation reservation) {
+        reservationRepository.put(reservationId, reservation);
+    }
+
+    @Override
+    public void onReservationClosed(int reservationId) {
+        reservationRepository.remove(reservationId);
+    }
+
+    @Override
+    public void onOverbookingAllowance(RoomType roomType, int allowance) {
+        reservationRepository.setOverbookingAllowance(roomType, allowance);
+    }
+}
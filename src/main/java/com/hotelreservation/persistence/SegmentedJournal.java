@@ -0,0 +1,207 @@
+package com.hotelreservation.persistence;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.TypeReservation;
+import com.hotelreservation.enums.RoomType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Journal split into numbered segments inside a directory, plus snapshots.
+ * Snapshot N holds the state produced by every segment before N, so startup loads
+ * the newest snapshot and replays only the segments from N on. Once snapshot N is
+ * on disk, older segments and snapshots are deleted.
+ */
+public class SegmentedJournal implements Journal {
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private final Path directory;
+    private volatile Segment current;
+
+    // Active segment file; positions handed out are base + file position
+    private static final class Segment {
+        final long generation;
+        final long base;
+        final FileJournal journal;
+
+        Segment(long generation, long base, FileJournal journal) {
+            this.generation = generation;
+            this.base = base;
+            this.journal = journal;
+        }
+    }
+
+    private SegmentedJournal(Path directory, Segment current) {
+        this.directory = directory;
+        this.current = current;
+    }
+
+    /**
+     * Loads the newest snapshot and replays the newer segments into handler,
+     * then opens the last segment for appending.
+     */
+    public static SegmentedJournal open(Path directory, JournalHandler handler) throws IOException {
+        Files.createDirectories(directory);
+
+        long snapshotGeneration = latest(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        if (snapshotGeneration > 0) {
+            SnapshotFile.load(snapshotPath(directory, snapshotGeneration), handler);
+        }
+
+        List<Long> segments = new ArrayList<>();
+        for (long generation : generations(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (generation >= snapshotGeneration) {
+                segments.add(generation);
+            }
+        }
+
+        long active = segments.isEmpty() ? Math.max(snapshotGeneration, 1) : segments.get(segments.size() - 1);
+        for (long generation : segments) {
+            if (generation != active) {
+                FileJournal.replay(segmentPath(directory, generation), handler);
+            }
+        }
+        FileJournal journal = FileJournal.open(segmentPath(directory, active), handler);
+        return new SegmentedJournal(directory, new Segment(active, 0, journal));
+    }
+
+    @Override
+    public long appendRoom(int roomNumber, RoomType roomType, int pricePerNight) {
+        Segment segment = current;
+        return segment.base + segment.journal.appendRoom(roomNumber, roomType, pricePerNight);
+    }
+
+    @Override
+    public long appendUser(int userId, int balance) {
+        Segment segment = current;
+        return segment.base + segment.journal.appendUser(userId, balance);
+    }
+
+    @Override
+    public long appendBooking(Booking booking) {
+        Segment segment = current;
+        return segment.base + segment.journal.appendBooking(booking);
+    }
+
+    @Override
+    public long appendCancel(Booking booking) {
+        Segment segment = current;
+        return segment.base + segment.journal.appendCancel(booking);
+    }
+
+    @Override
+    public long appendModify(Booking cancelled, Booking replacement) {
+        Segment segment = current;
+        return segment.base + segment.journal.appendModify(cancelled, replacement);
+    }
+
+    @Override
+    public long appendReservation(int reservationId, TypeReservation reservation) {
+        Segment segment = current;
+        return segment.base + segment.journal.appendReservation(reservationId, reservation);
+    }
+
+    @Override
+    public long appendCancelReservation(int reservationId) {
+        Segment segment = current;
+        return segment.base + segment.journal.appendCancelReservation(reservationId);
+    }
+
+    @Override
+    public long appendCheckIn(int reservationId, Booking booking) {
+        Segment segment = current;
+        return segment.base + segment.journal.appendCheckIn(reservationId, booking);
+    }
+
+    @Override
+    public long appendOverbookingAllowance(RoomType roomType, int allowance) {
+        Segment segment = current;
+        return segment.base + segment.journal.appendOverbookingAllowance(roomType, allowance);
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+        Segment segment = current;
+        // Earlier segments were flushed before being rolled over
+        if (position > segment.base) {
+            segment.journal.awaitDurable(position - segment.base);
+        }
+    }
+
+    /**
+     * Closes the active segment and starts the next one.
+     * The caller must pause all appends; the returned generation is the one
+     * whose snapshot should capture the state at this moment.
+     */
+    public long roll() throws IOException {
+        Segment previous = current;
+        long end = previous.journal.position();
+        previous.journal.close();
+
+        long generation = previous.generation + 1;
+        FileJournal journal = FileJournal.create(segmentPath(directory, generation));
+        current = new Segment(generation, previous.base + end, journal);
+        return generation;
+    }
+
+    /**
+     * Writes snapshot generation and deletes the segments and snapshots it supersedes.
+     * Safe to run while appends continue.
+     */
+    public void writeSnapshot(long generation, StateSnapshot snapshot) throws IOException {
+        SnapshotFile.write(snapshotPath(directory, generation), snapshot);
+
+        for (long older : generations(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (older < generation) {
+                Files.deleteIfExists(segmentPath(directory, older));
+            }
+        }
+        for (long older : generations(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (older < generation) {
+                Files.deleteIfExists(snapshotPath(directory, older));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        current.journal.close();
+    }
+
+    // ===== Private Helpers =====
+
+    private static Path segmentPath(Path directory, long generation) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, generation, SEGMENT_SUFFIX));
+    }
+
+    private static Path snapshotPath(Path directory, long generation) {
+        return directory.resolve(String.format("%s%016d%s", SNAPSHOT_PREFIX, generation, SNAPSHOT_SUFFIX));
+    }
+
+    private static long latest(Path directory, String prefix, String suffix) throws IOException {
+        List<Long> found = generations(directory, prefix, suffix);
+        return found.isEmpty() ? 0 : found.get(found.size() - 1);
+    }
+
+    // Generations present on disk, ascending
+    private static List<Long> generations(Path directory, String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                    .sorted()
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
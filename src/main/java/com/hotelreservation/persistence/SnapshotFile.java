@@ -0,0 +1,187 @@
+package com.hotelreservation.persistence;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.TypeReservation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary snapshot of rooms, bookings, users and room type reservations.
+ * Layout: header, room records, booking records, user records, then each room type's
+ * overbooking allowance, the reservation count and reservation records, and finally a
+ * CRC32C of everything before it.
+ * Users come after bookings so their balances overwrite the deductions applied while loading them.
+ * Version 3 adds the allowances and reservations, version 2 booking records carry the total
+ * charged; version 1 and 2 files still load, with no reservations.
+ * Files are written to a temporary name and renamed, so a snapshot on disk is always complete;
+ * loading memory-maps the file instead of streaming it through heap buffers.
+ */
+public final class SnapshotFile {
+    private static final int MAGIC = 0x48525331;  // "HRS1"
+    private static final int VERSION = 3;
+    private static final int UNPRICED_VERSION = 1;
+    private static final int HEADER = 4 + 4 + 4 + 4 + 8;
+    private static final int ROOM_RECORD = 4 + 1 + 4;
+    private static final int USER_RECORD = 4 + 4;
+    private static final int BOOKING_RECORD = FileJournal.PRICED_BOOKING_PAYLOAD;
+    private static final int UNPRICED_BOOKING_RECORD = FileJournal.BOOKING_PAYLOAD;
+    private static final int RESERVATION_RECORD = FileJournal.RESERVE_PAYLOAD;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final long MAP_WINDOW = 1L << 30;
+
+    private SnapshotFile() {
+    }
+
+    public static void write(Path file, StateSnapshot snapshot) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            CRC32C crc = new CRC32C();
+
+            buffer.putInt(MAGIC).putInt(VERSION)
+                    .putInt(snapshot.roomNumbers.length)
+                    .putInt(snapshot.userIds.length)
+                    .putLong(snapshot.bookings.size());
+
+            for (int i = 0; i < snapshot.roomNumbers.length; i++) {
+                ensureRoom(channel, buffer, crc, ROOM_RECORD);
+                buffer.putInt(snapshot.roomNumbers[i])
+                        .put((byte) snapshot.roomTypes[i].ordinal())
+                        .putInt(snapshot.roomPrices[i]);
+            }
+            // Oldest first, so replaying the file saves them in their original order and ids
+            for (Booking booking : snapshot.bookings.oldestFirst()) {
+                ensureRoom(channel, buffer, crc, BOOKING_RECORD);
+                FileJournal.putBooking(buffer, booking);
+            }
+            for (int i = 0; i < snapshot.userIds.length; i++) {
+                ensureRoom(channel, buffer, crc, USER_RECORD);
+                buffer.putInt(snapshot.userIds[i]).putInt(snapshot.userBalances[i]);
+            }
+            ensureRoom(channel, buffer, crc, 4 * (FileJournal.ROOM_TYPES.length + 1));
+            for (int allowance : snapshot.overbookingAllowances) {
+                buffer.putInt(allowance);
+            }
+            buffer.putInt(snapshot.reservations.size());
+            for (Map.Entry<Integer, TypeReservation> reservation : snapshot.reservations.entrySet()) {
+                ensureRoom(channel, buffer, crc, RESERVATION_RECORD);
+                FileJournal.putReservation(buffer, reservation.getKey(), reservation.getValue());
+            }
+
+            drain(channel, buffer, crc);
+            buffer.putInt((int) crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Verifies the checksum, then feeds every record to handler.
+     */
+    public static void load(Path file, JournalHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER + 4) {
+                throw new IOException("Snapshot is truncated: " + file);
+            }
+            verifyChecksum(channel, size, file);
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            int magic = header.getInt();
+            int version = header.getInt();
+            if (magic != MAGIC || version < UNPRICED_VERSION || version > VERSION) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            boolean priced = version != UNPRICED_VERSION;
+            int roomCount = header.getInt();
+            int userCount = header.getInt();
+            long bookingCount = header.getLong();
+
+            long offset = HEADER;
+            offset = readSection(channel, offset, roomCount, ROOM_RECORD, buffer ->
+                    handler.onRoom(buffer.getInt(), FileJournal.ROOM_TYPES[buffer.get()], buffer.getInt()));
+            offset = readSection(channel, offset, bookingCount, priced ? BOOKING_RECORD : UNPRICED_BOOKING_RECORD,
+                    buffer -> handler.onBooking(FileJournal.getBooking(buffer, priced)));
+            offset = readSection(channel, offset, userCount, USER_RECORD, buffer ->
+                    handler.onUser(buffer.getInt(), buffer.getInt()));
+            if (version < VERSION) {
+                return;  // Written before reservations were kept
+            }
+
+            ByteBuffer allowances = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                    4 * (FileJournal.ROOM_TYPES.length + 1));
+            for (int type = 0; type < FileJournal.ROOM_TYPES.length; type++) {
+                handler.onOverbookingAllowance(FileJournal.ROOM_TYPES[type], allowances.getInt());
+            }
+            int reservationCount = allowances.getInt();
+            offset += allowances.capacity();
+            readSection(channel, offset, reservationCount, RESERVATION_RECORD, buffer ->
+                    FileJournal.getReservation(buffer, handler));
+        }
+    }
+
+    // ===== Private Helpers =====
+
+    private interface RecordReader {
+        void read(ByteBuffer buffer);
+    }
+
+    private static long readSection(FileChannel channel, long offset, long count, int recordSize,
+                                    RecordReader reader) throws IOException {
+        long recordsPerWindow = MAP_WINDOW / recordSize;
+        long remaining = count;
+        while (remaining > 0) {
+            long records = Math.min(recordsPerWindow, remaining);
+            ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset, records * recordSize);
+            for (long i = 0; i < records; i++) {
+                reader.read(window);
+            }
+            offset += records * recordSize;
+            remaining -= records;
+        }
+        return offset;
+    }
+
+    private static void verifyChecksum(FileChannel channel, long size, Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        long body = size - 4;
+        for (long offset = 0; offset < body; offset += MAP_WINDOW) {
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(MAP_WINDOW, body - offset)));
+        }
+        int stored = channel.map(FileChannel.MapMode.READ_ONLY, body, 4).getInt();
+        if (stored != (int) crc.getValue()) {
+            throw new IOException("Snapshot checksum mismatch: " + file);
+        }
+    }
+
+    private static void ensureRoom(FileChannel channel, ByteBuffer buffer, CRC32C crc, int bytes)
+            throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain(channel, buffer, crc);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer, CRC32C crc) throws IOException {
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,60 @@
+package com.hotelreservation.persistence;
+
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.entities.TypeReservation;
+import com.hotelreservation.entities.User;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.repositories.BookingSnapshot;
+import com.hotelreservation.repositories.ReservationRepository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of all service state, taken while mutations are paused.
+ * Rooms, users and overbooking allowances are mutable, so their values are copied; bookings
+ * are immutable, so a repository snapshot is kept instead, read only when the snapshot is
+ * written. Open reservations are immutable too, and few, so the id map is copied.
+ */
+public class StateSnapshot {
+    final int[] roomNumbers;
+    final RoomType[] roomTypes;
+    final int[] roomPrices;
+    final int[] userIds;
+    final int[] userBalances;
+    final BookingSnapshot bookings;
+    final Map<Integer, TypeReservation> reservations;
+    final int[] overbookingAllowances = new int[RoomType.values().length];
+
+    private StateSnapshot(int roomCount, int userCount, BookingSnapshot bookings,
+                          Map<Integer, TypeReservation> reservations) {
+        this.roomNumbers = new int[roomCount];
+        this.roomTypes = new RoomType[roomCount];
+        this.roomPrices = new int[roomCount];
+        this.userIds = new int[userCount];
+        this.userBalances = new int[userCount];
+        this.bookings = bookings;
+        this.reservations = reservations;
+    }
+
+    public static StateSnapshot capture(List<Room> rooms, List<User> users, BookingSnapshot bookings,
+                                        ReservationRepository reservations) {
+        StateSnapshot snapshot = new StateSnapshot(rooms.size(), users.size(), bookings,
+                reservations.findAllById());
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            snapshot.roomNumbers[i] = room.getRoomNumber();
+            snapshot.roomTypes[i] = room.getRoomType();
+            snapshot.roomPrices[i] = room.getPricePerNight();
+        }
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            snapshot.userIds[i] = user.getUserId();
+            snapshot.userBalances[i] = user.getBalance();
+        }
+        for (RoomType type : RoomType.values()) {
+            snapshot.overbookingAllowances[type.ordinal()] = reservations.getOverbookingAllowance(type);
+        }
+        return snapshot;
+    }
+}
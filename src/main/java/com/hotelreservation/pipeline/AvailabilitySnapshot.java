@@ -0,0 +1,56 @@
+package com.hotelreservation.pipeline;
+
+import com.hotelreservation.enums.RoomType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable view of every room and its stays, as of the end of a writer batch.
+ * Rooms are stored in fixed-size chunks that successive snapshots share,
+ * so publishing one copies only the chunks whose rooms changed.
+ */
+public final class AvailabilitySnapshot {
+    static final int CHUNK_BITS = 8;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private final RoomView[][] chunks;
+    private final int roomCount;
+    private final long sequence;
+
+    AvailabilitySnapshot(RoomView[][] chunks, int roomCount, long sequence) {
+        this.chunks = chunks;
+        this.roomCount = roomCount;
+        this.sequence = sequence;
+    }
+
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * Number of mutations applied before this snapshot was published.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Rooms of the given type, priced at or below maxPricePerNight, free for [checkIn, checkOut).
+     */
+    public List<RoomView> findAvailableRooms(RoomType roomType, int maxPricePerNight,
+                                             LocalDate checkIn, LocalDate checkOut) {
+        int checkInDay = (int) checkIn.toEpochDay();
+        int checkOutDay = (int) checkOut.toEpochDay();
+        List<RoomView> result = new ArrayList<>();
+        for (int slot = 0; slot < roomCount; slot++) {
+            RoomView room = chunks[slot >>> CHUNK_BITS][slot & (CHUNK_SIZE - 1)];
+            if (room.getRoomType() == roomType && room.getPricePerNight() <= maxPricePerNight
+                    && room.isFree(checkInDay, checkOutDay)) {
+                result.add(room);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,318 @@
+package com.hotelreservation.pipeline;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.enums.BookingStatus;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.persistence.FileJournal;
+import com.hotelreservation.persistence.Journal;
+import com.hotelreservation.persistence.RepositoryLoader;
+import com.hotelreservation.repositories.BookingRepository;
+import com.hotelreservation.repositories.ListBookingRepository;
+import com.hotelreservation.repositories.RoomRepository;
+import com.hotelreservation.repositories.UserRepository;
+import com.hotelreservation.services.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-writer front end for a Service.
+ * Callers enqueue mutations into a lock-free ring buffer and get a future back; one writer
+ * thread applies them in enqueue order, journals the batch with a single fsync, publishes
+ * a new AvailabilitySnapshot and only then completes the batch's futures.
+ * Reads never touch the writer: they are answered from the latest published snapshot,
+ * which reflects every mutation whose future has completed.
+ * A full ring buffer blocks producers until the writer catches up.
+ */
+public class BookingPipeline implements AutoCloseable {
+    private static final int BATCH_SIZE = 1024;
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    private static final long FULL_PARK_NANOS = 10_000;
+
+    private final Service service;
+    private final DeferredJournal journal;
+    private final MpscRingBuffer<Mutation<?>> queue;
+    private final SnapshotBuilder builder = new SnapshotBuilder();
+    private final Mutation<?>[] batch = new Mutation<?>[BATCH_SIZE];
+    private final Thread writer;
+    private volatile AvailabilitySnapshot snapshot;
+    private volatile boolean writerSleeping;
+    private volatile boolean closed;
+    private volatile boolean stopped;  // set by the writer once it takes no more mutations
+
+    private BookingPipeline(RoomRepository roomRepository, UserRepository userRepository,
+                            BookingRepository bookingRepository, Journal journal, int capacity) {
+        this.journal = new DeferredJournal(journal);
+        this.service = new Service(roomRepository, userRepository, bookingRepository, this.journal);
+        this.queue = new MpscRingBuffer<>(capacity);
+
+        for (Room room : roomRepository.findAll()) {
+            builder.putRoom(room.getRoomNumber(), room.getRoomType(), room.getPricePerNight());
+        }
+        for (Booking booking : bookingRepository.findAll()) {
+            builder.addStay(booking.getRoomNumber(),
+                    (int) booking.getCheckIn().toEpochDay(), (int) booking.getCheckOut().toEpochDay());
+        }
+        this.snapshot = builder.publish();
+
+        this.writer = new Thread(this::writeLoop, "booking-pipeline-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Starts a pipeline over existing repositories. The pipeline's writer becomes their only
+     * mutator; capacity is the ring buffer size and must be a power of two.
+     */
+    public static BookingPipeline start(RoomRepository roomRepository, UserRepository userRepository,
+                                        BookingRepository bookingRepository, Journal journal, int capacity) {
+        BookingPipeline pipeline = new BookingPipeline(roomRepository, userRepository, bookingRepository,
+                journal, capacity);
+        pipeline.writer.start();
+        return pipeline;
+    }
+
+    /**
+     * Starts an in-memory pipeline with empty repositories.
+     */
+    public static BookingPipeline start(int capacity) {
+        return start(new RoomRepository(), new UserRepository(), new ListBookingRepository(),
+                Journal.NONE, capacity);
+    }
+
+    /**
+     * Replays the journal file, then starts a durable pipeline appending to it.
+     */
+    public static BookingPipeline open(Path journalFile, int capacity) throws IOException {
+        RoomRepository rooms = new RoomRepository();
+        UserRepository users = new UserRepository();
+        BookingRepository bookings = new ListBookingRepository();
+        FileJournal journal = FileJournal.open(journalFile, new RepositoryLoader(rooms, users, bookings));
+        return start(rooms, users, bookings, journal, capacity);
+    }
+
+    public CompletableFuture<Void> setRoom(int roomNumber, RoomType roomType, int roomPricePerNight) {
+        return submit(new SetRoom(roomNumber, roomType, roomPricePerNight));
+    }
+
+    public CompletableFuture<Void> setUser(int userId, int balance) {
+        return submit(new SetUser(userId, balance));
+    }
+
+    /**
+     * Completes with the booking's status; refusals complete normally, like Service.tryBookRoom.
+     */
+    public CompletableFuture<BookingStatus> bookRoom(int userId, int roomNumber,
+                                                     LocalDate checkIn, LocalDate checkOut) {
+        return submit(new BookRoom(userId, roomNumber, checkIn, checkOut));
+    }
+
+    /**
+     * Latest published snapshot; never blocks.
+     */
+    public AvailabilitySnapshot snapshot() {
+        return snapshot;
+    }
+
+    public List<RoomView> findAvailableRooms(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        return snapshot.findAvailableRooms(roomType, Integer.MAX_VALUE, checkIn, checkOut);
+    }
+
+    /**
+     * Applies every mutation already enqueued, then stops the writer and closes the journal.
+     * Mutations submitted after close fail with IllegalStateException; one that races with
+     * close and reaches the ring after the writer's last batch completes with it instead.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        service.close();
+    }
+
+    // ===== Mutations =====
+
+    private abstract static class Mutation<T> {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+        private RuntimeException failure;
+
+        abstract T apply(Service service, SnapshotBuilder builder);
+
+        final void run(Service service, SnapshotBuilder builder) {
+            try {
+                value = apply(service, builder);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        final void complete() {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+
+    private static final class SetRoom extends Mutation<Void> {
+        private final int roomNumber;
+        private final RoomType roomType;
+        private final int pricePerNight;
+
+        SetRoom(int roomNumber, RoomType roomType, int pricePerNight) {
+            this.roomNumber = roomNumber;
+            this.roomType = roomType;
+            this.pricePerNight = pricePerNight;
+        }
+
+        @Override
+        Void apply(Service service, SnapshotBuilder builder) {
+            service.setRoom(roomNumber, roomType, pricePerNight);
+            builder.putRoom(roomNumber, roomType, pricePerNight);
+            return null;
+        }
+    }
+
+    private static final class SetUser extends Mutation<Void> {
+        private final int userId;
+        private final int balance;
+
+        SetUser(int userId, int balance) {
+            this.userId = userId;
+            this.balance = balance;
+        }
+
+        @Override
+        Void apply(Service service, SnapshotBuilder builder) {
+            service.setUser(userId, balance);
+            return null;
+        }
+    }
+
+    private static final class BookRoom extends Mutation<BookingStatus> {
+        private final int userId;
+        private final int roomNumber;
+        private final LocalDate checkIn;
+        private final LocalDate checkOut;
+
+        BookRoom(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+            this.userId = userId;
+            this.roomNumber = roomNumber;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+        }
+
+        @Override
+        BookingStatus apply(Service service, SnapshotBuilder builder) {
+            BookingStatus status = service.tryBookRoom(userId, roomNumber, checkIn, checkOut);
+            if (status == BookingStatus.SUCCESS) {
+                builder.addStay(roomNumber, (int) checkIn.toEpochDay(), (int) checkOut.toEpochDay());
+            }
+            return status;
+        }
+    }
+
+    // ===== Private Helpers =====
+
+    private <T> CompletableFuture<T> submit(Mutation<T> mutation) {
+        if (closed) {
+            throw new IllegalStateException("Pipeline is closed");
+        }
+        int spins = 0;
+        while (!queue.offer(mutation)) {
+            if (closed) {
+                throw new IllegalStateException("Pipeline is closed");
+            }
+            // Backpressure: the writer is a full ring behind
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            }
+        }
+        if (stopped) {
+            // Enqueued as the writer left: it may never poll this, so fail it here;
+            // if its final drain got it too, the first failure wins
+            mutation.result.completeExceptionally(new IllegalStateException("Pipeline is closed"));
+        } else if (writerSleeping) {
+            LockSupport.unpark(writer);
+        }
+        return mutation.result;
+    }
+
+    private void writeLoop() {
+        while (true) {
+            int count = drain();
+            if (count > 0) {
+                commit(count);
+            } else if (closed) {
+                stopped = true;
+                failRemaining();
+                return;
+            } else {
+                writerSleeping = true;
+                // Re-check after raising the flag so a producer that missed it is not stranded
+                if (queue.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerSleeping = false;
+            }
+        }
+    }
+
+    private int drain() {
+        int count = 0;
+        while (count < BATCH_SIZE) {
+            Mutation<?> mutation = queue.poll();
+            if (mutation == null) {
+                break;
+            }
+            mutation.run(service, builder);
+            builder.applied();
+            batch[count++] = mutation;
+        }
+        return count;
+    }
+
+    // Producers that passed the closed check before close may still have enqueued;
+    // they read stopped after offering, so anything they add from here on is failed by one side
+    private void failRemaining() {
+        Mutation<?> mutation;
+        while ((mutation = queue.poll()) != null) {
+            mutation.result.completeExceptionally(new IllegalStateException("Pipeline is closed"));
+        }
+    }
+
+    // Makes the batch durable and visible before anyone is told it happened
+    private void commit(int count) {
+        RuntimeException failure = null;
+        try {
+            journal.flush();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        snapshot = builder.publish();
+        for (int i = 0; i < count; i++) {
+            if (failure != null) {
+                batch[i].result.completeExceptionally(failure);
+            } else {
+                batch[i].complete();
+            }
+            batch[i] = null;
+        }
+    }
+}
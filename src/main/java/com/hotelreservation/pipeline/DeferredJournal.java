@@ -0,0 +1,86 @@
+package com.hotelreservation.pipeline;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.TypeReservation;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.persistence.Journal;
+
+/**
+ * Journal wrapper for the pipeline writer: appends go straight through, but awaitDurable
+ * only remembers the position. flush waits once for the whole batch, so a batch of
+ * mutations costs one fsync instead of one each. Writer thread only.
+ */
+final class DeferredJournal implements Journal {
+    private final Journal journal;
+    private long pending;
+    private long flushed;
+
+    DeferredJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public long appendRoom(int roomNumber, RoomType roomType, int pricePerNight) {
+        return journal.appendRoom(roomNumber, roomType, pricePerNight);
+    }
+
+    @Override
+    public long appendUser(int userId, int balance) {
+        return journal.appendUser(userId, balance);
+    }
+
+    @Override
+    public long appendBooking(Booking booking) {
+        return journal.appendBooking(booking);
+    }
+
+    @Override
+    public long appendCancel(Booking booking) {
+        return journal.appendCancel(booking);
+    }
+
+    @Override
+    public long appendModify(Booking cancelled, Booking replacement) {
+        return journal.appendModify(cancelled, replacement);
+    }
+
+    @Override
+    public long appendReservation(int reservationId, TypeReservation reservation) {
+        return journal.appendReservation(reservationId, reservation);
+    }
+
+    @Override
+    public long appendCancelReservation(int reservationId) {
+        return journal.appendCancelReservation(reservationId);
+    }
+
+    @Override
+    public long appendCheckIn(int reservationId, Booking booking) {
+        return journal.appendCheckIn(reservationId, booking);
+    }
+
+    @Override
+    public long appendOverbookingAllowance(RoomType roomType, int allowance) {
+        return journal.appendOverbookingAllowance(roomType, allowance);
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+        pending = Math.max(pending, position);
+    }
+
+    /**
+     * Blocks until every position passed to awaitDurable so far is durable.
+     */
+    void flush() {
+        if (pending > flushed) {
+            journal.awaitDurable(pending);
+            flushed = pending;
+        }
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+}
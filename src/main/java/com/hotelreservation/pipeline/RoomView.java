@@ -0,0 +1,90 @@
+package com.hotelreservation.pipeline;
+
+import com.hotelreservation.enums.RoomType;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable state of one room: its type, price and booked stays.
+ * Stays never overlap, so sorting them by check-in also sorts them by check-out.
+ */
+public final class RoomView {
+    private static final int[] NO_STAYS = new int[0];
+
+    private final int roomNumber;
+    private final RoomType roomType;
+    private final int pricePerNight;
+    private final int[] checkIns;   // epoch days, ascending
+    private final int[] checkOuts;
+
+    private RoomView(int roomNumber, RoomType roomType, int pricePerNight, int[] checkIns, int[] checkOuts) {
+        this.roomNumber = roomNumber;
+        this.roomType = roomType;
+        this.pricePerNight = pricePerNight;
+        this.checkIns = checkIns;
+        this.checkOuts = checkOuts;
+    }
+
+    static RoomView empty(int roomNumber, RoomType roomType, int pricePerNight) {
+        return new RoomView(roomNumber, roomType, pricePerNight, NO_STAYS, NO_STAYS);
+    }
+
+    RoomView withDetails(RoomType roomType, int pricePerNight) {
+        return new RoomView(roomNumber, roomType, pricePerNight, checkIns, checkOuts);
+    }
+
+    RoomView withStay(int checkInDay, int checkOutDay) {
+        int at = firstCheckInAtOrAfter(checkOutDay);
+        int[] ins = new int[checkIns.length + 1];
+        int[] outs = new int[checkOuts.length + 1];
+        System.arraycopy(checkIns, 0, ins, 0, at);
+        System.arraycopy(checkOuts, 0, outs, 0, at);
+        ins[at] = checkInDay;
+        outs[at] = checkOutDay;
+        System.arraycopy(checkIns, at, ins, at + 1, checkIns.length - at);
+        System.arraycopy(checkOuts, at, outs, at + 1, checkOuts.length - at);
+        return new RoomView(roomNumber, roomType, pricePerNight, ins, outs);
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public int getPricePerNight() {
+        return pricePerNight;
+    }
+
+    public int getStayCount() {
+        return checkIns.length;
+    }
+
+    public boolean isFree(LocalDate checkIn, LocalDate checkOut) {
+        return isFree((int) checkIn.toEpochDay(), (int) checkOut.toEpochDay());
+    }
+
+    boolean isFree(int checkInDay, int checkOutDay) {
+        // Only the last stay starting before checkOut can reach into [checkIn, checkOut)
+        int last = firstCheckInAtOrAfter(checkOutDay) - 1;
+        return last < 0 || checkOuts[last] <= checkInDay;
+    }
+
+    // ===== Private Helpers =====
+
+    private int firstCheckInAtOrAfter(int day) {
+        int low = 0;
+        int high = checkIns.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (checkIns[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,71 @@
+package com.hotelreservation.pipeline;
+
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.util.IntObjectMap;
+
+import java.util.Arrays;
+
+import static com.hotelreservation.pipeline.AvailabilitySnapshot.CHUNK_BITS;
+import static com.hotelreservation.pipeline.AvailabilitySnapshot.CHUNK_SIZE;
+
+/**
+ * Writer-side, copy-on-write source of AvailabilitySnapshots.
+ * Arrays handed out in a snapshot are never written again: the first change to a chunk
+ * after a publish copies it. Writer thread only.
+ */
+final class SnapshotBuilder {
+    private final IntObjectMap<Integer> slots = new IntObjectMap<>();
+    private RoomView[][] chunks = new RoomView[0][];
+    private boolean[] ownedChunks = new boolean[0];
+    private boolean ownedTop = true;
+    private int roomCount;
+    private long sequence;
+
+    void putRoom(int roomNumber, RoomType roomType, int pricePerNight) {
+        Integer slot = slots.get(roomNumber);
+        if (slot != null) {
+            set(slot, get(slot).withDetails(roomType, pricePerNight));
+        } else {
+            slots.put(roomNumber, roomCount);
+            set(roomCount++, RoomView.empty(roomNumber, roomType, pricePerNight));
+        }
+    }
+
+    void addStay(int roomNumber, int checkInDay, int checkOutDay) {
+        int slot = slots.get(roomNumber);
+        set(slot, get(slot).withStay(checkInDay, checkOutDay));
+    }
+
+    void applied() {
+        sequence++;
+    }
+
+    AvailabilitySnapshot publish() {
+        ownedTop = false;
+        Arrays.fill(ownedChunks, false);
+        return new AvailabilitySnapshot(chunks, roomCount, sequence);
+    }
+
+    // ===== Private Helpers =====
+
+    private RoomView get(int slot) {
+        return chunks[slot >>> CHUNK_BITS][slot & (CHUNK_SIZE - 1)];
+    }
+
+    private void set(int slot, RoomView room) {
+        int chunk = slot >>> CHUNK_BITS;
+        if (!ownedTop || chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(chunks.length, chunk + 1));
+            ownedChunks = Arrays.copyOf(ownedChunks, chunks.length);
+            ownedTop = true;
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new RoomView[CHUNK_SIZE];
+            ownedChunks[chunk] = true;
+        } else if (!ownedChunks[chunk]) {
+            chunks[chunk] = chunks[chunk].clone();
+            ownedChunks[chunk] = true;
+        }
+        chunks[chunk][slot & (CHUNK_SIZE - 1)] = room;
+    }
+}
@@ -0,0 +1,106 @@
+package com.hotelreservation.pricing;
+
+import com.hotelreservation.analytics.OccupancyReport;
+import com.hotelreservation.enums.RoomType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Prices stays from the current rate table.
+ * Compiling a table evaluates every rule for every night of the horizon, so it happens
+ * off the booking path, when rules are set or refresh() is called; the finished table
+ * is then published with a single volatile write. Pricing only reads that reference,
+ * never blocks and always sees one complete table.
+ * Safe for concurrent use; compilations are serialized.
+ */
+public class PricingEngine {
+    public static final int DEFAULT_HORIZON_DAYS = 730;
+
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    /** Occupancy per room type, read when occupancy rules are compiled */
+    @FunctionalInterface
+    public interface OccupancySource {
+        OccupancyReport report(RoomType roomType, LocalDate from, LocalDate to);
+    }
+
+    private final OccupancySource occupancySource;
+    private final int horizonDays;
+    private volatile RateTable table = RateTable.FLAT;
+    private List<RateRule> rules = List.of();
+    private LocalDate start;
+
+    public PricingEngine(OccupancySource occupancySource) {
+        this(occupancySource, DEFAULT_HORIZON_DAYS);
+    }
+
+    public PricingEngine(OccupancySource occupancySource, int horizonDays) {
+        if (horizonDays < 1) {
+            throw new IllegalArgumentException("Horizon must be at least one night");
+        }
+        this.occupancySource = occupancySource;
+        this.horizonDays = horizonDays;
+    }
+
+    /**
+     * The cost of a stay of [checkIn, checkOut) in a room of roomType with base price pricePerNight.
+     */
+    public long cost(RoomType roomType, int pricePerNight, LocalDate checkIn, LocalDate checkOut) {
+        return table.cost(roomType, pricePerNight, checkIn, checkOut);
+    }
+
+    public RateTable getRateTable() {
+        return table;
+    }
+
+    /**
+     * Replaces the rules and compiles them over the horizon starting on start.
+     * With no rules every night is priced at the base rate again.
+     */
+    public synchronized void setRules(LocalDate start, List<RateRule> rules) {
+        this.rules = List.copyOf(rules);
+        this.start = start;
+        compile();
+    }
+
+    /**
+     * Recompiles the current rules, picking up fresh occupancy, over the horizon starting on start.
+     */
+    public synchronized void refresh(LocalDate start) {
+        this.start = start;
+        compile();
+    }
+
+    // ===== Private Helpers =====
+
+    private void compile() {
+        if (rules.isEmpty()) {
+            table = RateTable.FLAT;
+            return;
+        }
+
+        double[][] occupancy = new double[ROOM_TYPES.length][];
+        LocalDate end = start.plusDays(horizonDays);
+        for (RoomType type : ROOM_TYPES) {
+            if (needsOccupancy(type)) {
+                OccupancyReport report = occupancySource.report(type, start, end);
+                double[] rates = new double[horizonDays];
+                for (int night = 0; night < horizonDays; night++) {
+                    rates[night] = report.getOccupancyRate(night);
+                }
+                occupancy[type.ordinal()] = rates;
+            }
+        }
+        table = RateTable.compile(start, horizonDays, rules, occupancy);
+    }
+
+    private boolean needsOccupancy(RoomType type) {
+        for (RateRule rule : rules) {
+            if (rule.usesOccupancy() && rule.appliesTo(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+package com.hotelreservation.pricing;
+
+import com.hotelreservation.enums.RoomType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A multiplier applied to a room's base price on the nights it matches.
+ * Rules either cover every room type or a single one; when several match the same night
+ * their multipliers are multiplied together.
+ * Multipliers are kept as basis points (10000 = unchanged), so compiled rates stay integral.
+ * Immutable.
+ */
+public abstract class RateRule {
+    private final RoomType roomType;  // null for every type
+    private final int basisPoints;
+
+    RateRule(RoomType roomType, double multiplier) {
+        if (!(multiplier >= 0) || multiplier > 100) {
+            throw new IllegalArgumentException("Multiplier must be between 0 and 100: " + multiplier);
+        }
+        this.roomType = roomType;
+        this.basisPoints = (int) Math.round(multiplier * RateTable.BASE_RATE);
+    }
+
+    /**
+     * Nights from from (inclusive) to to (exclusive), e.g. a high season.
+     */
+    public static RateRule season(LocalDate from, LocalDate to, double multiplier) {
+        return season(null, from, to, multiplier);
+    }
+
+    public static RateRule season(RoomType roomType, LocalDate from, LocalDate to, double multiplier) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("Season must end after it starts");
+        }
+        return new Season(roomType, from, to, multiplier);
+    }
+
+    /**
+     * Nights starting on one of days, e.g. FRIDAY and SATURDAY for weekend rates.
+     */
+    public static RateRule daysOfWeek(Set<DayOfWeek> days, double multiplier) {
+        return daysOfWeek(null, days, multiplier);
+    }
+
+    public static RateRule daysOfWeek(RoomType roomType, Set<DayOfWeek> days, double multiplier) {
+        return new DaysOfWeek(roomType, days, multiplier);
+    }
+
+    /**
+     * Nights whose occupancy, when the rate table was compiled, is at least occupancy (0 to 1).
+     */
+    public static RateRule occupancyAtLeast(double occupancy, double multiplier) {
+        return occupancyAtLeast(null, occupancy, multiplier);
+    }
+
+    public static RateRule occupancyAtLeast(RoomType roomType, double occupancy, double multiplier) {
+        if (!(occupancy >= 0) || occupancy > 1) {
+            throw new IllegalArgumentException("Occupancy must be between 0 and 1: " + occupancy);
+        }
+        return new OccupancyAtLeast(roomType, occupancy, multiplier);
+    }
+
+    public int getBasisPoints() {
+        return basisPoints;
+    }
+
+    boolean appliesTo(RoomType type) {
+        return roomType == null || roomType == type;
+    }
+
+    boolean usesOccupancy() {
+        return false;
+    }
+
+    abstract boolean appliesOn(int epochDay, double occupancy);
+
+    // ===== Rule Kinds =====
+
+    private static final class Season extends RateRule {
+        private final int fromDay;
+        private final int toDay;
+
+        Season(RoomType roomType, LocalDate from, LocalDate to, double multiplier) {
+            super(roomType, multiplier);
+            this.fromDay = (int) from.toEpochDay();
+            this.toDay = (int) to.toEpochDay();
+        }
+
+        @Override
+        boolean appliesOn(int epochDay, double occupancy) {
+            return epochDay >= fromDay && epochDay < toDay;
+        }
+    }
+
+    private static final class DaysOfWeek extends RateRule {
+        private final EnumSet<DayOfWeek> days;
+
+        DaysOfWeek(RoomType roomType, Set<DayOfWeek> days, double multiplier) {
+            super(roomType, multiplier);
+            this.days = days.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(days);
+        }
+
+        @Override
+        boolean appliesOn(int epochDay, double occupancy) {
+            // Epoch day 0 was a Thursday
+            return days.contains(DayOfWeek.THURSDAY.plus(Math.floorMod(epochDay, 7)));
+        }
+    }
+
+    private static final class OccupancyAtLeast extends RateRule {
+        private final double threshold;
+
+        OccupancyAtLeast(RoomType roomType, double threshold, double multiplier) {
+            super(roomType, multiplier);
+            this.threshold = threshold;
+        }
+
+        @Override
+        boolean usesOccupancy() {
+            return true;
+        }
+
+        @Override
+        boolean appliesOn(int epochDay, double occupancy) {
+            return occupancy >= threshold;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.hotelreservation.pricing;
+
+import com.hotelreservation.enums.RoomType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rate rules compiled into one primitive array per room type: running totals of each
+ * night's multiplier, in basis points, over a fixed horizon of nights.
+ * The multiplier summed over any stay is then the difference of two entries, so pricing
+ * a stay is O(1) however many rules there are or however long the stay is.
+ * Nights outside the horizon are priced at the base rate.
+ * Immutable; a new table is compiled whenever rules or occupancy change.
+ */
+public final class RateTable {
+    /** Basis points of an unchanged price */
+    public static final int BASE_RATE = 10_000;
+
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    /** No rules: every night at the base rate */
+    public static final RateTable FLAT = new RateTable(0, 0, new long[ROOM_TYPES.length][1]);
+
+    private final int startDay;
+    private final int days;
+    private final long[][] prefix;  // [type][i] = basis points of the first i nights
+
+    private RateTable(int startDay, int days, long[][] prefix) {
+        this.startDay = startDay;
+        this.days = days;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Evaluates every rule for every night and type of the horizon.
+     * occupancy[type][night] feeds occupancy rules; a type's row may be null when no rule needs it.
+     */
+    static RateTable compile(LocalDate start, int days, List<RateRule> rules, double[][] occupancy) {
+        long[][] prefix = new long[ROOM_TYPES.length][days + 1];
+        int startDay = (int) start.toEpochDay();
+
+        for (RoomType type : ROOM_TYPES) {
+            long[] sums = prefix[type.ordinal()];
+            double[] typeOccupancy = occupancy[type.ordinal()];
+            for (int night = 0; night < days; night++) {
+                double nightOccupancy = typeOccupancy == null ? 0 : typeOccupancy[night];
+                long rate = BASE_RATE;
+                for (RateRule rule : rules) {
+                    if (rule.appliesTo(type) && rule.appliesOn(startDay + night, nightOccupancy)) {
+                        rate = (rate * rule.getBasisPoints() + BASE_RATE / 2) / BASE_RATE;
+                    }
+                }
+                sums[night + 1] = sums[night] + rate;
+            }
+        }
+        return new RateTable(startDay, days, prefix);
+    }
+
+    public LocalDate getStart() {
+        return LocalDate.ofEpochDay(startDay);
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * The multiplier for one night, in basis points.
+     */
+    public int getRate(RoomType roomType, LocalDate night) {
+        int day = (int) night.toEpochDay();
+        return (int) basisPoints(roomType, day, day + 1);
+    }
+
+    /**
+     * What a stay of [checkIn, checkOut) costs at a base price of pricePerNight, with each
+     * night's multiplier applied, rounded to the nearest unit.
+     */
+    public long cost(RoomType roomType, int pricePerNight, LocalDate checkIn, LocalDate checkOut) {
+        long basisPoints = basisPoints(roomType, (int) checkIn.toEpochDay(), (int) checkOut.toEpochDay());
+        return (pricePerNight * basisPoints + BASE_RATE / 2) / BASE_RATE;
+    }
+
+    // ===== Private Helpers =====
+
+    // Summed multipliers of nights fromDay .. toDay - 1
+    private long basisPoints(RoomType roomType, int fromDay, int toDay) {
+        long[] sums = prefix[roomType.ordinal()];
+        int from = Math.max(0, Math.min(fromDay - startDay, days));
+        int to = Math.max(0, Math.min(toDay - startDay, days));
+        long outside = (long) (toDay - fromDay) - (to - from);
+        return sums[to] - sums[from] + outside * BASE_RATE;
+    }
+}
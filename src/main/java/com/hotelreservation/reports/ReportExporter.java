@@ -0,0 +1,122 @@
+package com.hotelreservation.reports;
+
+import com.hotelreservation.repositories.BookingRepository;
+import com.hotelreservation.repositories.RoomRepository;
+import com.hotelreservation.repositories.UserRepository;
+
+import java.io.Writer;
+
+/**
+ * Streams rooms, bookings and users, latest first, straight from the repositories to a Writer.
+ * Nothing is materialized per row. Rooms and users are read under their repository's read
+ * lock for the duration of their section; bookings, which can run to millions, are read from
+ * a snapshot one batch at a time, so writers are never held up while rows reach the sink.
+ */
+public class ReportExporter {
+    private final RoomRepository roomRepository;
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+
+    public ReportExporter(RoomRepository roomRepository, UserRepository userRepository,
+                          BookingRepository bookingRepository) {
+        this.roomRepository = roomRepository;
+        this.userRepository = userRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    public void exportRooms(Writer out, ReportFormat format) {
+        ReportWriter writer = new ReportWriter(out);
+        writeRooms(writer, format);
+        writer.flush();
+    }
+
+    public void exportBookings(Writer out, ReportFormat format) {
+        ReportWriter writer = new ReportWriter(out);
+        writeBookings(writer, format);
+        writer.flush();
+    }
+
+    public void exportUsers(Writer out, ReportFormat format) {
+        ReportWriter writer = new ReportWriter(out);
+        writeUsers(writer, format);
+        writer.flush();
+    }
+
+    /**
+     * Rooms followed by bookings, as printed by Service.printAll.
+     */
+    public void exportAll(Writer out, ReportFormat format) {
+        ReportWriter writer = new ReportWriter(out);
+        writeRooms(writer, format);
+        writeBookings(writer, format);
+        writer.flush();
+    }
+
+    // ===== Private Helpers =====
+
+    private void writeRooms(ReportWriter writer, ReportFormat format) {
+        if (format == ReportFormat.CSV) {
+            writer.append("room_number,room_type,price_per_night").newLine();
+            roomRepository.forEachLatestFirst(room -> writer
+                    .append(room.getRoomNumber()).append(',')
+                    .append(room.getRoomType().name()).append(',')
+                    .append(room.getPricePerNight()).newLine());
+        } else {
+            writer.append("\n=== ALL ROOMS (Latest First) ===").newLine();
+            roomRepository.forEachLatestFirst(room -> writer
+                    .append("Room ").append(room.getRoomNumber())
+                    .append(" | Type: ").append(room.getRoomType().name())
+                    .append(" | Price: ").append(room.getPricePerNight())
+                    .append("/night").newLine());
+        }
+    }
+
+    private void writeBookings(ReportWriter writer, ReportFormat format) {
+        if (format == ReportFormat.CSV) {
+            writer.append("user_id,room_number,check_in,check_out,nights,room_type,price_per_night,total,"
+                    + "user_balance_at_booking").newLine();
+            bookingRepository.snapshot().forEach((userId, roomNumber, checkIn, checkOut, roomType, price, total,
+                                                   balance) -> {
+                int nights = checkOut - checkIn;
+                writer.append(userId).append(',')
+                        .append(roomNumber).append(',')
+                        .appendDate(checkIn).append(',')
+                        .appendDate(checkOut).append(',')
+                        .append(nights).append(',')
+                        .append(roomType.name()).append(',')
+                        .append(price).append(',')
+                        .append(total).append(',')
+                        .append(balance).newLine();
+            });
+        } else {
+            writer.append("\n=== ALL BOOKINGS (Latest First) ===").newLine();
+            bookingRepository.snapshot().forEach((userId, roomNumber, checkIn, checkOut, roomType, price, total,
+                                                   balance) -> {
+                int nights = checkOut - checkIn;
+                writer.append("Booking | User: ").append(userId)
+                        .append(" | Room: ").append(roomNumber)
+                        .append(" | ").appendDate(checkIn)
+                        .append(" to ").appendDate(checkOut)
+                        .append(" (").append(nights).append(" nights)").newLine();
+                writer.append("  → Booked as: ").append(roomType.name())
+                        .append(" @ ").append(price)
+                        .append("/night | Total: ").append(total)
+                        .append(" | User balance was: ").append(balance).newLine();
+            });
+        }
+    }
+
+    private void writeUsers(ReportWriter writer, ReportFormat format) {
+        if (format == ReportFormat.CSV) {
+            writer.append("user_id,balance").newLine();
+            userRepository.forEachLatestFirst(user -> writer
+                    .append(user.getUserId()).append(',')
+                    .append(user.getBalance()).newLine());
+        } else {
+            writer.append("\n=== ALL USERS (Latest First) ===").newLine();
+            userRepository.forEachLatestFirst(user -> writer
+                    .append("User ").append(user.getUserId())
+                    .append(" | Balance: ").append(user.getBalance()).newLine());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.hotelreservation.reports;
+
+/**
+ * Output format for exported reports.
+ */
+public enum ReportFormat {
+    /** Human-readable lines, as printed by Service.printAll */
+    TEXT,
+    /** Comma-separated values with a header row */
+    CSV
+}
@@ -0,0 +1,154 @@
+package com.hotelreservation.reports;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+/**
+ * Buffered character sink for reports.
+ * Numbers and dates are formatted straight into the buffer, so writing a row allocates nothing.
+ * Write failures surface as UncheckedIOException; the underlying writer is flushed but never closed.
+ */
+public final class ReportWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    // Days from 0000-03-01 to 1970-01-01, used by the civil-date conversion below
+    private static final int DAYS_0000_TO_1970 = 719_468;
+
+    private final Writer out;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+
+    public ReportWriter(Writer out) {
+        this.out = out;
+    }
+
+    public ReportWriter append(String text) {
+        int length = text.length();
+        if (length > buffer.length - position) {
+            drain();
+            if (length > buffer.length) {
+                write(text);
+                return this;
+            }
+        }
+        text.getChars(0, length, buffer, position);
+        position += length;
+        return this;
+    }
+
+    public ReportWriter append(char c) {
+        ensure(1);
+        buffer[position++] = c;
+        return this;
+    }
+
+    public ReportWriter append(long value) {
+        // 20 characters hold Long.MIN_VALUE
+        ensure(20);
+        if (value == Long.MIN_VALUE) {
+            return append("-9223372036854775808");
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = digits(value);
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+        return this;
+    }
+
+    /**
+     * Appends an epoch day as yyyy-MM-dd, matching LocalDate.toString.
+     */
+    public ReportWriter appendDate(long epochDay) {
+        // Civil-from-days over 400-year eras (Howard Hinnant's algorithm)
+        long z = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year < 0 || year > 9999) {
+            // LocalDate adds signs and extra digits out here; rare enough to delegate
+            return append(LocalDate.ofEpochDay(epochDay).toString());
+        }
+        ensure(10);
+        padded((int) year, 4);
+        buffer[position++] = '-';
+        padded(month, 2);
+        buffer[position++] = '-';
+        padded(day, 2);
+        return this;
+    }
+
+    public ReportWriter newLine() {
+        return append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes out buffered characters and flushes the underlying writer.
+     */
+    public void flush() {
+        drain();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ===== Private Helpers =====
+
+    private void ensure(int chars) {
+        if (buffer.length - position < chars) {
+            drain();
+        }
+    }
+
+    private void padded(int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private void drain() {
+        if (position > 0) {
+            try {
+                out.write(buffer, 0, position);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            position = 0;
+        }
+    }
+
+    private void write(String text) {
+        try {
+            out.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
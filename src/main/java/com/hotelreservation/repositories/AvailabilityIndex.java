@@ -0,0 +1,292 @@
+package com.hotelreservation.repositories;
+
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.util.IntObjectMap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap calendar of every room over a fixed horizon of nights, one bit per night.
+ * Each room owns a contiguous row of words, so checking a stay is a few masked ANDs,
+ * and rooms are listed per type, so a search walks one type's rows in memory order
+ * instead of chasing every room's calendar. Stays outside the horizon are not answered
+ * here; callers fall back to the booking repository's calendars.
+ * Relies on a room's bookings never overlapping, so releasing a stay may clear its nights.
+ * Safe for concurrent use: adding rooms and moving the horizon take the write lock,
+ * everything else the read lock, and reads convert dates to nights under it.
+ * Updates of one room's row must be serialized by the caller, as Service does with room locks;
+ * the bitmap is an atomic array, so searches see each word as last written, without room locks.
+ */
+public class AvailabilityIndex {
+    public static final int HORIZON_DAYS = 730;
+    private static final int WORDS_PER_ROOM = (HORIZON_DAYS + 63) >>> 6;
+    private static final int INITIAL_ROOMS = 64;
+
+    private final IntObjectMap<Room> rooms = new IntObjectMap<>();
+    private final int[][] slotsByType = new int[RoomType.values().length][INITIAL_ROOMS];
+    private final int[] countByType = new int[RoomType.values().length];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private RoomType[] typeBySlot = new RoomType[INITIAL_ROOMS];
+    private int[] priceBySlot = new int[INITIAL_ROOMS];
+    private AtomicLongArray nights = new AtomicLongArray(INITIAL_ROOMS * WORDS_PER_ROOM);
+    private volatile int horizonStart;
+
+    public AvailabilityIndex(LocalDate horizonStart) {
+        this.horizonStart = (int) horizonStart.toEpochDay();
+    }
+
+    /**
+     * Builds an index of the rooms and bookings already stored.
+     */
+    public static AvailabilityIndex build(LocalDate horizonStart, RoomRepository roomRepository,
+                                          BookingRepository bookingRepository) {
+        AvailabilityIndex index = new AvailabilityIndex(horizonStart);
+        index.load(roomRepository, bookingRepository);
+        return index;
+    }
+
+    /**
+     * Moves the horizon to start on the given day and reloads everything, under one write
+     * lock, so lock-free searches never see the bitmap half reloaded.
+     * The caller must pause all mutations of the index.
+     */
+    public void rebuild(LocalDate horizonStart, RoomRepository roomRepository,
+                        BookingRepository bookingRepository) {
+        lock.writeLock().lock();
+        try {
+            this.horizonStart = (int) horizonStart.toEpochDay();
+            nights = new AtomicLongArray(nights.length());
+            load(roomRepository, bookingRepository);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public LocalDate getHorizonStart() {
+        return LocalDate.ofEpochDay(horizonStart);
+    }
+
+    /**
+     * True if every night of [checkIn, checkOut) lies inside the horizon.
+     */
+    public boolean covers(LocalDate checkIn, LocalDate checkOut) {
+        long from = checkIn.toEpochDay() - horizonStart;
+        long to = checkOut.toEpochDay() - horizonStart;
+        return from >= 0 && to <= HORIZON_DAYS;
+    }
+
+    /**
+     * Adds a room, or records a stored room's new type and price.
+     */
+    public void putRoom(Room room) {
+        lock.writeLock().lock();
+        try {
+            int slot = rooms.indexOf(room.getRoomNumber());
+            if (slot < 0) {
+                slot = rooms.size();
+                rooms.put(room.getRoomNumber(), room);
+                ensureSlots(slot + 1);
+                addToType(room.getRoomType(), slot);
+            } else if (typeBySlot[slot] != room.getRoomType()) {
+                removeFromType(typeBySlot[slot], slot);
+                addToType(room.getRoomType(), slot);
+            }
+            typeBySlot[slot] = room.getRoomType();
+            priceBySlot[slot] = room.getPricePerNight();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * True if the room has no booked night in [checkIn, checkOut), which must be covered.
+     * Unknown rooms count as free.
+     */
+    public boolean isFree(int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        lock.readLock().lock();
+        try {
+            int slot = rooms.indexOf(roomNumber);
+            return slot < 0 || isFree(slot, dayOf(checkIn), dayOf(checkOut));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Books [checkIn, checkOut), which must be covered, unless one of its nights is taken;
+     * then returns false and changes nothing. Unknown rooms count as free.
+     */
+    public boolean tryBook(int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        lock.readLock().lock();
+        try {
+            int from = dayOf(checkIn);
+            int to = dayOf(checkOut);
+            int slot = rooms.indexOf(roomNumber);
+            if (slot < 0) {
+                return true;
+            }
+            if (!isFree(slot, from, to)) {
+                return false;
+            }
+            setNights(slot, from, to, true);
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the nights of [checkIn, checkOut) that fall inside the horizon as booked.
+     */
+    public void book(int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        update(roomNumber, checkIn, checkOut, true);
+    }
+
+    /**
+     * Marks the nights of a cancelled stay as free again.
+     */
+    public void release(int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        update(roomNumber, checkIn, checkOut, false);
+    }
+
+    /**
+     * Rooms of the given type, priced at or below maxPricePerNight, free for [checkIn, checkOut).
+     * Rooms come in the order they joined the type. Returns null if the stay is not covered,
+     * checked under the same lock as the search, so a horizon moving meanwhile is never missed.
+     * The result is a hint: without room locks, a room may be booked as soon as it is listed,
+     * so booking it re-checks the room under its lock.
+     */
+    public List<Room> findAvailable(RoomType roomType, int maxPricePerNight,
+                                    LocalDate checkIn, LocalDate checkOut) {
+        List<Room> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            int from = dayOf(checkIn);
+            int to = dayOf(checkOut);
+            if (from < 0 || to > HORIZON_DAYS) {
+                return null;
+            }
+            int[] slots = slotsByType[roomType.ordinal()];
+            int count = countByType[roomType.ordinal()];
+            for (int i = 0; i < count; i++) {
+                int slot = slots[i];
+                if (priceBySlot[slot] <= maxPricePerNight && isFree(slot, from, to)) {
+                    result.add(rooms.valueAt(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // ===== Private Helpers =====
+
+    // Caller holds the write lock
+    private void load(RoomRepository roomRepository, BookingRepository bookingRepository) {
+        for (Room room : roomRepository.findAll()) {
+            putRoom(room);
+        }
+        bookingRepository.forEachLatestFirst((userId, roomNumber, checkInDay, checkOutDay, roomType,
+                                              price, total, balance) -> mark(roomNumber, checkInDay, checkOutDay, true));
+    }
+
+    private void update(int roomNumber, LocalDate checkIn, LocalDate checkOut, boolean booked) {
+        mark(roomNumber, (int) checkIn.toEpochDay(), (int) checkOut.toEpochDay(), booked);
+    }
+
+    private void mark(int roomNumber, int checkInDay, int checkOutDay, boolean booked) {
+        lock.readLock().lock();
+        try {
+            int slot = rooms.indexOf(roomNumber);
+            int from = Math.max(checkInDay - horizonStart, 0);
+            int to = Math.min(checkOutDay - horizonStart, HORIZON_DAYS);
+            if (slot >= 0 && from < to) {
+                setNights(slot, from, to, booked);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds a lock; from and to are horizon-relative
+    private void setNights(int slot, int from, int to, boolean booked) {
+        int base = slot * WORDS_PER_ROOM;
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            long mask = wordMask(word, from, to);
+            long bits = nights.get(base + word);
+            nights.set(base + word, booked ? bits | mask : bits & ~mask);
+        }
+    }
+
+    // Caller holds a lock; from and to are horizon-relative
+    private boolean isFree(int slot, int from, int to) {
+        int base = slot * WORDS_PER_ROOM;
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            if ((nights.get(base + word) & wordMask(word, from, to)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Bits of word that fall inside [from, to)
+    private static long wordMask(int word, int from, int to) {
+        int first = Math.max(from - (word << 6), 0);
+        int last = Math.min(to - (word << 6), 64);  // exclusive
+        long upTo = last == 64 ? -1L : (1L << last) - 1;
+        return upTo & (-1L << first);
+    }
+
+    // Caller holds a lock, so the horizon cannot move under it
+    private int dayOf(LocalDate date) {
+        return (int) (date.toEpochDay() - horizonStart);
+    }
+
+    // Caller holds the write lock
+    private void ensureSlots(int slotCount) {
+        if (slotCount > typeBySlot.length) {
+            int capacity = Math.max(slotCount, typeBySlot.length * 2);
+            typeBySlot = Arrays.copyOf(typeBySlot, capacity);
+            priceBySlot = Arrays.copyOf(priceBySlot, capacity);
+            AtomicLongArray grown = new AtomicLongArray(capacity * WORDS_PER_ROOM);
+            for (int i = 0; i < nights.length(); i++) {
+                grown.set(i, nights.get(i));
+            }
+            nights = grown;
+        }
+    }
+
+    // Caller holds the write lock
+    private void addToType(RoomType type, int slot) {
+        int[] slots = slotsByType[type.ordinal()];
+        int count = countByType[type.ordinal()];
+        if (count == slots.length) {
+            slots = Arrays.copyOf(slots, count * 2);
+            slotsByType[type.ordinal()] = slots;
+        }
+        slots[count] = slot;
+        countByType[type.ordinal()]++;
+    }
+
+    // Caller holds the write lock; keeps the remaining slots in order, like RoomRepository.update
+    private void removeFromType(RoomType type, int slot) {
+        int[] slots = slotsByType[type.ordinal()];
+        int count = countByType[type.ordinal()];
+        for (int i = 0; i < count; i++) {
+            if (slots[i] == slot) {
+                System.arraycopy(slots, i + 1, slots, i, count - i - 1);
+                countByType[type.ordinal()]--;
+                return;
+            }
+        }
+    }
+}
@@ -1,27 +1,448 @@
 package com.hotelreservation.repositories;
 
 import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.util.IntObjectMap;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Handles Booking data access and storage.
  * Single Responsibility: Only manages Booking entities.
+ * Each room keeps its own sorted interval index, so room queries never touch other rooms,
+ * and each user a list of booking ids, so user queries never touch other users.
+ * Subclasses decide how booking rows are stored; ids are insertion positions.
+ * Cancelled bookings keep their row and id but leave the room's index and every query.
+ * Cancellations are numbered, so a snapshot is just the booking count and the number of
+ * cancellations at one moment: later bookings and cancellations stay invisible to it.
+ * Safe for concurrent use: queries share a read lock, saves take the write lock.
  */
-public class BookingRepository {
-    private final ArrayList<Booking> bookings = new ArrayList<>();
+public abstract class BookingRepository {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
 
-    public void save(Booking booking) {
-        bookings.add(booking);
+    private final IntObjectMap<RoomCalendar> calendars = new IntObjectMap<>();
+    private final IntObjectMap<UserBookings> userBookings = new IntObjectMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Which cancellation removed each booking (1 for the first), 0 while active;
+    // chunks are only allocated once a booking in their range is cancelled
+    private int[][] cancelledAt = new int[0][];
+    private int cancelledCount;
+
+    /**
+     * Saves the booking and returns its id.
+     */
+    public int save(Booking booking) {
+        lock.writeLock().lock();
+        try {
+            return append(booking);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saves a group of bookings under a single write lock.
+     */
+    public void saveAll(List<Booking> group) {
+        lock.writeLock().lock();
+        try {
+            for (Booking booking : group) {
+                append(booking);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the booking with the given id, unless it does not exist or was cancelled.
+     */
+    public Optional<Booking> findById(int bookingId) {
+        lock.readLock().lock();
+        try {
+            return isActive(bookingId) ? Optional.of(load(bookingId)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the id of the room's booking checking in on the given day, or -1.
+     * Bookings of one room never overlap, so there is at most one.
+     */
+    public int findIdByCheckIn(int roomNumber, LocalDate checkIn) {
+        lock.readLock().lock();
+        try {
+            RoomCalendar calendar = calendars.get(roomNumber);
+            return calendar == null ? -1 : calendar.bookingIdStartingOn((int) checkIn.toEpochDay());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cancels the booking, freeing its dates in O(log n) of the room's bookings.
+     * Returns the cancelled booking, or null if it does not exist or was already cancelled.
+     */
+    public Booking cancel(int bookingId) {
+        lock.writeLock().lock();
+        try {
+            if (!isActive(bookingId)) {
+                return null;
+            }
+            Booking booking = load(bookingId);
+            unindex(booking, bookingId);
+            return booking;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cancels the booking and saves replacement in one step, returning the replacement's id.
+     * If replacement would overlap another booking of its room, nothing changes and -1 is returned;
+     * the cancelled booking's own dates do not count as taken.
+     */
+    public int replace(int bookingId, Booking replacement) {
+        int start = (int) replacement.getCheckIn().toEpochDay();
+        int end = (int) replacement.getCheckOut().toEpochDay();
+
+        lock.writeLock().lock();
+        try {
+            if (!isActive(bookingId)) {
+                throw new IllegalArgumentException("No active booking: " + bookingId);
+            }
+            Booking booking = load(bookingId);
+            calendars.get(booking.getRoomNumber()).remove((int) booking.getCheckIn().toEpochDay(), bookingId);
+
+            RoomCalendar target = calendars.get(replacement.getRoomNumber());
+            if (target != null && target.overlaps(start, end)) {
+                calendars.get(booking.getRoomNumber()).add((int) booking.getCheckIn().toEpochDay(),
+                        (int) booking.getCheckOut().toEpochDay(), bookingId);
+                return -1;
+            }
+            userBookings.get(booking.getUserId()).remove(bookingId);
+            markCancelled(bookingId);
+            return append(replacement);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
+    /**
+     * Returns the room's bookings ordered by check-in date.
+     */
     public List<Booking> findByRoomNumber(int roomNumber) {
-        return bookings.stream()
-                .filter(b -> b.getRoomNumber() == roomNumber)
-                .toList();
+        lock.readLock().lock();
+        try {
+            RoomCalendar calendar = calendars.get(roomNumber);
+            if (calendar == null) {
+                return List.of();
+            }
+
+            int[] bookingIds = calendar.bookingIdsByStart();
+            List<Booking> result = new ArrayList<>(bookingIds.length);
+            for (int bookingId : bookingIds) {
+                result.add(load(bookingId));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the user's active bookings in the order they were made.
+     * O(n) in the user's own bookings, whatever the total booking count.
+     */
+    public List<Booking> findByUserId(int userId) {
+        lock.readLock().lock();
+        try {
+            UserBookings bookings = userBookings.get(userId);
+            if (bookings == null) {
+                return List.of();
+            }
+
+            List<Booking> result = new ArrayList<>(bookings.size());
+            for (int i = 0; i < bookings.size(); i++) {
+                result.add(load(bookings.bookingIdAt(i)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether the room has a booking intersecting [from, to).
+     * O(log n) in the room's own bookings.
+     */
+    public boolean hasOverlap(int roomNumber, LocalDate from, LocalDate to) {
+        int start = (int) from.toEpochDay();
+        int end = (int) to.toEpochDay();
+
+        lock.readLock().lock();
+        try {
+            RoomCalendar calendar = calendars.get(roomNumber);
+            return calendar != null && calendar.overlaps(start, end);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the position of the first room with a booking intersecting [from, to),
+     * or -1 if all rooms are free. One read lock for the whole batch.
+     */
+    public int findFirstOverlap(int[] roomNumbers, LocalDate from, LocalDate to) {
+        int start = (int) from.toEpochDay();
+        int end = (int) to.toEpochDay();
+
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < roomNumbers.length; i++) {
+                RoomCalendar calendar = calendars.get(roomNumbers[i]);
+                if (calendar != null && calendar.overlaps(start, end)) {
+                    return i;
+                }
+            }
+            return -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the given rooms that have no booking intersecting [from, to).
+     * One read lock for the whole batch, O(log n) per room.
+     */
+    public List<Room> filterAvailable(List<Room> rooms, LocalDate from, LocalDate to) {
+        int start = (int) from.toEpochDay();
+        int end = (int) to.toEpochDay();
+        List<Room> available = new ArrayList<>(rooms.size());
+
+        lock.readLock().lock();
+        try {
+            for (Room room : rooms) {
+                RoomCalendar calendar = calendars.get(room.getRoomNumber());
+                if (calendar == null || !calendar.overlaps(start, end)) {
+                    available.add(room);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return available;
     }
 
+    /**
+     * Returns every booking that is not cancelled, in insertion order.
+     */
     public List<Booking> findAll() {
-        return new ArrayList<>(bookings);
+        lock.readLock().lock();
+        try {
+            List<Booking> all = loadAll();
+            if (cancelledCount == 0) {
+                return all;
+            }
+            List<Booking> active = new ArrayList<>(all.size() - cancelledCount);
+            for (int i = 0; i < all.size(); i++) {
+                if (!isCancelled(i)) {
+                    active.add(all.get(i));
+                }
+            }
+            return active;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits every booking, latest first, without copying or materializing them.
+     * Holds the read lock for the whole traversal.
+     */
+    public void forEachLatestFirst(BookingVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            visitDescending(size() - 1, 0, cancelledCount, visitor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Freezes the current set of active bookings in O(1), without copying anything.
+     * The snapshot reads the live rows, latest first, and never sees later changes.
+     */
+    public BookingSnapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            return new BookingSnapshot(this, size(), cancelledCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit active bookings, latest first, starting at cursor:
+     * Page.FIRST for the first page, then each page's next cursor.
+     * Cursors are booking ids, so new bookings never shift later pages.
+     */
+    public Page<Booking> findPage(int cursor, int limit) {
+        return snapshot().page(cursor, limit);
+    }
+
+    public int count() {
+        lock.readLock().lock();
+        try {
+            return size() - cancelledCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== Storage, called with the lock held =====
+
+    /**
+     * Stores the booking and returns its id, which must equal the previous size().
+     */
+    protected abstract int store(Booking booking);
+
+    protected abstract Booking load(int bookingId);
+
+    /**
+     * Returns every booking in insertion order, as a new list.
+     */
+    protected abstract List<Booking> loadAll();
+
+    protected abstract int size();
+
+    /**
+     * Passes the bookings with ids from down to to that were not cancelled
+     * by cancellation number cancelEpoch to the visitor, latest first.
+     */
+    protected abstract void visitDescending(int from, int to, int cancelEpoch, BookingVisitor visitor);
+
+    protected boolean isCancelled(int bookingId) {
+        return cancellationOf(bookingId) != 0;
+    }
+
+    /**
+     * Whether the booking had been cancelled once cancelEpoch cancellations were made.
+     */
+    protected boolean isCancelled(int bookingId, int cancelEpoch) {
+        int cancellation = cancellationOf(bookingId);
+        return cancellation != 0 && cancellation <= cancelEpoch;
+    }
+
+    // ===== Snapshot reads =====
+
+    /**
+     * Adds up to limit bookings visible at cancelEpoch to into, walking ids down from from.
+     * Returns the id to continue at, or -1 once id 0 was read.
+     */
+    int collectDescending(int from, int cancelEpoch, int limit, List<Booking> into) {
+        lock.readLock().lock();
+        try {
+            int bookingId = from;
+            int added = 0;
+            for (; bookingId >= 0 && added < limit; bookingId--) {
+                if (!isCancelled(bookingId, cancelEpoch)) {
+                    into.add(load(bookingId));
+                    added++;
+                }
+            }
+            return bookingId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds up to limit bookings visible at cancelEpoch to into, walking ids up from from
+     * to before end. Returns the id to continue at, or end once every id was read.
+     */
+    int collectAscending(int from, int end, int cancelEpoch, int limit, List<Booking> into) {
+        lock.readLock().lock();
+        try {
+            int bookingId = from;
+            int added = 0;
+            for (; bookingId < end && added < limit; bookingId++) {
+                if (!isCancelled(bookingId, cancelEpoch)) {
+                    into.add(load(bookingId));
+                    added++;
+                }
+            }
+            return bookingId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void visitRange(int from, int to, int cancelEpoch, BookingVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            visitDescending(from, to, cancelEpoch, visitor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds a lock
+    private boolean isActive(int bookingId) {
+        return bookingId >= 0 && bookingId < size() && !isCancelled(bookingId);
+    }
+
+    // Caller holds a lock
+    private int cancellationOf(int bookingId) {
+        int chunk = bookingId >>> CHUNK_BITS;
+        return chunk < cancelledAt.length && cancelledAt[chunk] != null
+                ? cancelledAt[chunk][bookingId & CHUNK_MASK] : 0;
+    }
+
+    // Caller holds the write lock
+    private void markCancelled(int bookingId) {
+        int chunk = bookingId >>> CHUNK_BITS;
+        if (chunk >= cancelledAt.length) {
+            cancelledAt = Arrays.copyOf(cancelledAt, chunk + 1);
+        }
+        if (cancelledAt[chunk] == null) {
+            cancelledAt[chunk] = new int[1 << CHUNK_BITS];
+        }
+        cancelledAt[chunk][bookingId & CHUNK_MASK] = ++cancelledCount;
+    }
+
+    // Caller holds the write lock
+    private void unindex(Booking booking, int bookingId) {
+        calendars.get(booking.getRoomNumber()).remove((int) booking.getCheckIn().toEpochDay(), bookingId);
+        userBookings.get(booking.getUserId()).remove(bookingId);
+        markCancelled(bookingId);
+    }
+
+    // Caller holds the write lock
+    private int append(Booking booking) {
+        int bookingId = store(booking);
+
+        RoomCalendar calendar = calendars.get(booking.getRoomNumber());
+        if (calendar == null) {
+            calendar = new RoomCalendar();
+            calendars.put(booking.getRoomNumber(), calendar);
+        }
+        calendar.add((int) booking.getCheckIn().toEpochDay(),
+                (int) booking.getCheckOut().toEpochDay(), bookingId);
+
+        UserBookings bookings = userBookings.get(booking.getUserId());
+        if (bookings == null) {
+            bookings = new UserBookings();
+            userBookings.put(booking.getUserId(), bookings);
+        }
+        bookings.add(bookingId);
+        return bookingId;
     }
-}
\ No newline at end of file
+}
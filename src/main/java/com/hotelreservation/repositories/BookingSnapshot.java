@@ -0,0 +1,176 @@
+package com.hotelreservation.repositories;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.enums.RoomType;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The active bookings of a BookingRepository at one moment, read latest first,
+ * or oldest first through oldestFirst().
+ * Nothing is copied when the snapshot is taken: it keeps the booking count and the
+ * number of cancellations made so far, and reads the live rows, skipping any booking
+ * saved or cancelled since. Reads take the repository's read lock one batch at a time,
+ * so a long traversal never holds up writers for long.
+ */
+public class BookingSnapshot implements Iterable<Booking> {
+    private static final int BATCH = 256;
+    private static final int VISIT_BATCH = 4096;
+
+    private final BookingRepository repository;
+    private final int end;          // first id saved after the snapshot
+    private final int cancelEpoch;  // cancellations made before the snapshot
+
+    BookingSnapshot(BookingRepository repository, int end, int cancelEpoch) {
+        this.repository = repository;
+        this.end = end;
+        this.cancelEpoch = cancelEpoch;
+    }
+
+    /**
+     * Number of bookings in the snapshot.
+     */
+    public int size() {
+        return end - cancelEpoch;
+    }
+
+    /**
+     * Returns up to limit bookings, starting at cursor: Page.FIRST, then each page's next cursor.
+     */
+    public Page<Booking> page(int cursor, int limit) {
+        Page.validateLimit(limit);
+        List<Booking> items = new ArrayList<>(Math.min(limit, size()));
+        int next = repository.collectDescending(Math.min(cursor, end - 1), cancelEpoch, limit, items);
+        return new Page<>(items, next);
+    }
+
+    /**
+     * Visits every booking as primitives, latest first, without materializing Booking objects.
+     * Each batch is copied into reused columns under the read lock and visited after it is
+     * released, so a slow visitor, such as an export to a slow sink, never holds up writers.
+     */
+    public void forEach(BookingVisitor visitor) {
+        Rows rows = new Rows(Math.min(VISIT_BATCH, Math.max(end, 1)));
+        for (int from = end - 1; from >= 0; from -= VISIT_BATCH) {
+            rows.count = 0;
+            repository.visitRange(from, Math.max(from - VISIT_BATCH + 1, 0), cancelEpoch, rows);
+            rows.replay(visitor);
+        }
+    }
+
+    /**
+     * The same bookings in the order they were made, fetched one batch at a time.
+     */
+    public Iterable<Booking> oldestFirst() {
+        return () -> new Iterator<>() {
+            private final List<Booking> batch = new ArrayList<>(BATCH);
+            private int index;
+            private int cursor;
+
+            @Override
+            public boolean hasNext() {
+                if (index < batch.size()) {
+                    return true;
+                }
+                batch.clear();
+                index = 0;
+                if (cursor < end) {
+                    cursor = repository.collectAscending(cursor, end, cancelEpoch, BATCH, batch);
+                }
+                return !batch.isEmpty();
+            }
+
+            @Override
+            public Booking next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return batch.get(index++);
+            }
+        };
+    }
+
+    /**
+     * Iterates latest first, fetching one batch of bookings into a reused buffer at a time.
+     */
+    @Override
+    public Iterator<Booking> iterator() {
+        return new Iterator<>() {
+            private final List<Booking> batch = new ArrayList<>(BATCH);
+            private int index;
+            private int cursor = end - 1;
+
+            @Override
+            public boolean hasNext() {
+                if (index < batch.size()) {
+                    return true;
+                }
+                batch.clear();
+                index = 0;
+                if (cursor >= 0) {
+                    cursor = repository.collectDescending(cursor, cancelEpoch, BATCH, batch);
+                }
+                return !batch.isEmpty();
+            }
+
+            @Override
+            public Booking next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return batch.get(index++);
+            }
+        };
+    }
+
+    // ===== Private Helpers =====
+
+    // One batch of bookings as primitive columns
+    private static final class Rows implements BookingVisitor {
+        private final int[] userIds;
+        private final int[] roomNumbers;
+        private final int[] checkInDays;
+        private final int[] checkOutDays;
+        private final RoomType[] roomTypes;
+        private final int[] prices;
+        private final int[] totals;
+        private final int[] balances;
+        private int count;
+
+        Rows(int capacity) {
+            userIds = new int[capacity];
+            roomNumbers = new int[capacity];
+            checkInDays = new int[capacity];
+            checkOutDays = new int[capacity];
+            roomTypes = new RoomType[capacity];
+            prices = new int[capacity];
+            totals = new int[capacity];
+            balances = new int[capacity];
+        }
+
+        @Override
+        public void visit(int userId, int roomNumber, int checkInDay, int checkOutDay,
+                          RoomType roomTypeAtBooking, int pricePerNightAtBooking, int totalPrice,
+                          int userBalanceAtBooking) {
+            userIds[count] = userId;
+            roomNumbers[count] = roomNumber;
+            checkInDays[count] = checkInDay;
+            checkOutDays[count] = checkOutDay;
+            roomTypes[count] = roomTypeAtBooking;
+            prices[count] = pricePerNightAtBooking;
+            totals[count] = totalPrice;
+            balances[count] = userBalanceAtBooking;
+            count++;
+        }
+
+        void replay(BookingVisitor visitor) {
+            for (int i = 0; i < count; i++) {
+                visitor.visit(userIds[i], roomNumbers[i], checkInDays[i], checkOutDays[i],
+                        roomTypes[i], prices[i], totals[i], balances[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.hotelreservation.repositories;
+
+import com.hotelreservation.enums.RoomType;
+
+/**
+ * Receives booking fields as primitives, so traversals need not materialize Booking objects.
+ * Dates are epoch days.
+ */
+@FunctionalInterface
+public interface BookingVisitor {
+    void visit(int userId, int roomNumber, int checkInDay, int checkOutDay,
+               RoomType roomTypeAtBooking, int pricePerNightAtBooking, int totalPrice,
+               int userBalanceAtBooking);
+}
@@ -0,0 +1,131 @@
+package com.hotelreservation.repositories;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.enums.RoomType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Booking repository storing bookings as parallel primitive columns.
+ * Booking objects are only materialized when a query returns them.
+ *
+ * Heap per booking (64-bit JVM, compressed oops), excluding the indexes both repositories
+ * share: a 25-byte node in the room's interval tree and a 4-byte id in the user's list,
+ * ~30-38 bytes per booking once array growth is counted:
+ * <pre>
+ *   ListBookingRepository              ColumnarBookingRepository
+ *   Booking object         48 bytes    userId, roomNumber       8 bytes
+ *   2 x LocalDate          48 bytes    checkIn, checkOut days   8 bytes
+ *   ArrayList slot        4-6 bytes    room type ordinal        1 byte
+ *                                      price, total, balance   12 bytes
+ *   total               ~101 bytes     total                   29 bytes
+ * </pre>
+ * Columns grow in fixed-size chunks, so growing never copies existing rows.
+ */
+public class ColumnarBookingRepository extends BookingRepository {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private int[][] userIds = new int[0][];
+    private int[][] roomNumbers = new int[0][];
+    private int[][] checkIns = new int[0][];
+    private int[][] checkOuts = new int[0][];
+    private byte[][] roomTypes = new byte[0][];
+    private int[][] prices = new int[0][];
+    private int[][] totalPrices = new int[0][];
+    private int[][] balances = new int[0][];
+    private int size;
+
+    @Override
+    protected int store(Booking booking) {
+        int row = size;
+        int chunk = row >>> CHUNK_BITS;
+        if (chunk == userIds.length) {
+            addChunk();
+        }
+
+        int offset = row & CHUNK_MASK;
+        userIds[chunk][offset] = booking.getUserId();
+        roomNumbers[chunk][offset] = booking.getRoomNumber();
+        checkIns[chunk][offset] = (int) booking.getCheckIn().toEpochDay();
+        checkOuts[chunk][offset] = (int) booking.getCheckOut().toEpochDay();
+        roomTypes[chunk][offset] = (byte) booking.getRoomTypeAtBooking().ordinal();
+        prices[chunk][offset] = booking.getPricePerNightAtBooking();
+        totalPrices[chunk][offset] = booking.getTotalPrice();
+        balances[chunk][offset] = booking.getUserBalanceAtBooking();
+        size++;
+        return row;
+    }
+
+    @Override
+    protected Booking load(int bookingId) {
+        int chunk = bookingId >>> CHUNK_BITS;
+        int offset = bookingId & CHUNK_MASK;
+        return new Booking(
+                userIds[chunk][offset],
+                roomNumbers[chunk][offset],
+                LocalDate.ofEpochDay(checkIns[chunk][offset]),
+                LocalDate.ofEpochDay(checkOuts[chunk][offset]),
+                ROOM_TYPES[roomTypes[chunk][offset]],
+                prices[chunk][offset],
+                balances[chunk][offset],
+                totalPrices[chunk][offset]);
+    }
+
+    @Override
+    protected List<Booking> loadAll() {
+        List<Booking> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(load(i));
+        }
+        return result;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+
+    @Override
+    protected void visitDescending(int from, int to, int cancelEpoch, BookingVisitor visitor) {
+        for (int row = from; row >= to; row--) {
+            if (isCancelled(row, cancelEpoch)) {
+                continue;
+            }
+            int chunk = row >>> CHUNK_BITS;
+            int offset = row & CHUNK_MASK;
+            visitor.visit(userIds[chunk][offset], roomNumbers[chunk][offset],
+                    checkIns[chunk][offset], checkOuts[chunk][offset],
+                    ROOM_TYPES[roomTypes[chunk][offset]], prices[chunk][offset], totalPrices[chunk][offset],
+                    balances[chunk][offset]);
+        }
+    }
+
+    // ===== Private Helpers =====
+
+    private void addChunk() {
+        int chunks = userIds.length + 1;
+        userIds = Arrays.copyOf(userIds, chunks);
+        roomNumbers = Arrays.copyOf(roomNumbers, chunks);
+        checkIns = Arrays.copyOf(checkIns, chunks);
+        checkOuts = Arrays.copyOf(checkOuts, chunks);
+        roomTypes = Arrays.copyOf(roomTypes, chunks);
+        prices = Arrays.copyOf(prices, chunks);
+        totalPrices = Arrays.copyOf(totalPrices, chunks);
+        balances = Arrays.copyOf(balances, chunks);
+
+        int last = chunks - 1;
+        userIds[last] = new int[CHUNK_SIZE];
+        roomNumbers[last] = new int[CHUNK_SIZE];
+        checkIns[last] = new int[CHUNK_SIZE];
+        checkOuts[last] = new int[CHUNK_SIZE];
+        roomTypes[last] = new byte[CHUNK_SIZE];
+        prices[last] = new int[CHUNK_SIZE];
+        totalPrices[last] = new int[CHUNK_SIZE];
+        balances[last] = new int[CHUNK_SIZE];
+    }
+}
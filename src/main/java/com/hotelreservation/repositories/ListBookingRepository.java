@@ -0,0 +1,48 @@
+package com.hotelreservation.repositories;
+
+import com.hotelreservation.entities.Booking;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Booking repository keeping one Booking object per booking in an ArrayList.
+ * Costs about 101 bytes of heap per booking (see ColumnarBookingRepository for the breakdown).
+ */
+public class ListBookingRepository extends BookingRepository {
+    private final ArrayList<Booking> bookings = new ArrayList<>();
+
+    @Override
+    protected int store(Booking booking) {
+        bookings.add(booking);
+        return bookings.size() - 1;
+    }
+
+    @Override
+    protected Booking load(int bookingId) {
+        return bookings.get(bookingId);
+    }
+
+    @Override
+    protected List<Booking> loadAll() {
+        return new ArrayList<>(bookings);
+    }
+
+    @Override
+    protected int size() {
+        return bookings.size();
+    }
+
+    @Override
+    protected void visitDescending(int from, int to, int cancelEpoch, BookingVisitor visitor) {
+        for (int i = from; i >= to; i--) {
+            if (isCancelled(i, cancelEpoch)) {
+                continue;
+            }
+            Booking b = bookings.get(i);
+            visitor.visit(b.getUserId(), b.getRoomNumber(),
+                    (int) b.getCheckIn().toEpochDay(), (int) b.getCheckOut().toEpochDay(),
+                    b.getRoomTypeAtBooking(), b.getPricePerNightAtBooking(), b.getTotalPrice(),
+                    b.getUserBalanceAtBooking());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.hotelreservation.repositories;
+
+import java.util.List;
+
+/**
+ * One page of a latest-first traversal, and the cursor that continues it.
+ */
+public class Page<T> {
+    /** Cursor of the first page */
+    public static final int FIRST = Integer.MAX_VALUE;
+
+    private final List<T> items;
+    private final int nextCursor;
+
+    Page(List<T> items, int nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Cursor of the following page, or -1 if this is the last one.
+     */
+    public int getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor >= 0;
+    }
+
+    static void validateLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be at least 1: " + limit);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.hotelreservation.repositories;
+
+import com.hotelreservation.entities.TypeReservation;
+import com.hotelreservation.enums.RoomType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Open room type reservations by id, and each room type's overbooking allowance.
+ * Removing is atomic, so of two concurrent check-ins of one reservation only one gets it.
+ * This is the durable record the type inventory is rebuilt from.
+ * Safe for concurrent use.
+ */
+public class ReservationRepository {
+    private final ConcurrentHashMap<Integer, TypeReservation> reservations = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final AtomicIntegerArray overbooking = new AtomicIntegerArray(RoomType.values().length);
+
+    public int save(TypeReservation reservation) {
+        int id = nextId.getAndIncrement();
+        reservations.put(id, reservation);
+        return id;
+    }
+
+    /**
+     * Stores a replayed reservation under the id it was saved with; later saves continue after it.
+     */
+    public void put(int reservationId, TypeReservation reservation) {
+        reservations.put(reservationId, reservation);
+        nextId.accumulateAndGet(reservationId + 1, Math::max);
+    }
+
+    public Optional<TypeReservation> findById(int reservationId) {
+        return Optional.ofNullable(reservations.get(reservationId));
+    }
+
+    /**
+     * Takes the reservation out and returns it, or null if it is not open.
+     */
+    public TypeReservation remove(int reservationId) {
+        return reservations.remove(reservationId);
+    }
+
+    public List<TypeReservation> findAll() {
+        return new ArrayList<>(reservations.values());
+    }
+
+    /**
+     * Copies the open reservations, ordered by id.
+     */
+    public Map<Integer, TypeReservation> findAllById() {
+        return new TreeMap<>(reservations);
+    }
+
+    public void setOverbookingAllowance(RoomType roomType, int allowance) {
+        overbooking.set(roomType.ordinal(), allowance);
+    }
+
+    public int getOverbookingAllowance(RoomType roomType) {
+        return overbooking.get(roomType.ordinal());
+    }
+}
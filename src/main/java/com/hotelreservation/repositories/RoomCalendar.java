@@ -0,0 +1,244 @@
+package com.hotelreservation.repositories;
+
+import java.util.Arrays;
+
+/**
+ * Interval index of one room's bookings, stored as epoch-day ranges [start, end).
+ * An AVL tree ordered by start day (then booking id), where each node also keeps the
+ * largest end day in its subtree, so overlap checks, additions and removals are all
+ * O(log n) in the room's bookings. Nodes live in parallel primitive arrays; removed
+ * nodes are recycled through a free list.
+ */
+class RoomCalendar {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int NIL = 0;  // node 0 is the empty subtree
+
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int[] bookingIds = new int[INITIAL_CAPACITY];
+    private int[] maxEnds = new int[INITIAL_CAPACITY];  // largest end in the node's subtree
+    private int[] lefts = new int[INITIAL_CAPACITY];    // also links the free list
+    private int[] rights = new int[INITIAL_CAPACITY];
+    private byte[] heights = new byte[INITIAL_CAPACITY];
+    private int root = NIL;
+    private int size;
+    private int nextNode = 1;
+    private int freeNodes = NIL;
+
+    RoomCalendar() {
+        maxEnds[NIL] = Integer.MIN_VALUE;
+    }
+
+    void add(int start, int end, int bookingId) {
+        int node = allocate(start, end, bookingId);
+        root = insert(root, node);
+        size++;
+    }
+
+    /**
+     * Removes the interval starting at start that belongs to bookingId.
+     * Returns false if there is none.
+     */
+    boolean remove(int start, int bookingId) {
+        int before = size;
+        root = delete(root, start, bookingId);
+        return size < before;
+    }
+
+    /**
+     * True if any interval intersects [start, end).
+     */
+    boolean overlaps(int start, int end) {
+        int node = root;
+        while (node != NIL) {
+            if (starts[node] < end && ends[node] > start) {
+                return true;
+            }
+            // If the left subtree reaches past start but has no overlap, its interval that
+            // does starts at or after end, and so does everything to its right
+            int left = lefts[node];
+            node = maxEnds[left] > start ? left : rights[node];
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Booking ids ordered by start day.
+     */
+    int[] bookingIdsByStart() {
+        int[] result = new int[size];
+        collect(root, result, 0);
+        return result;
+    }
+
+    /**
+     * Id of a booking starting on the given day, or -1 if there is none.
+     */
+    int bookingIdStartingOn(int start) {
+        int found = -1;
+        int node = root;
+        while (node != NIL) {
+            if (starts[node] >= start) {
+                if (starts[node] == start) {
+                    found = bookingIds[node];
+                }
+                node = lefts[node];
+            } else {
+                node = rights[node];
+            }
+        }
+        return found;
+    }
+
+    // ===== Private Helpers =====
+
+    private int insert(int tree, int node) {
+        if (tree == NIL) {
+            return node;
+        }
+        if (compare(starts[node], bookingIds[node], tree) < 0) {
+            lefts[tree] = insert(lefts[tree], node);
+        } else {
+            rights[tree] = insert(rights[tree], node);
+        }
+        return rebalance(tree);
+    }
+
+    private int delete(int tree, int start, int bookingId) {
+        if (tree == NIL) {
+            return NIL;
+        }
+        int order = compare(start, bookingId, tree);
+        if (order < 0) {
+            lefts[tree] = delete(lefts[tree], start, bookingId);
+        } else if (order > 0) {
+            rights[tree] = delete(rights[tree], start, bookingId);
+        } else {
+            int left = lefts[tree];
+            int right = rights[tree];
+            release(tree);
+            size--;
+            if (left == NIL || right == NIL) {
+                return left == NIL ? right : left;
+            }
+            // The next interval by start takes the removed node's place
+            int successor = right;
+            while (lefts[successor] != NIL) {
+                successor = lefts[successor];
+            }
+            rights[successor] = deleteMin(right);
+            lefts[successor] = left;
+            return rebalance(successor);
+        }
+        return rebalance(tree);
+    }
+
+    // Unlinks the leftmost node of tree, without releasing it
+    private int deleteMin(int tree) {
+        if (lefts[tree] == NIL) {
+            return rights[tree];
+        }
+        lefts[tree] = deleteMin(lefts[tree]);
+        return rebalance(tree);
+    }
+
+    private int rebalance(int node) {
+        update(node);
+        int balance = heights[lefts[node]] - heights[rights[node]];
+        if (balance > 1) {
+            int left = lefts[node];
+            if (heights[lefts[left]] < heights[rights[left]]) {
+                lefts[node] = rotateLeft(left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            int right = rights[node];
+            if (heights[rights[right]] < heights[lefts[right]]) {
+                rights[node] = rotateRight(right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private int rotateRight(int node) {
+        int left = lefts[node];
+        lefts[node] = rights[left];
+        rights[left] = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private int rotateLeft(int node) {
+        int right = rights[node];
+        rights[node] = lefts[right];
+        lefts[right] = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private void update(int node) {
+        int left = lefts[node];
+        int right = rights[node];
+        heights[node] = (byte) (1 + Math.max(heights[left], heights[right]));
+        maxEnds[node] = Math.max(ends[node], Math.max(maxEnds[left], maxEnds[right]));
+    }
+
+    private int compare(int start, int bookingId, int node) {
+        int order = Integer.compare(start, starts[node]);
+        return order != 0 ? order : Integer.compare(bookingId, bookingIds[node]);
+    }
+
+    // In-order walk; returns the next free position in result
+    private int collect(int node, int[] result, int position) {
+        if (node == NIL) {
+            return position;
+        }
+        position = collect(lefts[node], result, position);
+        result[position++] = bookingIds[node];
+        return collect(rights[node], result, position);
+    }
+
+    private int allocate(int start, int end, int bookingId) {
+        int node = freeNodes;
+        if (node != NIL) {
+            freeNodes = lefts[node];
+        } else {
+            if (nextNode == starts.length) {
+                grow();
+            }
+            node = nextNode++;
+        }
+        starts[node] = start;
+        ends[node] = end;
+        bookingIds[node] = bookingId;
+        maxEnds[node] = end;
+        lefts[node] = NIL;
+        rights[node] = NIL;
+        heights[node] = 1;
+        return node;
+    }
+
+    private void release(int node) {
+        lefts[node] = freeNodes;
+        freeNodes = node;
+    }
+
+    private void grow() {
+        int capacity = starts.length * 2;
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        bookingIds = Arrays.copyOf(bookingIds, capacity);
+        maxEnds = Arrays.copyOf(maxEnds, capacity);
+        lefts = Arrays.copyOf(lefts, capacity);
+        rights = Arrays.copyOf(rights, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+    }
+}
@@ -1,28 +1,221 @@
 package com.hotelreservation.repositories;
 
 import com.hotelreservation.entities.Room;
+import com.hotelreservation.entities.RoomState;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.util.IntObjectMap;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.Optional;
 import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Handles Room data access and storage.
  * Single Responsibility: Only manages Room entities.
+ * Rooms are hash-indexed by room number and grouped by room type; findAll keeps insertion order.
+ * Safe for concurrent use: lookups share a read lock, saves take the write lock.
  */
 public class RoomRepository {
-    private final ArrayList<Room> rooms = new ArrayList<>();
+    private final IntObjectMap<Room> rooms = new IntObjectMap<>();
+    private final EnumMap<RoomType, List<Room>> roomsByType = new EnumMap<>(RoomType.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public RoomRepository() {
+        for (RoomType type : RoomType.values()) {
+            roomsByType.put(type, new ArrayList<>());
+        }
+    }
 
     public void save(Room room) {
-        rooms.add(room);
+        lock.writeLock().lock();
+        try {
+            Room previous = rooms.put(room.getRoomNumber(), room);
+            if (previous != null) {
+                roomsByType.get(previous.getRoomType()).remove(previous);
+            }
+            roomsByType.get(room.getRoomType()).add(room);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies new type and price to a stored room, keeping the type index in sync.
+     */
+    public void update(Room room, RoomType roomType, int pricePerNight) {
+        lock.writeLock().lock();
+        try {
+            if (room.getRoomType() != roomType) {
+                roomsByType.get(room.getRoomType()).remove(room);
+                roomsByType.get(roomType).add(room);
+            }
+            room.update(roomType, pricePerNight);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies new type and price to a stored room only if it is still at expectedVersion.
+     * The type index moves only once the version matches; returns false on a conflict.
+     * Stored rooms change only under the write lock, so the check and the update are one step.
+     */
+    public boolean compareAndUpdate(Room room, int expectedVersion, RoomType roomType, int pricePerNight) {
+        lock.writeLock().lock();
+        try {
+            RoomState current = room.getState();
+            if (current.getVersion() != expectedVersion) {
+                return false;
+            }
+            if (current.getRoomType() != roomType) {
+                roomsByType.get(current.getRoomType()).remove(room);
+                roomsByType.get(roomType).add(room);
+            }
+            room.update(roomType, pricePerNight);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Creates or updates count rooms under a single write lock, in order,
+     * and returns the stored rooms.
+     */
+    public Room[] upsertAll(int[] roomNumbers, RoomType[] roomTypes, int[] prices, int count) {
+        Room[] result = new Room[count];
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                Room room = rooms.get(roomNumbers[i]);
+                if (room == null) {
+                    room = new Room(roomNumbers[i], roomTypes[i], prices[i]);
+                    rooms.put(room.getRoomNumber(), room);
+                    roomsByType.get(room.getRoomType()).add(room);
+                } else {
+                    if (room.getRoomType() != roomTypes[i]) {
+                        roomsByType.get(room.getRoomType()).remove(room);
+                        roomsByType.get(roomTypes[i]).add(room);
+                    }
+                    room.update(roomTypes[i], prices[i]);
+                }
+                result[i] = room;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return result;
     }
 
     public Optional<Room> findByRoomNumber(int roomNumber) {
-        return rooms.stream()
-                .filter(r -> r.getRoomNumber() == roomNumber)
-                .findFirst();
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(rooms.get(roomNumber));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Like findByRoomNumber, but returns null for a missing room instead of an Optional.
+     */
+    public Room getByRoomNumber(int roomNumber) {
+        lock.readLock().lock();
+        try {
+            return rooms.get(roomNumber);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up several rooms under one read lock; missing rooms are left null.
+     */
+    public Room[] findByRoomNumbers(int[] roomNumbers) {
+        Room[] result = new Room[roomNumbers.length];
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < roomNumbers.length; i++) {
+                result[i] = rooms.get(roomNumbers[i]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Returns rooms of the given type priced at or below maxPricePerNight.
+     */
+    public List<Room> findByRoomType(RoomType roomType, int maxPricePerNight) {
+        lock.readLock().lock();
+        try {
+            List<Room> candidates = roomsByType.get(roomType);
+            List<Room> result = new ArrayList<>(candidates.size());
+            for (Room room : candidates) {
+                if (room.getPricePerNight() <= maxPricePerNight) {
+                    result.add(room);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countByRoomType(RoomType roomType) {
+        lock.readLock().lock();
+        try {
+            return roomsByType.get(roomType).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits every room, latest first, without copying the repository.
+     */
+    public void forEachLatestFirst(Consumer<Room> action) {
+        lock.readLock().lock();
+        try {
+            for (int i = rooms.size() - 1; i >= 0; i--) {
+                action.accept(rooms.valueAt(i));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit rooms, latest first, starting at cursor:
+     * Page.FIRST for the first page, then each page's next cursor.
+     * Cursors are insertion positions, so rooms added later never shift later pages.
+     */
+    public Page<Room> findPage(int cursor, int limit) {
+        Page.validateLimit(limit);
+        lock.readLock().lock();
+        try {
+            int from = Math.min(cursor, rooms.size() - 1);
+            int to = Math.max(from - limit + 1, 0);
+            List<Room> items = new ArrayList<>(Math.max(from - to + 1, 0));
+            for (int i = from; i >= to; i--) {
+                items.add(rooms.valueAt(i));
+            }
+            return new Page<>(items, to - 1);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public List<Room> findAll() {
-        return new ArrayList<>(rooms);
+        lock.readLock().lock();
+        try {
+            return rooms.values();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,180 @@
+package com.hotelreservation.repositories;
+
+import com.hotelreservation.entities.TypeReservation;
+import com.hotelreservation.enums.RoomType;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Per room type, per night count of rooms held, over the same horizon as AvailabilityIndex.
+ * Both room bookings and type reservations hold one room of their type on each of their nights,
+ * and no night may hold more than the type's rooms plus its overbooking allowance.
+ * Holding a stay is O(nights): each night's counter is raised with a compare-and-set, and if
+ * one night is full the nights already raised are lowered again, so no lock is taken and a
+ * refused stay leaves every counter as it was.
+ * Nights outside the horizon are not counted.
+ * Safe for concurrent use; moving the horizon requires the caller to pause all other use.
+ */
+public class RoomTypeInventory {
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+    private static final int HORIZON_DAYS = AvailabilityIndex.HORIZON_DAYS;
+
+    private final AtomicIntegerArray[] held = new AtomicIntegerArray[ROOM_TYPES.length];
+    private final AtomicIntegerArray rooms = new AtomicIntegerArray(ROOM_TYPES.length);
+    private final AtomicIntegerArray overbooking = new AtomicIntegerArray(ROOM_TYPES.length);
+    private volatile int horizonStart;
+
+    public RoomTypeInventory(LocalDate horizonStart) {
+        this.horizonStart = (int) horizonStart.toEpochDay();
+        for (RoomType type : ROOM_TYPES) {
+            held[type.ordinal()] = new AtomicIntegerArray(HORIZON_DAYS);
+        }
+    }
+
+    /**
+     * Builds an inventory of the bookings and reservations already stored.
+     */
+    public static RoomTypeInventory build(LocalDate horizonStart, RoomRepository roomRepository,
+                                          BookingRepository bookingRepository,
+                                          ReservationRepository reservationRepository) {
+        RoomTypeInventory inventory = new RoomTypeInventory(horizonStart);
+        inventory.load(roomRepository, bookingRepository, reservationRepository);
+        return inventory;
+    }
+
+    /**
+     * Moves the horizon to start on the given day and recounts everything.
+     * The caller must pause all other use of the inventory.
+     */
+    public void rebuild(LocalDate horizonStart, RoomRepository roomRepository,
+                        BookingRepository bookingRepository, ReservationRepository reservationRepository) {
+        this.horizonStart = (int) horizonStart.toEpochDay();
+        for (AtomicIntegerArray nights : held) {
+            for (int night = 0; night < HORIZON_DAYS; night++) {
+                nights.set(night, 0);
+            }
+        }
+        load(roomRepository, bookingRepository, reservationRepository);
+    }
+
+    /**
+     * True if every night of [checkIn, checkOut) lies inside the horizon.
+     */
+    public boolean covers(LocalDate checkIn, LocalDate checkOut) {
+        long from = checkIn.toEpochDay() - horizonStart;
+        long to = checkOut.toEpochDay() - horizonStart;
+        return from >= 0 && to <= HORIZON_DAYS;
+    }
+
+    public void setRoomCount(RoomType roomType, int count) {
+        rooms.set(roomType.ordinal(), count);
+    }
+
+    /**
+     * Lets up to allowance more rooms of the type be held each night than exist.
+     */
+    public void setOverbookingAllowance(RoomType roomType, int allowance) {
+        if (allowance < 0) {
+            throw new IllegalArgumentException("Overbooking allowance cannot be negative: " + allowance);
+        }
+        overbooking.set(roomType.ordinal(), allowance);
+    }
+
+    public int getOverbookingAllowance(RoomType roomType) {
+        return overbooking.get(roomType.ordinal());
+    }
+
+    /**
+     * Holds one room of the type on every night of [checkIn, checkOut) inside the horizon,
+     * unless one of them is full; then returns false and changes nothing.
+     */
+    public boolean tryHold(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        AtomicIntegerArray nights = held[roomType.ordinal()];
+        int capacity = rooms.get(roomType.ordinal()) + overbooking.get(roomType.ordinal());
+        int from = clip(checkIn);
+        int to = clip(checkOut);
+
+        for (int night = from; night < to; night++) {
+            if (!tryIncrement(nights, night, capacity)) {
+                for (int taken = from; taken < night; taken++) {
+                    nights.decrementAndGet(taken);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gives back the nights of a stay held earlier.
+     */
+    public void release(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        AtomicIntegerArray nights = held[roomType.ordinal()];
+        int to = clip(checkOut);
+        for (int night = clip(checkIn); night < to; night++) {
+            nights.decrementAndGet(night);
+        }
+    }
+
+    /**
+     * How many more stays of [checkIn, checkOut), which must be covered, the type can take:
+     * the fewest free rooms on any of its nights. Negative when a night is held beyond capacity,
+     * e.g. after rooms were removed from the type.
+     */
+    public int countAvailable(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        AtomicIntegerArray nights = held[roomType.ordinal()];
+        int capacity = rooms.get(roomType.ordinal()) + overbooking.get(roomType.ordinal());
+        int to = clip(checkOut);
+        int available = capacity;
+        for (int night = clip(checkIn); night < to; night++) {
+            available = Math.min(available, capacity - nights.get(night));
+        }
+        return available;
+    }
+
+    // ===== Private Helpers =====
+
+    private void load(RoomRepository roomRepository, BookingRepository bookingRepository,
+                      ReservationRepository reservationRepository) {
+        for (RoomType type : ROOM_TYPES) {
+            setRoomCount(type, roomRepository.countByRoomType(type));
+            setOverbookingAllowance(type, reservationRepository.getOverbookingAllowance(type));
+        }
+        // Stored stays count whatever the capacity: they were admitted when they were made
+        bookingRepository.forEachLatestFirst((userId, roomNumber, checkInDay, checkOutDay, roomType,
+                                              price, total, balance) -> add(roomType, checkInDay, checkOutDay));
+        for (TypeReservation reservation : reservationRepository.findAll()) {
+            add(reservation.getRoomType(), (int) reservation.getCheckIn().toEpochDay(),
+                    (int) reservation.getCheckOut().toEpochDay());
+        }
+    }
+
+    private void add(RoomType roomType, int checkInDay, int checkOutDay) {
+        AtomicIntegerArray nights = held[roomType.ordinal()];
+        int to = clip(checkOutDay);
+        for (int night = clip(checkInDay); night < to; night++) {
+            nights.incrementAndGet(night);
+        }
+    }
+
+    private static boolean tryIncrement(AtomicIntegerArray nights, int night, int capacity) {
+        int current;
+        do {
+            current = nights.get(night);
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!nights.compareAndSet(night, current, current + 1));
+        return true;
+    }
+
+    private int clip(LocalDate day) {
+        return clip((int) day.toEpochDay());
+    }
+
+    // Horizon index of the night starting on epochDay, clamped to [0, HORIZON_DAYS]
+    private int clip(int epochDay) {
+        return Math.max(0, Math.min(epochDay - horizonStart, HORIZON_DAYS));
+    }
+}
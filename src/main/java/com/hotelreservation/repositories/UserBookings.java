@@ -0,0 +1,37 @@
+package com.hotelreservation.repositories;
+
+import java.util.Arrays;
+
+/**
+ * Ids of one user's active bookings, in the order they were saved.
+ * Ids only grow, so saving appends; cancelling finds the id by binary search.
+ */
+class UserBookings {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] bookingIds = new int[INITIAL_CAPACITY];
+    private int size;
+
+    void add(int bookingId) {
+        if (size == bookingIds.length) {
+            bookingIds = Arrays.copyOf(bookingIds, size * 2);
+        }
+        bookingIds[size++] = bookingId;
+    }
+
+    void remove(int bookingId) {
+        int index = Arrays.binarySearch(bookingIds, 0, size, bookingId);
+        if (index >= 0) {
+            System.arraycopy(bookingIds, index + 1, bookingIds, index, size - index - 1);
+            size--;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int bookingIdAt(int index) {
+        return bookingIds[index];
+    }
+}
@@ -1,28 +1,114 @@
 package com.hotelreservation.repositories;
 
 import com.hotelreservation.entities.User;
+import com.hotelreservation.util.IntObjectMap;
 import java.util.ArrayList;
 import java.util.Optional;
 import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Handles User data access and storage.
  * Single Responsibility: Only manages User entities.
+ * Users are hash-indexed by user id; findAll keeps insertion order.
+ * Safe for concurrent use: lookups share a read lock, saves take the write lock.
  */
 public class UserRepository {
-    private final ArrayList<User> users = new ArrayList<>();
+    private final IntObjectMap<User> users = new IntObjectMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
     public void save(User user) {
-        users.add(user);
+        lock.writeLock().lock();
+        try {
+            users.put(user.getUserId(), user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Creates or updates count users under a single write lock, in order.
+     */
+    public void upsertAll(int[] userIds, int[] balances, int count) {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                User user = users.get(userIds[i]);
+                if (user != null) {
+                    user.setBalance(balances[i]);
+                } else {
+                    users.put(userIds[i], new User(userIds[i], balances[i]));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public Optional<User> findByUserId(int userId) {
-        return users.stream()
-                .filter(u -> u.getUserId() == userId)
-                .findFirst();
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(users.get(userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Like findByUserId, but returns null for a missing user instead of an Optional.
+     */
+    public User getByUserId(int userId) {
+        lock.readLock().lock();
+        try {
+            return users.get(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits every user, latest first, without copying the repository.
+     */
+    public void forEachLatestFirst(Consumer<User> action) {
+        lock.readLock().lock();
+        try {
+            for (int i = users.size() - 1; i >= 0; i--) {
+                action.accept(users.valueAt(i));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit users, latest first, starting at cursor:
+     * Page.FIRST for the first page, then each page's next cursor.
+     * Cursors are insertion positions, so users added later never shift later pages.
+     */
+    public Page<User> findPage(int cursor, int limit) {
+        Page.validateLimit(limit);
+        lock.readLock().lock();
+        try {
+            int from = Math.min(cursor, users.size() - 1);
+            int to = Math.max(from - limit + 1, 0);
+            List<User> items = new ArrayList<>(Math.max(from - to + 1, 0));
+            for (int i = from; i >= to; i--) {
+                items.add(users.valueAt(i));
+            }
+            return new Page<>(items, to - 1);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public List<User> findAll() {
-        return new ArrayList<>(users);
+        lock.readLock().lock();
+        try {
+            return users.values();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
-}
\ No newline at end of file
+}
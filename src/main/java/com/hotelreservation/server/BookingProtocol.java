@@ -0,0 +1,102 @@
+package com.hotelreservation.server;
+
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.enums.BookingStatus;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.exceptions.InvalidBookingException;
+import com.hotelreservation.services.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Line protocol spoken by BookingServer: one request per line, one response line each.
+ * <pre>
+ *   BOOK userId roomNumber checkIn checkOut [idempotencyKey]
+ *                                              OK | ERR bookingStatus
+ *   ROOM roomNumber roomType pricePerNight     OK
+ *   USER userId balance                        OK
+ *   AVAILABLE roomType checkIn checkOut        OK roomNumber...
+ *   PING                                       OK
+ * </pre>
+ * Dates are ISO yyyy-MM-dd. A BOOK carrying an idempotency key is run at most once:
+ * resending it answers what the first one did, or ERR IN_PROGRESS while that is still running.
+ * Malformed requests, and keys reused for a different stay, get ERR BAD_REQUEST, and the server
+ * answers ERR BUSY when it sheds load or too many keyed bookings are running.
+ */
+public class BookingProtocol {
+    public static final String OK = "OK";
+    public static final String BAD_REQUEST = "ERR BAD_REQUEST";
+    public static final String BUSY = "ERR BUSY";
+
+    private final Service service;
+
+    public BookingProtocol(Service service) {
+        this.service = service;
+    }
+
+    public String handle(String request) {
+        String[] parts = request.trim().split(" +");
+        try {
+            switch (parts[0]) {
+                case "BOOK":
+                    return book(parts);
+                case "ROOM":
+                    expect(parts, 4);
+                    service.setRoom(Integer.parseInt(parts[1]), RoomType.valueOf(parts[2]), Integer.parseInt(parts[3]));
+                    return OK;
+                case "USER":
+                    expect(parts, 3);
+                    service.setUser(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                    return OK;
+                case "AVAILABLE":
+                    expect(parts, 4);
+                    return available(RoomType.valueOf(parts[1]), LocalDate.parse(parts[2]), LocalDate.parse(parts[3]));
+                case "PING":
+                    return OK;
+                default:
+                    return BAD_REQUEST;
+            }
+        } catch (InvalidBookingException e) {
+            return "ERR " + BookingStatus.INVALID_DATES.name();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // NumberFormatException and unknown room types are IllegalArgumentExceptions
+            return BAD_REQUEST;
+        }
+    }
+
+    // ===== Private Helpers =====
+
+    private static void expect(String[] parts, int count) {
+        if (parts.length != count) {
+            throw new IllegalArgumentException("Expected " + count + " fields");
+        }
+    }
+
+    private String book(String[] parts) {
+        if (parts.length != 6) {
+            expect(parts, 5);
+        }
+        int userId = Integer.parseInt(parts[1]);
+        int roomNumber = Integer.parseInt(parts[2]);
+        LocalDate checkIn = LocalDate.parse(parts[3]);
+        LocalDate checkOut = LocalDate.parse(parts[4]);
+        BookingStatus status = parts.length == 6
+                ? service.tryBookRoom(parts[5], userId, roomNumber, checkIn, checkOut)
+                : service.tryBookRoom(userId, roomNumber, checkIn, checkOut);
+        if (status == BookingStatus.KEY_REUSED) {
+            return BAD_REQUEST;
+        }
+        return status == BookingStatus.SUCCESS ? OK : "ERR " + status.name();
+    }
+
+    private String available(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        List<Room> rooms = service.findAvailableRooms(roomType, checkIn, checkOut);
+        StringBuilder response = new StringBuilder(OK.length() + rooms.size() * 6).append(OK);
+        for (Room room : rooms) {
+            response.append(' ').append(room.getRoomNumber());
+        }
+        return response.toString();
+    }
+}
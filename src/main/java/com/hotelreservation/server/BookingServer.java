@@ -0,0 +1,168 @@
+package com.hotelreservation.server;
+
+import com.hotelreservation.services.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loopback socket front end for a Service, speaking BookingProtocol.
+ * Every connection gets its own thread - a virtual thread on Java 21+ - so blocking
+ * lock waits and journal fsyncs cost a parked thread rather than a pool slot.
+ * Backpressure: at most maxConnections connections are open, further ones are answered
+ * ERR BUSY and closed; at most maxInFlight requests run at once, and a request that
+ * cannot start within queueTimeout is answered ERR BUSY.
+ */
+public class BookingServer implements AutoCloseable {
+    private static final int ACCEPT_BACKLOG = 4096;
+
+    private final BookingProtocol protocol;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private final Semaphore connectionSlots;
+    private final Semaphore inFlight;
+    private final long queueTimeoutNanos;
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    private BookingServer(Service service, ServerSocket serverSocket, int maxConnections, int maxInFlight,
+                          long queueTimeoutMillis) {
+        this.protocol = new BookingProtocol(service);
+        this.serverSocket = serverSocket;
+        this.connections = VirtualThreads.newPerTaskExecutor("booking-connection");
+        this.connectionSlots = new Semaphore(maxConnections);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+        this.acceptor = new Thread(this::acceptLoop, "booking-acceptor");
+        this.acceptor.setDaemon(true);
+    }
+
+    /**
+     * Listens on the loopback interface; port 0 picks a free port.
+     */
+    public static BookingServer start(Service service, int port, int maxConnections, int maxInFlight,
+                                      long queueTimeoutMillis) throws IOException {
+        ServerSocket serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), ACCEPT_BACKLOG);
+        BookingServer server = new BookingServer(service, serverSocket, maxConnections, maxInFlight,
+                queueTimeoutMillis);
+        server.acceptor.start();
+        return server;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public static boolean usesVirtualThreads() {
+        return VirtualThreads.available();
+    }
+
+    /**
+     * Stops accepting, then closes every open connection.
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+        for (Socket socket : open) {
+            closeQuietly(socket);
+        }
+        connections.shutdown();
+    }
+
+    // ===== Private Helpers =====
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                return;
+            }
+            if (!connectionSlots.tryAcquire()) {
+                reject(socket);
+                continue;
+            }
+            open.add(socket);
+            connections.execute(() -> {
+                try {
+                    serve(socket);
+                } finally {
+                    open.remove(socket);
+                    closeQuietly(socket);
+                    connectionSlots.release();
+                }
+            });
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Writer out = new BufferedWriter(
+                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII));
+
+            String request;
+            while ((request = in.readLine()) != null) {
+                out.write(respond(request));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private String respond(String request) {
+        try {
+            if (!inFlight.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return BookingProtocol.BUSY;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BookingProtocol.BUSY;
+        }
+        try {
+            return protocol.handle(request);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private static void reject(Socket socket) {
+        try (socket) {
+            socket.getOutputStream().write((BookingProtocol.BUSY + "\n").getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            // Nothing more to tell a client that is gone
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.hotelreservation.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-per-task executors that use virtual threads when the JVM has them (Java 21+).
+ * The factory method is looked up reflectively so the code still compiles for Java 17,
+ * where a cached pool of small-stack daemon platform threads stands in.
+ */
+final class VirtualThreads {
+    // Platform threads mostly sit in blocking reads, so a small stack is plenty
+    private static final long FALLBACK_STACK_SIZE = 256 * 1024;
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor();
+
+    private VirtualThreads() {
+    }
+
+    static boolean available() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    static ExecutorService newPerTaskExecutor(String name) {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create virtual thread executor", e);
+            }
+        }
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(null, runnable, name + "-" + count.incrementAndGet(), FALLBACK_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(factory);
+    }
+
+    // ===== Private Helpers =====
+
+    private static Method findVirtualThreadExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
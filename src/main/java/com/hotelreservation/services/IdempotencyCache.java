@@ -0,0 +1,283 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.metrics.CacheStats;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Outcomes of recent booking requests by idempotency key, so a retried request gets the
+ * original outcome instead of running again.
+ * Keys are kept as 64-bit hashes and entries as primitive columns: about 36 bytes each,
+ * whatever the key's length. The cache is split into stripes, each guarded by its own monitor,
+ * holding a ring of entries in arrival order and an open-addressing index into the ring.
+ * Entries leave after the time to live, oldest first, or earlier when a stripe is full; both
+ * are O(1), so memory stays bounded at any request rate and lookups never scan.
+ * A key arriving again after its entry left runs as a new request, so an entry whose request
+ * is still running never leaves: it moves to the back of the ring instead, and a stripe full
+ * of running requests answers BUSY.
+ */
+class IdempotencyCache {
+    static final int DEFAULT_CAPACITY = 1 << 20;
+    static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(1);
+
+    /** begin: the key is new and now claimed; run the request and complete it */
+    static final int NEW = Integer.MIN_VALUE;
+    /** begin: a request with this key is still running */
+    static final int IN_PROGRESS = Integer.MIN_VALUE + 1;
+    /** begin: the key's stripe is full of running requests; nothing was claimed */
+    static final int BUSY = Integer.MIN_VALUE + 2;
+    /** begin: the key was used for a different request */
+    static final int KEY_REUSED = Integer.MIN_VALUE + 3;
+
+    private static final int STRIPE_BITS = 6;
+
+    private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+    private final long timeToLiveNanos;
+    private final LongSupplier clock;
+    private final int capacity;
+
+    IdempotencyCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_TIME_TO_LIVE, System::nanoTime);
+    }
+
+    IdempotencyCache(int capacity, Duration timeToLive, LongSupplier clock) {
+        int perStripe = Math.max(1, capacity >>> STRIPE_BITS);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.capacity = perStripe << STRIPE_BITS;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * 64-bit hash of an idempotency key. The chance that any two of a million live keys
+     * collide is about 3 in 10^8.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        // Final avalanche, so both the stripe and the index slot bits are well mixed
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * Claims key for a request with the given fingerprint and returns NEW, or returns the
+     * outcome recorded for it, IN_PROGRESS, BUSY or KEY_REUSED.
+     */
+    int begin(long key, long fingerprint) {
+        return stripeFor(key).begin(key, fingerprint, clock.getAsLong(), timeToLiveNanos);
+    }
+
+    /**
+     * Records the outcome of a claimed request. Outcomes are ints above KEY_REUSED.
+     */
+    void complete(long key, int outcome) {
+        stripeFor(key).complete(key, outcome);
+    }
+
+    /**
+     * Forgets a claimed request that failed unexpectedly, so a retry runs it again.
+     */
+    void abandon(long key) {
+        stripeFor(key).abandon(key);
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Hits are duplicates answered from the cache; evictions count entries dropped
+     * for space before their time to live ran out.
+     */
+    CacheStats stats() {
+        long hits = 0;
+        long misses = 0;
+        long evictions = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                hits += stripe.hits;
+                misses += stripe.misses;
+                evictions += stripe.evictions;
+            }
+        }
+        return new CacheStats(hits, misses, evictions, size(), capacity);
+    }
+
+    // ===== Private Helpers =====
+
+    private Stripe stripeFor(long key) {
+        return stripes[(int) (key >>> (64 - STRIPE_BITS))];
+    }
+
+    private static final class Stripe {
+        // Ring of entries in arrival order, oldest at head
+        private final long[] keys;
+        private final long[] fingerprints;
+        private final long[] expiresAt;
+        private final int[] outcomes;
+        private int head;
+        private int size;
+
+        // Linear-probing index: ring slot + 1, or 0 when empty
+        private final int[] index;
+        private final int mask;
+
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        Stripe(int capacity) {
+            keys = new long[capacity];
+            fingerprints = new long[capacity];
+            expiresAt = new long[capacity];
+            outcomes = new int[capacity];
+            index = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+            mask = index.length - 1;
+        }
+
+        synchronized int begin(long key, long fingerprint, long now, long timeToLive) {
+            expire(now, timeToLive);
+            int slot = find(key);
+            if (slot >= 0) {
+                if (fingerprints[slot] != fingerprint) {
+                    return KEY_REUSED;
+                }
+                hits++;
+                return outcomes[slot];
+            }
+
+            if (size == keys.length && !evictOldestCompleted(now + timeToLive)) {
+                return BUSY;
+            }
+            misses++;
+            slot = (head + size) % keys.length;
+            keys[slot] = key;
+            fingerprints[slot] = fingerprint;
+            expiresAt[slot] = now + timeToLive;
+            outcomes[slot] = IN_PROGRESS;
+            size++;
+
+            int i = home(key);
+            while (index[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            index[i] = slot + 1;
+            return NEW;
+        }
+
+        synchronized void complete(long key, int outcome) {
+            int slot = find(key);
+            if (slot >= 0) {
+                outcomes[slot] = outcome;
+            }
+        }
+
+        // The entry leaves the index at once; its ring slot is reclaimed when it reaches the head
+        synchronized void abandon(long key) {
+            int i = indexOf(key);
+            if (i >= 0) {
+                outcomes[index[i] - 1] = NEW;  // No longer running
+                unlink(i);
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        // Running requests met on the way are requeued with a fresh time to live, so each
+        // entry is looked at once
+        private void expire(long now, long timeToLive) {
+            for (int left = size; left > 0 && expiresAt[head] - now <= 0; left--) {
+                if (outcomes[head] == IN_PROGRESS) {
+                    requeueHead(now + timeToLive);
+                } else {
+                    removeOldest();
+                }
+            }
+        }
+
+        // Removes the oldest entry whose request has completed, requeueing running ones
+        // ahead of it; false if every entry is still running
+        private boolean evictOldestCompleted(long requeuedExpiry) {
+            for (int left = size; left > 0; left--) {
+                if (outcomes[head] != IN_PROGRESS) {
+                    removeOldest();
+                    evictions++;
+                    return true;
+                }
+                requeueHead(requeuedExpiry);
+            }
+            return false;
+        }
+
+        // Moves the running entry at head to the back of the ring. In a full ring the back is
+        // the head's own slot, so only head moves
+        private void requeueHead(long expires) {
+            int tail = (head + size) % keys.length;
+            if (tail != head) {
+                index[indexOf(keys[head])] = tail + 1;
+                keys[tail] = keys[head];
+                fingerprints[tail] = fingerprints[head];
+                outcomes[tail] = IN_PROGRESS;
+            }
+            expiresAt[tail] = expires;
+            head = (head + 1) % keys.length;
+        }
+
+        private void removeOldest() {
+            int i = indexOf(keys[head]);
+            if (i >= 0 && index[i] - 1 == head) {
+                unlink(i);
+            }
+            head = (head + 1) % keys.length;
+            size--;
+        }
+
+        private int find(long key) {
+            int i = indexOf(key);
+            return i < 0 ? -1 : index[i] - 1;
+        }
+
+        // Position of key in the index, or -1
+        private int indexOf(long key) {
+            for (int i = home(key); index[i] != 0; i = (i + 1) & mask) {
+                if (keys[index[i] - 1] == key) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Empties index position i and shifts later entries of its probe run back into the gap
+        private void unlink(int i) {
+            index[i] = 0;
+            for (int j = (i + 1) & mask; index[j] != 0; j = (j + 1) & mask) {
+                int home = home(keys[index[j] - 1]);
+                // Move the entry unless its home lies cyclically in (i, j]
+                boolean stays = i <= j ? (home > i && home <= j) : (home > i || home <= j);
+                if (!stays) {
+                    index[i] = index[j];
+                    index[j] = 0;
+                    i = j;
+                }
+            }
+        }
+
+        private int home(long key) {
+            return (int) key & mask;
+        }
+    }
+}
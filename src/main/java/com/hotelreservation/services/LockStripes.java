@@ -0,0 +1,111 @@
+package com.hotelreservation.services;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks guarding rooms and users.
+ * Lock order is always room stripes (ascending) before the user stripe,
+ * so no two threads can wait on each other in a cycle.
+ */
+class LockStripes {
+    static final int DEFAULT_STRIPES = 1024;
+
+    private final ReentrantLock[] roomLocks;
+    private final ReentrantLock[] userLocks;
+    private final int mask;
+
+    LockStripes(int stripes) {
+        int size = Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1;
+        this.roomLocks = new ReentrantLock[size];
+        this.userLocks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            roomLocks[i] = new ReentrantLock();
+            userLocks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    ReentrantLock forRoom(int roomNumber) {
+        return roomLocks[stripe(roomNumber)];
+    }
+
+    ReentrantLock forUser(int userId) {
+        return userLocks[stripe(userId)];
+    }
+
+    /**
+     * Locks the room stripe, then the user stripe.
+     */
+    void lock(int roomNumber, int userId) {
+        forRoom(roomNumber).lock();
+        forUser(userId).lock();
+    }
+
+    void unlock(int roomNumber, int userId) {
+        forUser(userId).unlock();
+        forRoom(roomNumber).unlock();
+    }
+
+    /**
+     * Returns the distinct room stripes covering the given rooms, in lock order.
+     */
+    int[] roomStripes(int[] roomNumbers) {
+        int[] stripes = new int[roomNumbers.length];
+        for (int i = 0; i < roomNumbers.length; i++) {
+            stripes[i] = stripe(roomNumbers[i]);
+        }
+        Arrays.sort(stripes);
+
+        int distinct = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            if (i == 0 || stripes[i] != stripes[i - 1]) {
+                stripes[distinct++] = stripes[i];
+            }
+        }
+        return Arrays.copyOf(stripes, distinct);
+    }
+
+    /**
+     * Locks the room stripes in ascending order, then the user stripe.
+     */
+    void lockAll(int[] roomStripes, int userId) {
+        for (int stripe : roomStripes) {
+            roomLocks[stripe].lock();
+        }
+        forUser(userId).lock();
+    }
+
+    void unlockAll(int[] roomStripes, int userId) {
+        forUser(userId).unlock();
+        for (int i = roomStripes.length - 1; i >= 0; i--) {
+            roomLocks[roomStripes[i]].unlock();
+        }
+    }
+
+    /**
+     * Locks every stripe, pausing all mutations. Same order as always: rooms, then users.
+     */
+    void lockEverything() {
+        for (ReentrantLock lock : roomLocks) {
+            lock.lock();
+        }
+        for (ReentrantLock lock : userLocks) {
+            lock.lock();
+        }
+    }
+
+    void unlockEverything() {
+        for (int i = userLocks.length - 1; i >= 0; i--) {
+            userLocks[i].unlock();
+        }
+        for (int i = roomLocks.length - 1; i >= 0; i--) {
+            roomLocks[i].unlock();
+        }
+    }
+
+    private int stripe(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -1,45 +1,274 @@
 package com.hotelreservation.services;
 
+import com.hotelreservation.analytics.OccupancyAnalytics;
+import com.hotelreservation.analytics.OccupancyReport;
+import com.hotelreservation.analytics.UserBookingSummary;
+import com.hotelreservation.analytics.UserSummaryCache;
 import com.hotelreservation.entities.Booking;
 import com.hotelreservation.entities.Room;
+import com.hotelreservation.entities.RoomState;
+import com.hotelreservation.entities.TypeReservation;
 import com.hotelreservation.entities.User;
+import com.hotelreservation.enums.BookingStatus;
 import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.exceptions.BookingNotFoundException;
+import com.hotelreservation.exceptions.InsufficientBalanceException;
+import com.hotelreservation.exceptions.InvalidBookingException;
+import com.hotelreservation.exceptions.RoomNotFoundException;
+import com.hotelreservation.exceptions.UserNotFoundException;
+import com.hotelreservation.metrics.CacheStats;
+import com.hotelreservation.metrics.ServiceMetrics;
+import com.hotelreservation.metrics.ServiceMetrics.FailureCause;
+import com.hotelreservation.metrics.ServiceMetrics.Operation;
+import com.hotelreservation.metrics.ServiceMetrics.Phase;
+import com.hotelreservation.persistence.CsvImporter;
+import com.hotelreservation.persistence.FileJournal;
+import com.hotelreservation.persistence.Journal;
+import com.hotelreservation.persistence.RepositoryLoader;
+import com.hotelreservation.persistence.SegmentedJournal;
+import com.hotelreservation.persistence.StateSnapshot;
+import com.hotelreservation.pricing.PricingEngine;
+import com.hotelreservation.pricing.RateRule;
+import com.hotelreservation.pricing.RateTable;
+import com.hotelreservation.reports.ReportExporter;
+import com.hotelreservation.reports.ReportFormat;
+import com.hotelreservation.repositories.AvailabilityIndex;
+import com.hotelreservation.repositories.BookingSnapshot;
+import com.hotelreservation.repositories.Page;
+import com.hotelreservation.repositories.ReservationRepository;
 import com.hotelreservation.repositories.RoomRepository;
+import com.hotelreservation.repositories.RoomTypeInventory;
 import com.hotelreservation.repositories.UserRepository;
 import com.hotelreservation.repositories.BookingRepository;
+import com.hotelreservation.repositories.ListBookingRepository;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Service layer with proper separation of concerns.
- * Phase 3: REFACTOR - OOP principles applied.
+ * Service layer with proper separation of concerns: rooms, users, bookings and room type
+ * reservations are stored by their repositories, and the service keeps the availability
+ * bitmap, type inventory, analytics, caches and journal in step with them.
+ * Safe for concurrent use: mutations lock the affected room and user stripes,
+ * so bookings on different rooms proceed in parallel.
+ * With a journal attached every mutation is logged and only returns once durable.
  */
-public class Service {
+public class Service implements AutoCloseable {
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final int NO_RESERVATION = -1;
+
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final Journal journal;
+    private final LockStripes locks;
+    private final ReportExporter reports;
+    private final OccupancyAnalytics analytics;
+    private final AvailabilityIndex availability;
+    private final PricingEngine pricing;
+    private final ReservationRepository reservations;
+    private final RoomTypeInventory inventory;
+    private final UserSummaryCache userSummaries = new UserSummaryCache();
+    private final IdempotencyCache idempotency = new IdempotencyCache();
+    private final ServiceMetrics metrics = new ServiceMetrics();
+    private ScheduledExecutorService checkpointScheduler;
 
     public Service() {
-        this.roomRepository = new RoomRepository();
-        this.userRepository = new UserRepository();
-        this.bookingRepository = new BookingRepository();
+        this(LockStripes.DEFAULT_STRIPES);
+    }
+
+    public Service(int lockStripes) {
+        this(new RoomRepository(), new UserRepository(), new ListBookingRepository(), Journal.NONE,
+                new OccupancyAnalytics(), new ReservationRepository(), lockStripes);
+    }
+
+    /**
+     * Wraps existing repositories; analytics are rebuilt from any bookings they already hold.
+     */
+    public Service(RoomRepository roomRepository, UserRepository userRepository,
+                   BookingRepository bookingRepository, Journal journal) {
+        this(roomRepository, userRepository, bookingRepository, journal,
+                OccupancyAnalytics.recompute(bookingRepository.findAll()), new ReservationRepository(),
+                LockStripes.DEFAULT_STRIPES);
+    }
+
+    private Service(RoomRepository roomRepository, UserRepository userRepository,
+                    BookingRepository bookingRepository, Journal journal,
+                    OccupancyAnalytics analytics, ReservationRepository reservations, int lockStripes) {
+        this.roomRepository = roomRepository;
+        this.userRepository = userRepository;
+        this.bookingRepository = bookingRepository;
+        this.journal = journal;
+        this.locks = new LockStripes(lockStripes);
+        this.reports = new ReportExporter(roomRepository, userRepository, bookingRepository);
+        this.analytics = analytics;
+        this.reservations = reservations;
+        this.availability = AvailabilityIndex.build(LocalDate.now(), roomRepository, bookingRepository);
+        this.inventory = RoomTypeInventory.build(availability.getHorizonStart(), roomRepository,
+                bookingRepository, reservations);
+        this.pricing = new PricingEngine((roomType, from, to) ->
+                analytics.report(roomType, from, to, roomRepository.countByRoomType(roomType)));
+    }
+
+    /**
+     * Opens a durable service: replays the journal file to rebuild the repositories,
+     * then appends every further mutation to it.
+     */
+    public static Service open(Path journalFile) throws IOException {
+        RoomRepository rooms = new RoomRepository();
+        UserRepository users = new UserRepository();
+        BookingRepository bookings = new ListBookingRepository();
+        OccupancyAnalytics analytics = new OccupancyAnalytics();
+        ReservationRepository reservations = new ReservationRepository();
+
+        FileJournal journal = FileJournal.open(journalFile,
+                new RepositoryLoader(rooms, users, bookings, analytics, reservations));
+        return new Service(rooms, users, bookings, journal, analytics, reservations, LockStripes.DEFAULT_STRIPES);
+    }
+
+    /**
+     * Opens a durable service backed by a directory of journal segments and snapshots.
+     * Startup loads the newest snapshot and replays only the segments written after it.
+     */
+    public static Service openStore(Path directory) throws IOException {
+        return openStore(directory, new ListBookingRepository());
+    }
+
+    /**
+     * Opens a durable store that loads bookings into the given, empty repository,
+     * e.g. a ColumnarBookingRepository for large histories.
+     */
+    public static Service openStore(Path directory, BookingRepository bookings) throws IOException {
+        RoomRepository rooms = new RoomRepository();
+        UserRepository users = new UserRepository();
+        OccupancyAnalytics analytics = new OccupancyAnalytics();
+        ReservationRepository reservations = new ReservationRepository();
+
+        SegmentedJournal journal = SegmentedJournal.open(directory,
+                new RepositoryLoader(rooms, users, bookings, analytics, reservations));
+        return new Service(rooms, users, bookings, journal, analytics, reservations, LockStripes.DEFAULT_STRIPES);
+    }
+
+    /**
+     * Snapshots the current state and compacts the journal.
+     * Mutations pause only while the journal rolls to a new segment and rooms and users are copied;
+     * bookings are read from a repository snapshot while the file is written afterwards.
+     */
+    public void checkpoint() throws IOException {
+        if (!(journal instanceof SegmentedJournal)) {
+            throw new IllegalStateException("Checkpoints need a service opened with openStore");
+        }
+        SegmentedJournal segmented = (SegmentedJournal) journal;
+
+        long generation;
+        StateSnapshot snapshot;
+        locks.lockEverything();
+        try {
+            generation = segmented.roll();
+            snapshot = StateSnapshot.capture(roomRepository.findAll(), userRepository.findAll(),
+                    bookingRepository.snapshot(), reservations);
+        } finally {
+            locks.unlockEverything();
+        }
+        segmented.writeSnapshot(generation, snapshot);
+    }
+
+    /**
+     * Runs checkpoint in the background at a fixed interval until the service is closed.
+     */
+    public synchronized void scheduleCheckpoints(Duration interval) {
+        if (checkpointScheduler != null) {
+            throw new IllegalStateException("Checkpoints are already scheduled");
+        }
+        checkpointScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (IOException | RuntimeException e) {
+                // Keep the schedule alive; the next run retries
+                System.err.println("Checkpoint failed: " + e.getMessage());
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
     }
 
     /**
      * Creates or updates a room without affecting bookings.
      */
     public void setRoom(int roomNumber, RoomType roomType, int roomPricePerNight) {
-        Optional<Room> existingRoom = roomRepository.findByRoomNumber(roomNumber);
+        long started = metrics.start();
+        try {
+            long journalPosition;
+            ReentrantLock roomLock = locks.forRoom(roomNumber);
+            roomLock.lock();
+            try {
+                Room room = roomRepository.findByRoomNumber(roomNumber).orElse(null);
 
-        if (existingRoom.isPresent()) {
-            Room room = existingRoom.get();
-            room.setRoomType(roomType);
-            room.setPricePerNight(roomPricePerNight);
-        } else {
-            roomRepository.save(new Room(roomNumber, roomType, roomPricePerNight));
+                RoomType previousType = null;
+                if (room != null) {
+                    previousType = room.getRoomType();
+                    roomRepository.update(room, roomType, roomPricePerNight);
+                } else {
+                    room = new Room(roomNumber, roomType, roomPricePerNight);
+                    roomRepository.save(room);
+                }
+                journalPosition = roomUpdated(room, previousType);
+            } finally {
+                roomLock.unlock();
+            }
+            journal.awaitDurable(journalPosition);
+            metrics.succeeded(Operation.SET_ROOM, started);
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.SET_ROOM, e, started);
+            throw e;
+        }
+    }
+
+    /**
+     * Updates a room's type and price only if it is still at expectedVersion, as read from
+     * Room.getVersion or getState. Returns false, changing nothing, if another update got
+     * there first; the caller re-reads and retries. Indexes follow only a successful update.
+     */
+    public boolean compareAndSetRoom(int roomNumber, int expectedVersion, RoomType roomType, int roomPricePerNight) {
+        long started = metrics.start();
+        try {
+            long journalPosition;
+            ReentrantLock roomLock = locks.forRoom(roomNumber);
+            roomLock.lock();
+            try {
+                Room room = roomRepository.findByRoomNumber(roomNumber)
+                        .orElseThrow(() -> new RoomNotFoundException("Room not found: " + roomNumber));
+                RoomType previousType = room.getRoomType();
+                if (!roomRepository.compareAndUpdate(room, expectedVersion, roomType, roomPricePerNight)) {
+                    metrics.failed(Operation.SET_ROOM, FailureCause.OTHER, started);
+                    return false;
+                }
+                journalPosition = roomUpdated(room, previousType);
+            } finally {
+                roomLock.unlock();
+            }
+            journal.awaitDurable(journalPosition);
+            metrics.succeeded(Operation.SET_ROOM, started);
+            return true;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.SET_ROOM, e, started);
+            throw e;
         }
     }
 
@@ -47,119 +276,1120 @@ public class Service {
      * Creates or updates a user.
      */
     public void setUser(int userId, int balance) {
-        Optional<User> existingUser = userRepository.findByUserId(userId);
+        long started = metrics.start();
+        try {
+            long journalPosition;
+            ReentrantLock userLock = locks.forUser(userId);
+            userLock.lock();
+            try {
+                Optional<User> existingUser = userRepository.findByUserId(userId);
 
-        if (existingUser.isPresent()) {
-            existingUser.get().setBalance(balance);
-        } else {
-            userRepository.save(new User(userId, balance));
+                if (existingUser.isPresent()) {
+                    existingUser.get().setBalance(balance);
+                } else {
+                    userRepository.save(new User(userId, balance));
+                }
+                journalPosition = userUpdated(userId, balance);
+            } finally {
+                userLock.unlock();
+            }
+            journal.awaitDurable(journalPosition);
+            metrics.succeeded(Operation.SET_USER, started);
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.SET_USER, e, started);
+            throw e;
         }
     }
 
     /**
-     * Books a room with comprehensive validation.
+     * Sets a user's balance only if it is still at expectedVersion, as read from
+     * User.getVersion. Returns false, changing nothing, if another update or a booking's
+     * charge got there first; the caller re-reads and retries.
      */
-    public void bookRoom(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut) {
-        validateDates(checkIn, checkOut);
+    public boolean compareAndSetUser(int userId, int expectedVersion, int balance) {
+        long started = metrics.start();
+        try {
+            long journalPosition;
+            ReentrantLock userLock = locks.forUser(userId);
+            userLock.lock();
+            try {
+                User user = userRepository.findByUserId(userId)
+                        .orElseThrow(() -> new UserNotFoundException("User not found: " + userId));
+                if (!user.compareAndSetBalance(expectedVersion, balance)) {
+                    metrics.failed(Operation.SET_USER, FailureCause.OTHER, started);
+                    return false;
+                }
+                journalPosition = userUpdated(userId, balance);
+            } finally {
+                userLock.unlock();
+            }
+            journal.awaitDurable(journalPosition);
+            metrics.succeeded(Operation.SET_USER, started);
+            return true;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.SET_USER, e, started);
+            throw e;
+        }
+    }
 
-        Room room = roomRepository.findByRoomNumber(roomNumber)
-                .orElseThrow(() -> new RuntimeException("Room not found: " + roomNumber));
+    /**
+     * Creates or updates every room in a CSV file in the format exportRooms writes,
+     * and returns the number of rows read. The file is parsed in parallel; each parsed
+     * batch is applied and journaled while mutations are paused, and the import returns
+     * once everything is durable. An exported file, which starts with a header and lists
+     * rooms latest first, is applied from its last line up, so rooms keep the order they
+     * were added in and the first line wins for a repeated number; a file without a header
+     * is applied top down. A malformed line fails the import with the batches applied
+     * before it in that order kept.
+     */
+    public long importRooms(Path csv) throws IOException {
+        long[] journalPosition = new long[1];
+        long count = CsvImporter.readRooms(csv, (roomNumbers, roomTypes, prices, rows) -> {
+            locks.lockEverything();
+            try {
+                Room[] rooms = roomRepository.upsertAll(roomNumbers, roomTypes, prices, rows);
+                for (int i = 0; i < rows; i++) {
+                    availability.putRoom(rooms[i]);
+                    journalPosition[0] = journal.appendRoom(roomNumbers[i], roomTypes[i], prices[i]);
+                }
+                for (RoomType type : RoomType.values()) {
+                    inventory.setRoomCount(type, roomRepository.countByRoomType(type));
+                }
+            } finally {
+                locks.unlockEverything();
+            }
+        });
+        journal.awaitDurable(journalPosition[0]);
+        return count;
+    }
 
-        User user = userRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+    /**
+     * Creates or updates every user in a CSV file in the format exportUsers writes,
+     * and returns the number of rows read. Applied like importRooms.
+     */
+    public long importUsers(Path csv) throws IOException {
+        long[] journalPosition = new long[1];
+        long count = CsvImporter.readUsers(csv, (userIds, balances, rows) -> {
+            locks.lockEverything();
+            try {
+                userRepository.upsertAll(userIds, balances, rows);
+                for (int i = 0; i < rows; i++) {
+                    journalPosition[0] = journal.appendUser(userIds[i], balances[i]);
+                }
+            } finally {
+                locks.unlockEverything();
+            }
+        });
+        journal.awaitDurable(journalPosition[0]);
+        return count;
+    }
 
-        validateNoOverlap(roomNumber, checkIn, checkOut);
+    /**
+     * Books a room with comprehensive validation and returns the new booking's id.
+     * Throws the exceptions package type matching the reason a booking is refused.
+     */
+    public int bookRoom(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        int result = book(userId, roomNumber, checkIn, checkOut, NO_RESERVATION);
+        if (result < 0) {
+            throw toException(statusOf(result), userId, roomNumber, checkIn, checkOut);
+        }
+        return result;
+    }
 
-        int totalCost = calculateCost(room, checkIn, checkOut);
-        validateBalance(user, totalCost);
+    /**
+     * Books a room like bookRoom, but reports a refusal as a status instead of an exception.
+     * A refused booking allocates nothing, which keeps rejection cheap when most requests fail.
+     */
+    public BookingStatus tryBookRoom(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        int result = book(userId, roomNumber, checkIn, checkOut, NO_RESERVATION);
+        return result >= 0 ? BookingStatus.SUCCESS : statusOf(result);
+    }
 
-        // Deduct balance and save booking
-        user.deductBalance(totalCost);
+    /**
+     * Books a room like bookRoom, at most once per idempotency key: a retry with the same key
+     * gets the original booking id, or the original refusal, without validating or booking again.
+     * Throws InvalidBookingException while the first request with the key is still running,
+     * or too many keyed requests are running to take this one, and IllegalArgumentException
+     * if the key was used for a different stay.
+     * Keys are remembered in memory for an hour, or less when over a million arrive in that time,
+     * but never while their request is running.
+     */
+    public int bookRoom(String idempotencyKey, int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        int result = bookOnce(idempotencyKey, userId, roomNumber, checkIn, checkOut);
+        if (result == IdempotencyCache.IN_PROGRESS) {
+            throw new InvalidBookingException("A request with this idempotency key is still in progress");
+        }
+        if (result == IdempotencyCache.BUSY) {
+            throw new InvalidBookingException("Too many requests in progress; retry later");
+        }
+        if (result == IdempotencyCache.KEY_REUSED) {
+            throw new IllegalArgumentException("Idempotency key reused for a different stay");
+        }
+        if (result < 0) {
+            throw toException(statusOf(result), userId, roomNumber, checkIn, checkOut);
+        }
+        return result;
+    }
 
-        Booking booking = new Booking(
-                userId, roomNumber, checkIn, checkOut,
-                room.getRoomType(),
-                room.getPricePerNight(),
-                user.getBalance() + totalCost  // Original balance
-        );
+    /**
+     * Books a room like tryBookRoom, at most once per idempotency key, as bookRoom with a key does.
+     * Reports IN_PROGRESS while the first request with the key is still running, BUSY when too
+     * many keyed requests are running to take this one, and KEY_REUSED for a key used for a
+     * different stay.
+     */
+    public BookingStatus tryBookRoom(String idempotencyKey, int userId, int roomNumber,
+                                     LocalDate checkIn, LocalDate checkOut) {
+        int result = bookOnce(idempotencyKey, userId, roomNumber, checkIn, checkOut);
+        switch (result) {
+            case IdempotencyCache.IN_PROGRESS:
+                return BookingStatus.IN_PROGRESS;
+            case IdempotencyCache.BUSY:
+                return BookingStatus.BUSY;
+            case IdempotencyCache.KEY_REUSED:
+                return BookingStatus.KEY_REUSED;
+            default:
+                return result >= 0 ? BookingStatus.SUCCESS : statusOf(result);
+        }
+    }
 
-        bookingRepository.save(booking);
+    /**
+     * Duplicates answered, new keys and keys dropped for space before their hour was up.
+     */
+    public CacheStats getIdempotencyCacheStats() {
+        return idempotency.stats();
     }
 
     /**
-     * Prints all rooms and bookings (latest first).
+     * Returns the booking with the given id, unless it was cancelled.
+     * Ids are positions in this process's booking repository; a restart reassigns them
+     * in replay order, so they are not meant to be stored outside the process.
      */
-    public void printAll() {
-        List<Room> rooms = roomRepository.findAll();
-        List<Booking> bookings = bookingRepository.findAll();
+    public Optional<Booking> findBooking(int bookingId) {
+        return bookingRepository.findById(bookingId);
+    }
 
-        System.out.println("\n=== ALL ROOMS (Latest First) ===");
-        for (int i = rooms.size() - 1; i >= 0; i--) {
-            Room r = rooms.get(i);
-            System.out.printf("Room %d | Type: %s | Price: %d/night%n",
-                    r.getRoomNumber(), r.getRoomType(), r.getPricePerNight());
+    /**
+     * Cancels a booking, frees its dates and refunds what it cost. Returns the refund.
+     */
+    public int cancelBooking(int bookingId) {
+        long started = metrics.start();
+        try {
+            Booking booking = findActiveBooking(bookingId);
+
+            int refund;
+            long journalPosition;
+            locks.lock(booking.getRoomNumber(), booking.getUserId());
+            try {
+                // Re-read under the locks: a concurrent cancel may have won
+                Booking cancelled = bookingRepository.cancel(bookingId);
+                if (cancelled == null) {
+                    throw new BookingNotFoundException("Booking not found: " + bookingId);
+                }
+                refund = cancelled.getTotalPrice();
+                userRepository.getByUserId(cancelled.getUserId()).addBalance(refund);
+                analytics.remove(cancelled);
+                availability.release(cancelled.getRoomNumber(), cancelled.getCheckIn(), cancelled.getCheckOut());
+                inventory.release(cancelled.getRoomTypeAtBooking(), cancelled.getCheckIn(), cancelled.getCheckOut());
+                userSummaries.invalidate(cancelled.getUserId());
+                journalPosition = journal.appendCancel(cancelled);
+            } finally {
+                locks.unlock(booking.getRoomNumber(), booking.getUserId());
+            }
+            journal.awaitDurable(journalPosition);
+            metrics.succeeded(Operation.CANCEL_BOOKING, started);
+            return refund;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.CANCEL_BOOKING, e, started);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves a booking to new dates in the same room and returns the id it continues under;
+     * the old id then reads as cancelled. The stay keeps the room type and nightly price
+     * it was booked at, with today's rate rules applied to the new nights: the user is
+     * refunded the old total and charged the new one.
+     * On any refusal the original booking is left untouched.
+     */
+    public int modifyBooking(int bookingId, LocalDate checkIn, LocalDate checkOut) {
+        long started = metrics.start();
+        try {
+            validateDates(checkIn, checkOut);
+            Booking booking = findActiveBooking(bookingId);
+
+            int replacementId;
+            long journalPosition;
+            locks.lock(booking.getRoomNumber(), booking.getUserId());
+            try {
+                if (bookingRepository.findById(bookingId).isEmpty()) {
+                    throw new BookingNotFoundException("Booking not found: " + bookingId);
+                }
+                User user = userRepository.getByUserId(booking.getUserId());
+                int refund = booking.getTotalPrice();
+                long cost = calculateCost(booking.getRoomTypeAtBooking(), booking.getPricePerNightAtBooking(),
+                        checkIn, checkOut);
+                if (cost > Integer.MAX_VALUE) {
+                    // No balance can cover it, and it would not fit the booking's total
+                    throw new InsufficientBalanceException("Insufficient balance. Required: " + (cost - refund)
+                            + ", Available: " + user.getBalance());
+                }
+                int newCost = (int) cost;
+                int difference = newCost - refund;
+                RoomType roomType = booking.getRoomTypeAtBooking();
+                LocalDate oldCheckIn = booking.getCheckIn();
+                LocalDate oldCheckOut = booking.getCheckOut();
+                // Only the nights the new stay adds are held now, and the nights it drops are
+                // released once it commits, so a refusal never takes back a night another
+                // stay may have taken in between
+                if (!holdNightsOutside(roomType, checkIn, checkOut, oldCheckIn, oldCheckOut)) {
+                    throw new InvalidBookingException("No " + roomType + " rooms left for these dates");
+                }
+                int originalBalance;
+                try {
+                    originalBalance = charge(user, difference);
+                } catch (InsufficientBalanceException e) {
+                    releaseNightsOutside(roomType, checkIn, checkOut, oldCheckIn, oldCheckOut);
+                    throw e;
+                }
+
+                Booking replacement = new Booking(
+                        booking.getUserId(), booking.getRoomNumber(), checkIn, checkOut,
+                        booking.getRoomTypeAtBooking(),
+                        booking.getPricePerNightAtBooking(),
+                        originalBalance + refund,
+                        newCost
+                );
+                replacementId = bookingRepository.replace(bookingId, replacement);
+                if (replacementId < 0) {
+                    user.addBalance(difference);
+                    releaseNightsOutside(roomType, checkIn, checkOut, oldCheckIn, oldCheckOut);
+                    throw new InvalidBookingException("Room is already booked for these dates");
+                }
+                releaseNightsOutside(roomType, oldCheckIn, oldCheckOut, checkIn, checkOut);
+                analytics.remove(booking);
+                analytics.record(replacement);
+                availability.release(booking.getRoomNumber(), booking.getCheckIn(), booking.getCheckOut());
+                availability.book(replacement.getRoomNumber(), checkIn, checkOut);
+                userSummaries.invalidate(booking.getUserId());
+                journalPosition = journal.appendModify(booking, replacement);
+            } finally {
+                locks.unlock(booking.getRoomNumber(), booking.getUserId());
+            }
+            journal.awaitDurable(journalPosition);
+            metrics.succeeded(Operation.MODIFY_BOOKING, started);
+            return replacementId;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.MODIFY_BOOKING, e, started);
+            throw e;
+        }
+    }
+
+    // Runs book() for a new key; otherwise returns the key's recorded result, or IN_PROGRESS,
+    // BUSY or KEY_REUSED
+    private int bookOnce(String idempotencyKey, int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        long key = IdempotencyCache.hash(idempotencyKey);
+        int previous = idempotency.begin(key, fingerprint(userId, roomNumber, checkIn, checkOut));
+        if (previous != IdempotencyCache.NEW) {
+            return previous;
+        }
+
+        int result;
+        try {
+            result = book(userId, roomNumber, checkIn, checkOut, NO_RESERVATION);
+        } catch (RuntimeException e) {
+            // Not an outcome worth replaying, e.g. the journal failed; let a retry run again
+            idempotency.abandon(key);
+            throw e;
+        }
+        idempotency.complete(key, result);
+        return result;
+    }
+
+    // Returns the new booking's id, or a refusal encoded by refused().
+    // reservationId is the type reservation being checked in, which already holds the stay's
+    // inventory and is closed when the booking commits, or NO_RESERVATION.
+    private int book(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut, int reservationId) {
+        // A check-in books on behalf of its reservation and is recorded as CHECK_IN only
+        long started = reservationId == NO_RESERVATION ? metrics.start() : ServiceMetrics.NOT_TIMED;
+        long phase = metrics.startPhases(started);
+        if (!isValidStay(checkIn, checkOut)) {
+            return refused(BookingStatus.INVALID_DATES, started);
         }
 
-        System.out.println("\n=== ALL BOOKINGS (Latest First) ===");
-        for (int i = bookings.size() - 1; i >= 0; i--) {
-            Booking b = bookings.get(i);
-            long nights = ChronoUnit.DAYS.between(b.getCheckIn(), b.getCheckOut());
-            int cost = (int) nights * b.getPricePerNightAtBooking();
+        Room room = roomRepository.getByRoomNumber(roomNumber);
+        if (room == null) {
+            return refused(BookingStatus.ROOM_NOT_FOUND, started);
+        }
+        User user = userRepository.getByUserId(userId);
+        if (user == null) {
+            return refused(BookingStatus.USER_NOT_FOUND, started);
+        }
+        phase = metrics.endPhase(Phase.LOOKUP, phase);
+
+        // Check-then-act runs under the room and user stripes
+        int bookingId;
+        long journalPosition;
+        locks.lock(roomNumber, userId);
+        try {
+            phase = metrics.endPhase(Phase.LOCK, phase);
+            // Inside the horizon the bitmap checks and claims the nights in one step
+            boolean claimed = availability.covers(checkIn, checkOut);
+            if (claimed ? !availability.tryBook(roomNumber, checkIn, checkOut)
+                    : bookingRepository.hasOverlap(roomNumber, checkIn, checkOut)) {
+                return refused(BookingStatus.ROOM_UNAVAILABLE, started);
+            }
+
+            // One read of the room's state, so the price charged and the type and price
+            // recorded always come from the same update
+            RoomState state = room.getState();
+            // The stay also takes one of its type's rooms from the inventory, unless a
+            // reservation being checked in already holds one of the same type. The reservation
+            // is read under the user stripe, which its cancellation and the horizon move take too
+            boolean holding = reservationId == NO_RESERVATION;
+            if (holding ? !inventory.tryHold(state.getRoomType(), checkIn, checkOut)
+                    : !isReservedFor(reservationId, state.getRoomType())) {
+                if (claimed) {
+                    availability.release(roomNumber, checkIn, checkOut);
+                }
+                return refused(BookingStatus.ROOM_UNAVAILABLE, started);
+            }
+            phase = metrics.endPhase(Phase.OVERLAP_CHECK, phase);
+
+            // Check and deduct in one compare-and-set: the user may be shared with other services
+            // A cost beyond any int balance is refused before it can be narrowed
+            long cost = calculateCost(state.getRoomType(), state.getPricePerNight(), checkIn, checkOut);
+            int totalCost = (int) cost;
+            long balanceBefore = cost > Integer.MAX_VALUE ? User.NOT_DEDUCTED : user.deductIfCovered(totalCost);
+            if (balanceBefore == User.NOT_DEDUCTED) {
+                if (claimed) {
+                    availability.release(roomNumber, checkIn, checkOut);
+                }
+                if (holding) {
+                    inventory.release(state.getRoomType(), checkIn, checkOut);
+                }
+                return refused(BookingStatus.INSUFFICIENT_BALANCE, started);
+            }
+            phase = metrics.endPhase(Phase.BALANCE_CHECK, phase);
+
+            // Save the booking
+            int originalBalance = (int) balanceBefore;
+
+            Booking booking = new Booking(
+                    userId, roomNumber, checkIn, checkOut,
+                    state.getRoomType(),
+                    state.getPricePerNight(),
+                    originalBalance,
+                    totalCost
+            );
+
+            // Journal before applying, so a failed append leaves nothing in memory the journal
+            // lacks: only the claims above are handed back
+            try {
+                journalPosition = holding
+                        ? journal.appendBooking(booking)
+                        : journal.appendCheckIn(reservationId, booking);
+            } catch (RuntimeException e) {
+                user.addBalance(totalCost);
+                if (claimed) {
+                    availability.release(roomNumber, checkIn, checkOut);
+                }
+                if (holding) {
+                    inventory.release(state.getRoomType(), checkIn, checkOut);
+                }
+                metrics.failed(Operation.BOOK_ROOM, e, started);
+                throw e;
+            }
+
+            bookingId = bookingRepository.save(booking);
+            analytics.record(booking);
+            if (!claimed) {
+                availability.book(roomNumber, checkIn, checkOut);
+            }
+            userSummaries.invalidate(userId);
+            if (!holding) {
+                // The reservation's hold now belongs to the booking
+                reservations.remove(reservationId);
+            }
+            phase = metrics.endPhase(Phase.COMMIT, phase);
+        } finally {
+            locks.unlock(roomNumber, userId);
+        }
+        // Wait for the fsync outside the locks so other bookings can join the batch
+        journal.awaitDurable(journalPosition);
+        metrics.endPhase(Phase.DURABILITY, phase);
+        metrics.succeeded(Operation.BOOK_ROOM, started);
+        return bookingId;
+    }
+
+    /**
+     * Books several rooms for the same stay as one all-or-nothing group.
+     * Every room is validated before anything is charged, the summed cost is
+     * deducted once and all bookings are saved together. Each booking records
+     * the user's balance from before the group charge.
+     */
+    public void bookRooms(int userId, List<Integer> roomNumbers, LocalDate checkIn, LocalDate checkOut) {
+        long started = metrics.start();
+        try {
+            validateDates(checkIn, checkOut);
+            int[] numbers = toDistinctRoomNumbers(roomNumbers);
 
-            System.out.printf("Booking | User: %d | Room: %d | %s to %s (%d nights)%n",
-                    b.getUserId(), b.getRoomNumber(), b.getCheckIn(), b.getCheckOut(), nights);
-            System.out.printf("  → Booked as: %s @ %d/night | Total: %d | User balance was: %d%n",
-                    b.getRoomTypeAtBooking(), b.getPricePerNightAtBooking(), cost, b.getUserBalanceAtBooking());
+            Room[] rooms = roomRepository.findByRoomNumbers(numbers);
+            for (int i = 0; i < numbers.length; i++) {
+                if (rooms[i] == null) {
+                    throw new RoomNotFoundException("Room not found: " + numbers[i]);
+                }
+            }
+
+            User user = userRepository.findByUserId(userId)
+                    .orElseThrow(() -> new UserNotFoundException("User not found: " + userId));
+
+            long journalPosition = 0;
+            int[] roomStripes = locks.roomStripes(numbers);
+            locks.lockAll(roomStripes, userId);
+            try {
+                if (isAnyBooked(numbers, checkIn, checkOut)) {
+                    throw new InvalidBookingException("Room is already booked for these dates");
+                }
+
+                RoomState[] states = new RoomState[rooms.length];
+                long[] costs = new long[rooms.length];
+                long totalCost = 0;
+                for (int i = 0; i < rooms.length; i++) {
+                    states[i] = rooms[i].getState();
+                    costs[i] = calculateCost(states[i].getRoomType(), states[i].getPricePerNight(), checkIn, checkOut);
+                    totalCost += costs[i];
+                }
+                // Balances are ints, so once this passes every cost fits in one
+                validateBalance(user, totalCost);
+                holdInventory(states, checkIn, checkOut);
+
+                // Charge once, then save the whole group
+                int originalBalance;
+                try {
+                    originalBalance = charge(user, (int) totalCost);
+                } catch (InsufficientBalanceException e) {
+                    releaseInventory(states, states.length, checkIn, checkOut);
+                    throw e;
+                }
+
+                List<Booking> group = new ArrayList<>(numbers.length);
+                for (int i = 0; i < rooms.length; i++) {
+                    group.add(new Booking(
+                            userId, numbers[i], checkIn, checkOut,
+                            states[i].getRoomType(),
+                            states[i].getPricePerNight(),
+                            originalBalance,
+                            (int) costs[i]
+                    ));
+                }
+                bookingRepository.saveAll(group);
+                userSummaries.invalidate(userId);
+                for (Booking booking : group) {
+                    analytics.record(booking);
+                    availability.book(booking.getRoomNumber(), checkIn, checkOut);
+                    journalPosition = journal.appendBooking(booking);
+                }
+            } finally {
+                locks.unlockAll(roomStripes, userId);
+            }
+            journal.awaitDurable(journalPosition);
+            metrics.succeeded(Operation.BOOK_ROOMS, started);
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.BOOK_ROOMS, e, started);
+            throw e;
+        }
+    }
+
+    /**
+     * Reserves one room of the given type for [checkIn, checkOut), to be assigned at check-in,
+     * and returns the reservation's id. Only the type's per-night counters are touched,
+     * each with a compare-and-set, so this is O(nights) whatever the number of rooms.
+     * Up to the type's overbooking allowance more stays than rooms may be reserved.
+     * Nothing is charged until check-in. Reservations are journaled and snapshotted like
+     * bookings, so they survive a restart under the same id.
+     */
+    public int reserveRoomType(int userId, RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        long started = metrics.start();
+        try {
+            validateDates(checkIn, checkOut);
+            if (!inventory.covers(checkIn, checkOut)) {
+                throw new InvalidBookingException("Room type reservations must fall within the next "
+                        + AvailabilityIndex.HORIZON_DAYS + " nights");
+            }
+            userRepository.findByUserId(userId)
+                    .orElseThrow(() -> new UserNotFoundException("User not found: " + userId));
+
+            int reservationId;
+            long journalPosition;
+            // The user stripe keeps the horizon from moving and orders the reservation with
+            // checkpoints; the counters take no lock
+            ReentrantLock userLock = locks.forUser(userId);
+            userLock.lock();
+            try {
+                if (!inventory.tryHold(roomType, checkIn, checkOut)) {
+                    throw new InvalidBookingException("No " + roomType + " rooms left for these dates");
+                }
+                TypeReservation reservation = new TypeReservation(userId, roomType, checkIn, checkOut);
+                reservationId = reservations.save(reservation);
+                journalPosition = journal.appendReservation(reservationId, reservation);
+            } finally {
+                userLock.unlock();
+            }
+            journal.awaitDurable(journalPosition);
+            metrics.succeeded(Operation.RESERVE_ROOM_TYPE, started);
+            return reservationId;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.RESERVE_ROOM_TYPE, e, started);
+            throw e;
+        }
+    }
+
+    /**
+     * Assigns the first free room of the reserved type, charges it like bookRoom and returns
+     * the new booking's id; the reservation is closed in the same step. If no room of the type
+     * is free, because the type was overbooked, or the balance does not cover the stay, the
+     * reservation stays open, holding its nights throughout, and an exception says why.
+     */
+    public int checkIn(int reservationId) {
+        long started = metrics.start();
+        try {
+            TypeReservation reservation = findOpenReservation(reservationId);
+
+            BookingStatus refusal = BookingStatus.ROOM_UNAVAILABLE;
+            int roomNumber = -1;
+            for (Room room : searchAvailable(reservation.getRoomType(), Integer.MAX_VALUE,
+                    reservation.getCheckIn(), reservation.getCheckOut())) {
+                roomNumber = room.getRoomNumber();
+                int result = book(reservation.getUserId(), roomNumber, reservation.getCheckIn(),
+                        reservation.getCheckOut(), reservationId);
+                if (result >= 0) {
+                    metrics.succeeded(Operation.CHECK_IN, started);
+                    return result;
+                }
+                refusal = statusOf(result);
+                if (refusal != BookingStatus.ROOM_UNAVAILABLE) {
+                    break;
+                }
+                // Another booking may have taken the room since the search, or a concurrent
+                // check-in or cancellation the reservation; try the next room while it is open
+                findOpenReservation(reservationId);
+            }
+
+            if (refusal == BookingStatus.ROOM_UNAVAILABLE) {
+                throw new InvalidBookingException("No " + reservation.getRoomType()
+                        + " room is free to assign for these dates");
+            }
+            throw toException(refusal, reservation.getUserId(), roomNumber,
+                    reservation.getCheckIn(), reservation.getCheckOut());
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.CHECK_IN, e, started);
+            throw e;
+        }
+    }
+
+    /**
+     * Cancels an open room type reservation and gives its nights back to the type.
+     */
+    public void cancelReservation(int reservationId) {
+        long started = metrics.start();
+        try {
+            TypeReservation reservation = findOpenReservation(reservationId);
+            long journalPosition;
+            ReentrantLock userLock = locks.forUser(reservation.getUserId());
+            userLock.lock();
+            try {
+                if (reservations.remove(reservationId) == null) {
+                    throw new BookingNotFoundException("Reservation not found: " + reservationId);
+                }
+                inventory.release(reservation.getRoomType(), reservation.getCheckIn(), reservation.getCheckOut());
+                journalPosition = journal.appendCancelReservation(reservationId);
+            } finally {
+                userLock.unlock();
+            }
+            journal.awaitDurable(journalPosition);
+            metrics.succeeded(Operation.CANCEL_RESERVATION, started);
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.CANCEL_RESERVATION, e, started);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the reservation with the given id while it is open.
+     */
+    public Optional<TypeReservation> findReservation(int reservationId) {
+        return reservations.findById(reservationId);
+    }
+
+    /**
+     * Lets up to allowance more stays of the type be held each night than there are rooms,
+     * for guests expected not to show. Check-in fails for whoever finds no room left.
+     * The allowance is journaled; mutations pause while it changes.
+     */
+    public void setOverbookingAllowance(RoomType roomType, int allowance) {
+        long journalPosition;
+        locks.lockEverything();
+        try {
+            inventory.setOverbookingAllowance(roomType, allowance);
+            reservations.setOverbookingAllowance(roomType, allowance);
+            journalPosition = journal.appendOverbookingAllowance(roomType, allowance);
+        } finally {
+            locks.unlockEverything();
         }
+        journal.awaitDurable(journalPosition);
+    }
+
+    /**
+     * How many more stays of [checkIn, checkOut) the type can take, counting room bookings,
+     * open reservations and the overbooking allowance. Read from the counters in O(nights).
+     */
+    public int countAvailableStays(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        validateDates(checkIn, checkOut);
+        if (!inventory.covers(checkIn, checkOut)) {
+            throw new InvalidBookingException("Stay must fall within the next "
+                    + AvailabilityIndex.HORIZON_DAYS + " nights");
+        }
+        return inventory.countAvailable(roomType, checkIn, checkOut);
+    }
+
+    /**
+     * Finds all rooms of the given type that are free for [checkIn, checkOut).
+     */
+    public List<Room> findAvailableRooms(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        return findAvailableRooms(roomType, Integer.MAX_VALUE, checkIn, checkOut);
+    }
+
+    /**
+     * Finds all rooms of the given type, priced at or below maxPricePerNight,
+     * that are free for [checkIn, checkOut).
+     * The search takes no room locks, so a listed room may be booked before the caller books it;
+     * bookRoom checks the room again under its lock and refuses it then.
+     */
+    public List<Room> findAvailableRooms(RoomType roomType, int maxPricePerNight,
+                                         LocalDate checkIn, LocalDate checkOut) {
+        long started = metrics.start();
+        try {
+            validateDates(checkIn, checkOut);
+            List<Room> available = searchAvailable(roomType, maxPricePerNight, checkIn, checkOut);
+            metrics.succeeded(Operation.FIND_AVAILABLE_ROOMS, started);
+            return available;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.FIND_AVAILABLE_ROOMS, e, started);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves the availability bitmap's and the type inventory's horizon to the 730 nights
+     * starting on start, e.g. once a day. Stays inside the horizon are checked and searched
+     * on the bitmap, others on the booking calendars. Mutations pause while both are rebuilt.
+     */
+    public void setAvailabilityHorizon(LocalDate start) {
+        locks.lockEverything();
+        try {
+            availability.rebuild(start, roomRepository, bookingRepository);
+            inventory.rebuild(start, roomRepository, bookingRepository, reservations);
+        } finally {
+            locks.unlockEverything();
+        }
+    }
+
+    /**
+     * Replaces the rate rules and compiles them for the 730 nights starting on start.
+     * Bookings made afterwards are charged each night's base price times the multipliers
+     * of the rules matching it; existing bookings keep the total they were charged.
+     * Compiling happens here, not while booking: bookings keep pricing from the previous
+     * table until the new one is swapped in.
+     */
+    public void setRateRules(LocalDate start, List<RateRule> rules) {
+        pricing.setRules(start, rules);
+    }
+
+    /**
+     * Recompiles the rate rules over the 730 nights starting on start, e.g. once a day,
+     * so the horizon moves along and occupancy rules see current occupancy.
+     */
+    public void refreshRates(LocalDate start) {
+        pricing.refresh(start);
+    }
+
+    /**
+     * The rate table bookings are currently priced from.
+     */
+    public RateTable getRateTable() {
+        return pricing.getRateTable();
+    }
+
+    /**
+     * Returns the user's active bookings in the order they were made,
+     * read from a per-user index rather than a scan of every booking.
+     */
+    public List<Booking> findBookingsByUser(int userId) {
+        return bookingRepository.findByUserId(userId);
+    }
+
+    /**
+     * Booking count, nights and spend of the user's active bookings, overall and per year.
+     * Summaries are cached and dropped whenever one of the user's bookings changes,
+     * so a repeated lookup costs one cache probe.
+     */
+    public UserBookingSummary getUserSummary(int userId) {
+        UserBookingSummary summary = userSummaries.get(userId);
+        if (summary != null) {
+            return summary;
+        }
+        if (userRepository.getByUserId(userId) == null) {
+            throw new UserNotFoundException("User not found: " + userId);
+        }
+
+        // Computed under the user stripe, so no booking can commit, and invalidate,
+        // between reading the bookings and caching the result
+        ReentrantLock userLock = locks.forUser(userId);
+        userLock.lock();
+        try {
+            summary = UserBookingSummary.of(userId, bookingRepository.findByUserId(userId));
+            userSummaries.put(summary);
+        } finally {
+            userLock.unlock();
+        }
+        return summary;
+    }
+
+    /**
+     * Hit ratio, evictions and size of the user summary cache.
+     */
+    public CacheStats getUserSummaryCacheStats() {
+        return userSummaries.stats();
+    }
+
+    /**
+     * Returns up to limit rooms, latest first, starting at cursor:
+     * Page.FIRST for the first page, then each page's next cursor.
+     */
+    public Page<Room> findRooms(int cursor, int limit) {
+        return roomRepository.findPage(cursor, limit);
+    }
+
+    /**
+     * Returns up to limit users, latest first, starting at cursor.
+     */
+    public Page<User> findUsers(int cursor, int limit) {
+        return userRepository.findPage(cursor, limit);
+    }
+
+    /**
+     * Returns up to limit active bookings, latest first, starting at cursor.
+     * Only the page is allocated, however many bookings are stored.
+     */
+    public Page<Booking> findBookings(int cursor, int limit) {
+        return bookingRepository.findPage(cursor, limit);
+    }
+
+    /**
+     * Freezes the active bookings without copying them. Iterating the snapshot,
+     * latest first, is unaffected by bookings made or cancelled in the meantime.
+     */
+    public BookingSnapshot snapshotBookings() {
+        return bookingRepository.snapshot();
+    }
+
+    /**
+     * Occupancy, ADR and RevPAR for roomType over [from, to), answered from the
+     * incrementally maintained counters. Available rooms are the rooms of that type today.
+     */
+    public OccupancyReport getOccupancy(RoomType roomType, LocalDate from, LocalDate to) {
+        validateDates(from, to);
+        return analytics.report(roomType, from, to, roomRepository.countByRoomType(roomType));
+    }
+
+    /**
+     * Same report as getOccupancy, recomputed from every stored booking in parallel.
+     * Slow; meant for verifying the incremental counters.
+     */
+    public OccupancyReport recomputeOccupancy(RoomType roomType, LocalDate from, LocalDate to) {
+        validateDates(from, to);
+        OccupancyAnalytics fresh = OccupancyAnalytics.recompute(bookingRepository.findAll());
+        return fresh.report(roomType, from, to, roomRepository.countByRoomType(roomType));
+    }
+
+    /**
+     * Live operation counters and latency histograms; snapshot them at any time.
+     */
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Prints all rooms and bookings (latest first).
+     */
+    public void printAll() {
+        reports.exportAll(systemOut(), ReportFormat.TEXT);
     }
 
     /**
      * Prints all users (latest first).
      */
     public void printAllUsers() {
-        List<User> users = userRepository.findAll();
+        reports.exportUsers(systemOut(), ReportFormat.TEXT);
+    }
+
+    /**
+     * Streams all rooms, latest first, to out; out is flushed but not closed.
+     */
+    public void exportRooms(Writer out, ReportFormat format) {
+        reports.exportRooms(out, format);
+    }
+
+    /**
+     * Streams all bookings, latest first, to out; out is flushed but not closed.
+     */
+    public void exportBookings(Writer out, ReportFormat format) {
+        reports.exportBookings(out, format);
+    }
+
+    /**
+     * Streams all users, latest first, to out; out is flushed but not closed.
+     */
+    public void exportUsers(Writer out, ReportFormat format) {
+        reports.exportUsers(out, format);
+    }
 
-        System.out.println("\n=== ALL USERS (Latest First) ===");
-        for (int i = users.size() - 1; i >= 0; i--) {
-            User u = users.get(i);
-            System.out.printf("User %d | Balance: %d%n", u.getUserId(), u.getBalance());
+    /**
+     * Stops scheduled checkpoints, then flushes and closes the journal, if any.
+     */
+    @Override
+    public synchronized void close() {
+        if (checkpointScheduler != null) {
+            checkpointScheduler.shutdown();
+            try {
+                checkpointScheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
+        journal.close();
     }
 
     // ===== Private Validation Methods =====
 
     private void validateDates(LocalDate checkIn, LocalDate checkOut) {
-        if (checkOut.isBefore(checkIn) || checkOut.isEqual(checkIn)) {
-            throw new RuntimeException("Check-out date must be after check-in date");
+        if (!isValidStay(checkIn, checkOut)) {
+            throw new InvalidBookingException("Check-out date must be after check-in date");
+        }
+    }
+
+    // Inside the horizon the availability bitmap answers; beyond it the rooms' calendars do
+    private List<Room> searchAvailable(RoomType roomType, int maxPricePerNight,
+                                       LocalDate checkIn, LocalDate checkOut) {
+        // Null when the stay lies outside the bitmap's horizon
+        List<Room> available = availability.findAvailable(roomType, maxPricePerNight, checkIn, checkOut);
+        if (available == null) {
+            List<Room> candidates = roomRepository.findByRoomType(roomType, maxPricePerNight);
+            available = bookingRepository.filterAvailable(candidates, checkIn, checkOut);
+        }
+        return available;
+    }
+
+    private static boolean isValidStay(LocalDate checkIn, LocalDate checkOut) {
+        return checkOut.isAfter(checkIn);
+    }
+
+    // Inside the horizon the availability bitmap answers; beyond it the rooms' calendars do
+    private boolean isAnyBooked(int[] roomNumbers, LocalDate checkIn, LocalDate checkOut) {
+        if (availability.covers(checkIn, checkOut)) {
+            for (int roomNumber : roomNumbers) {
+                if (!availability.isFree(roomNumber, checkIn, checkOut)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return bookingRepository.findFirstOverlap(roomNumbers, checkIn, checkOut) >= 0;
+    }
+
+    // One lookup in the current rate table, however many rules apply
+    // Long, since rate multipliers can take a long stay past Integer.MAX_VALUE; callers refuse
+    // any cost above the balance before narrowing it
+    private long calculateCost(RoomType roomType, int pricePerNight, LocalDate checkIn, LocalDate checkOut) {
+        return pricing.cost(roomType, pricePerNight, checkIn, checkOut);
+    }
+
+    private Booking findActiveBooking(int bookingId) {
+        return bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found: " + bookingId));
+    }
+
+    private TypeReservation findOpenReservation(int reservationId) {
+        return reservations.findById(reservationId)
+                .orElseThrow(() -> new BookingNotFoundException("Reservation not found: " + reservationId));
+    }
+
+    // True if the reservation is still open and holds inventory for roomType.
+    // Caller holds the reservation's user stripe.
+    private boolean isReservedFor(int reservationId, RoomType roomType) {
+        TypeReservation reservation = reservations.findById(reservationId).orElse(null);
+        return reservation != null && reservation.getRoomType() == roomType;
+    }
+
+    private int[] toDistinctRoomNumbers(List<Integer> roomNumbers) {
+        if (roomNumbers.isEmpty()) {
+            throw new InvalidBookingException("Group booking needs at least one room");
         }
+
+        int[] numbers = new int[roomNumbers.size()];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = roomNumbers.get(i);
+        }
+
+        int[] sorted = numbers.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                throw new InvalidBookingException("Room listed twice in group booking: " + sorted[i]);
+            }
+        }
+        return numbers;
+    }
+
+    // Holds every room's type for the stay, or throws with nothing held
+    private void holdInventory(RoomState[] states, LocalDate checkIn, LocalDate checkOut) {
+        for (int i = 0; i < states.length; i++) {
+            RoomType roomType = states[i].getRoomType();
+            if (!inventory.tryHold(roomType, checkIn, checkOut)) {
+                releaseInventory(states, i, checkIn, checkOut);
+                throw new InvalidBookingException("No " + roomType + " rooms left for these dates");
+            }
+        }
+    }
+
+    // Brings the bitmap and the type inventory up to date with a stored room's state and
+    // journals it; previousType is null for a new room. Caller holds the room's lock.
+    private long roomUpdated(Room room, RoomType previousType) {
+        RoomState state = room.getState();
+        availability.putRoom(room);
+        if (previousType != null && previousType != state.getRoomType()) {
+            inventory.setRoomCount(previousType, roomRepository.countByRoomType(previousType));
+        }
+        inventory.setRoomCount(state.getRoomType(), roomRepository.countByRoomType(state.getRoomType()));
+        return journal.appendRoom(room.getRoomNumber(), state.getRoomType(), state.getPricePerNight());
     }
 
-    private void validateNoOverlap(int roomNumber, LocalDate checkIn, LocalDate checkOut) {
-        List<Booking> existingBookings = bookingRepository.findByRoomNumber(roomNumber);
+    // Drops the user's cached summary and journals the new balance. Caller holds the user's lock.
+    private long userUpdated(int userId, int balance) {
+        userSummaries.invalidate(userId);
+        return journal.appendUser(userId, balance);
+    }
 
-        for (Booking b : existingBookings) {
-            boolean overlaps = !(checkOut.isBefore(b.getCheckIn()) ||
-                    checkOut.isEqual(b.getCheckIn()) ||
-                    checkIn.isAfter(b.getCheckOut()) ||
-                    checkIn.isEqual(b.getCheckOut()));
-            if (overlaps) {
-                throw new RuntimeException("Room is already booked for these dates");
+    // Holds the nights of [checkIn, checkOut) outside [keptIn, keptOut), at most one run before
+    // and one after it, or holds nothing and returns false
+    private boolean holdNightsOutside(RoomType roomType, LocalDate checkIn, LocalDate checkOut,
+                                      LocalDate keptIn, LocalDate keptOut) {
+        LocalDate beforeEnd = min(checkOut, keptIn);
+        LocalDate afterStart = max(checkIn, keptOut);
+        boolean before = checkIn.isBefore(beforeEnd);
+        if (before && !inventory.tryHold(roomType, checkIn, beforeEnd)) {
+            return false;
+        }
+        if (afterStart.isBefore(checkOut) && !inventory.tryHold(roomType, afterStart, checkOut)) {
+            if (before) {
+                inventory.release(roomType, checkIn, beforeEnd);
             }
+            return false;
+        }
+        return true;
+    }
+
+    // Gives back the nights holdNightsOutside holds for the same arguments
+    private void releaseNightsOutside(RoomType roomType, LocalDate checkIn, LocalDate checkOut,
+                                      LocalDate keptIn, LocalDate keptOut) {
+        LocalDate beforeEnd = min(checkOut, keptIn);
+        LocalDate afterStart = max(checkIn, keptOut);
+        if (checkIn.isBefore(beforeEnd)) {
+            inventory.release(roomType, checkIn, beforeEnd);
+        }
+        if (afterStart.isBefore(checkOut)) {
+            inventory.release(roomType, afterStart, checkOut);
         }
     }
 
-    private int calculateCost(Room room, LocalDate checkIn, LocalDate checkOut) {
-        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
-        return (int) nights * room.getPricePerNight();
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
     }
 
-    private void validateBalance(User user, int totalCost) {
+    private void releaseInventory(RoomState[] states, int count, LocalDate checkIn, LocalDate checkOut) {
+        for (int i = 0; i < count; i++) {
+            inventory.release(states[i].getRoomType(), checkIn, checkOut);
+        }
+    }
+
+    // Deducts amount atomically and returns the balance from before, or throws if it does not cover it
+    private int charge(User user, int amount) {
+        long balanceBefore = user.deductIfCovered(amount);
+        if (balanceBefore == User.NOT_DEDUCTED) {
+            throw new InsufficientBalanceException("Insufficient balance. Required: " + amount +
+                    ", Available: " + user.getBalance());
+        }
+        return (int) balanceBefore;
+    }
+
+    private void validateBalance(User user, long totalCost) {
         if (user.getBalance() < totalCost) {
-            throw new RuntimeException("Insufficient balance. Required: " + totalCost +
+            throw new InsufficientBalanceException("Insufficient balance. Required: " + totalCost +
                     ", Available: " + user.getBalance());
         }
     }
-    // For testing purposes - expose repository data
+
+    // Tells a retry from a different request reusing the key
+    private static long fingerprint(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        long h = userId * 0x9E3779B97F4A7C15L + roomNumber;
+        h = h * 0x9E3779B97F4A7C15L + checkIn.toEpochDay();
+        return h * 0x9E3779B97F4A7C15L + checkOut.toEpochDay();
+    }
+
+    // Refusals are negative so they never collide with a booking id
+    private int refused(BookingStatus status, long started) {
+        metrics.failed(Operation.BOOK_ROOM, FailureCause.of(status), started);
+        return -1 - status.ordinal();
+    }
+
+    private static BookingStatus statusOf(int refusal) {
+        return STATUSES[-1 - refusal];
+    }
+
+    // Builds the exception bookRoom throws for a refusal; amounts are read again for the message
+    private RuntimeException toException(BookingStatus status, int userId, int roomNumber,
+                                         LocalDate checkIn, LocalDate checkOut) {
+        switch (status) {
+            case INVALID_DATES:
+                return new InvalidBookingException("Check-out date must be after check-in date");
+            case ROOM_NOT_FOUND:
+                return new RoomNotFoundException("Room not found: " + roomNumber);
+            case USER_NOT_FOUND:
+                return new UserNotFoundException("User not found: " + userId);
+            case ROOM_UNAVAILABLE:
+                return new InvalidBookingException("Room is already booked for these dates");
+            case INSUFFICIENT_BALANCE:
+                Room room = roomRepository.getByRoomNumber(roomNumber);
+                User user = userRepository.getByUserId(userId);
+                return new InsufficientBalanceException("Insufficient balance. Required: "
+                        + calculateCost(room.getRoomType(), room.getPricePerNight(), checkIn, checkOut)
+                        + ", Available: " + user.getBalance());
+            default:
+                throw new IllegalArgumentException("Not a refusal: " + status);
+        }
+    }
+
+    // System.out encodes with the default charset; the writer is flushed, never closed
+    private static Writer systemOut() {
+        return new OutputStreamWriter(System.out, Charset.defaultCharset());
+    }
+
+    // For testing purposes - expose repository data; each call copies the whole repository,
+    // so large traversals should use the pages or snapshotBookings instead
     public List<Room> getRooms() {
         return roomRepository.findAll();
     }
@@ -171,4 +1401,4 @@ public class Service {
     public List<Booking> getBookings() {
         return bookingRepository.findAll();
     }
-}
\ No newline at end of file
+}
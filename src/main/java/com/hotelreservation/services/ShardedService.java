@@ -0,0 +1,142 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.enums.BookingStatus;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.persistence.Journal;
+import com.hotelreservation.repositories.ListBookingRepository;
+import com.hotelreservation.repositories.RoomRepository;
+import com.hotelreservation.repositories.UserRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many properties in one process, split over independent shards.
+ * Each shard is a Service with its own room and booking repositories, locks, analytics and
+ * availability index, driven by its own single-thread executor; rooms are assigned to shards
+ * by property, a block of roomsPerProperty consecutive room numbers.
+ * Users are shared: every shard sees the same UserRepository. A booking reserves its cost
+ * from the shared balance with a compare-and-set before it commits, so concurrent bookings
+ * of one user on different shards can never overdraw it, without any lock spanning shards.
+ * Booking ids are per shard; cancel or modify through shardFor(roomNumber).
+ */
+public class ShardedService implements AutoCloseable {
+    public static final int DEFAULT_ROOMS_PER_PROPERTY = 1000;
+
+    private final Service[] shards;
+    private final ExecutorService[] executors;
+    private final int roomsPerProperty;
+
+    public ShardedService(int shardCount) {
+        this(shardCount, DEFAULT_ROOMS_PER_PROPERTY);
+    }
+
+    public ShardedService(int shardCount, int roomsPerProperty) {
+        if (shardCount < 1 || roomsPerProperty < 1) {
+            throw new IllegalArgumentException("Need at least one shard and one room per property");
+        }
+        this.roomsPerProperty = roomsPerProperty;
+        this.shards = new Service[shardCount];
+        this.executors = new ExecutorService[shardCount];
+
+        UserRepository users = new UserRepository();
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Service(new RoomRepository(), users, new ListBookingRepository(), Journal.NONE);
+            String name = "shard-" + i;
+            executors[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * The shard holding the room, for operations this class does not route.
+     */
+    public Service shardFor(int roomNumber) {
+        return shards[shardIndex(roomNumber)];
+    }
+
+    /**
+     * Creates or updates a room on its shard.
+     */
+    public CompletableFuture<Void> setRoom(int roomNumber, RoomType roomType, int pricePerNight) {
+        int shard = shardIndex(roomNumber);
+        return CompletableFuture.runAsync(
+                () -> shards[shard].setRoom(roomNumber, roomType, pricePerNight), executors[shard]);
+    }
+
+    /**
+     * Creates or updates a user. Users are shared by all shards; a given user is always
+     * written through the same shard, so its creation is never raced.
+     */
+    public CompletableFuture<Void> setUser(int userId, int balance) {
+        int shard = Math.floorMod(userId, shards.length);
+        return CompletableFuture.runAsync(() -> shards[shard].setUser(userId, balance), executors[shard]);
+    }
+
+    /**
+     * Books the room on its shard's executor. Refusals complete the future with a status.
+     */
+    public CompletableFuture<BookingStatus> bookRoom(int userId, int roomNumber,
+                                                     LocalDate checkIn, LocalDate checkOut) {
+        int shard = shardIndex(roomNumber);
+        return CompletableFuture.supplyAsync(
+                () -> shards[shard].tryBookRoom(userId, roomNumber, checkIn, checkOut), executors[shard]);
+    }
+
+    /**
+     * Searches every shard in parallel and concatenates the results in shard order.
+     */
+    public List<Room> findAvailableRooms(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        List<CompletableFuture<List<Room>>> searches = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            Service shard = shards[i];
+            searches.add(CompletableFuture.supplyAsync(
+                    () -> shard.findAvailableRooms(roomType, checkIn, checkOut), executors[i]));
+        }
+
+        List<Room> available = new ArrayList<>();
+        for (CompletableFuture<List<Room>> search : searches) {
+            available.addAll(search.join());
+        }
+        return available;
+    }
+
+    /**
+     * Lets queued work finish, then stops the shard executors.
+     */
+    @Override
+    public void close() {
+        for (ExecutorService executor : executors) {
+            executor.shutdown();
+        }
+        try {
+            for (ExecutorService executor : executors) {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Service shard : shards) {
+            shard.close();
+        }
+    }
+
+    // ===== Private Helpers =====
+
+    private int shardIndex(int roomNumber) {
+        return Math.floorMod(Math.floorDiv(roomNumber, roomsPerProperty), shards.length);
+    }
+}
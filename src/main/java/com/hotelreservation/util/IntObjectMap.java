@@ -0,0 +1,152 @@
+package com.hotelreservation.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Open-addressing hash map keyed by primitive ints.
+ * Lookups never box the key and never allocate; values keep insertion order.
+ * Not thread-safe: callers guard access.
+ */
+public class IntObjectMap<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] slots;        // index into values + 1, 0 = empty slot
+    private int mask;
+    private Object[] values;    // insertion order
+    private int size;
+
+    public IntObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntObjectMap(int expectedSize) {
+        int capacity = tableSizeFor(Math.max(expectedSize, DEFAULT_CAPACITY) * 2);
+        this.keys = new int[capacity];
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        this.values = new Object[Math.max(expectedSize, DEFAULT_CAPACITY)];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int i = hash(key) & mask;
+        int slot;
+        while ((slot = slots[i]) != 0) {
+            if (keys[i] == key) {
+                return (V) values[slot - 1];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the key's insertion position, or -1 if it is absent.
+     */
+    public int indexOf(int key) {
+        int i = hash(key) & mask;
+        int slot;
+        while ((slot = slots[i]) != 0) {
+            if (keys[i] == key) {
+                return slot - 1;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associates the value with the key. New keys are appended to the insertion order,
+     * existing keys keep their position.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int i = hash(key) & mask;
+        int slot;
+        while ((slot = slots[i]) != 0) {
+            if (keys[i] == key) {
+                V previous = (V) values[slot - 1];
+                values[slot - 1] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        keys[i] = key;
+        slots[i] = ++size;
+
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value at the given insertion position.
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (V) values[index];
+    }
+
+    /**
+     * Returns a copy of all values in insertion order.
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> copy = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            copy.add((V) values[i]);
+        }
+        return copy;
+    }
+
+    // ===== Private Helpers =====
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        int[] oldSlots = slots;
+
+        keys = new int[newCapacity];
+        slots = new int[newCapacity];
+        mask = newCapacity - 1;
+
+        for (int j = 0; j < oldSlots.length; j++) {
+            if (oldSlots[j] != 0) {
+                int i = hash(oldKeys[j]) & mask;
+                while (slots[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                slots[i] = oldSlots[j];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int n) {
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+}
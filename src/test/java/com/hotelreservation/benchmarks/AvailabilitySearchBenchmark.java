@@ -0,0 +1,81 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Service.findAvailableRooms latency for large inventories, answered from the
+ * availability bitmap or, with the horizon moved past the searched dates, from the booking calendars.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilitySearchBenchmark {
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    @Param({"10000", "50000"})
+    int rooms;
+
+    @Param({"20"})
+    int bookingsPerRoom;
+
+    @Param({"bitmap", "calendars"})
+    String index;
+
+    private Service service;
+    private LocalDate[] checkIns;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        service = new Service();
+
+        RoomType[] types = RoomType.values();
+        Random random = new Random(42);
+        for (int room = 1; room <= rooms; room++) {
+            service.setRoom(room, types[room % types.length], 100 + random.nextInt(400));
+            service.setUser(room, 1_000_000);
+        }
+        for (int room = 1; room <= rooms; room++) {
+            // Roughly half of the year booked, in stays of 1-14 nights
+            LocalDate day = START;
+            for (int i = 0; i < bookingsPerRoom; i++) {
+                day = day.plusDays(random.nextInt(10));
+                LocalDate checkOut = day.plusDays(1 + random.nextInt(14));
+                service.bookRoom(room, room, day, checkOut);
+                day = checkOut;
+            }
+        }
+
+        service.setAvailabilityHorizon(index.equals("bitmap") ? START : START.plusYears(10));
+
+        checkIns = new LocalDate[256];
+        for (int i = 0; i < checkIns.length; i++) {
+            checkIns[i] = START.plusDays(random.nextInt(300));
+        }
+    }
+
+    @Benchmark
+    public List<Room> searchByType() {
+        cursor = (cursor + 1) & (checkIns.length - 1);
+        LocalDate checkIn = checkIns[cursor];
+        return service.findAvailableRooms(RoomType.JUNIOR, checkIn, checkIn.plusDays(3));
+    }
+
+    @Benchmark
+    public List<Room> searchByTypeAndPrice() {
+        cursor = (cursor + 1) & (checkIns.length - 1);
+        LocalDate checkIn = checkIns[cursor];
+        return service.findAvailableRooms(RoomType.SUITE, 250, checkIn, checkIn.plusDays(3));
+    }
+}
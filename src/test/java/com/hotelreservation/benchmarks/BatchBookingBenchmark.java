@@ -0,0 +1,74 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares one group booking against the same rooms booked one call at a time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBookingBenchmark {
+    private static final int GROUPS = 100;
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    @Param({"20"})
+    int groupSize;
+
+    private Service service;
+    private List<List<Integer>> groups;
+    private int group;
+    private LocalDate checkIn;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = new Service();
+        service.setUser(1, Integer.MAX_VALUE);
+
+        groups = new ArrayList<>(GROUPS);
+        int roomNumber = 1;
+        for (int g = 0; g < GROUPS; g++) {
+            List<Integer> rooms = new ArrayList<>(groupSize);
+            for (int i = 0; i < groupSize; i++, roomNumber++) {
+                service.setRoom(roomNumber, RoomType.STANDARD, 1);
+                rooms.add(roomNumber);
+            }
+            groups.add(rooms);
+        }
+        group = 0;
+        checkIn = START;
+    }
+
+    // Next group of rooms; moves to the next night once every group is taken
+    private List<Integer> nextGroup() {
+        if (++group == GROUPS) {
+            group = 0;
+            checkIn = checkIn.plusDays(1);
+        }
+        return groups.get(group);
+    }
+
+    @Benchmark
+    public void groupBooking() {
+        List<Integer> rooms = nextGroup();
+        service.bookRooms(1, rooms, checkIn, checkIn.plusDays(1));
+    }
+
+    @Benchmark
+    public void singleBookings() {
+        List<Integer> rooms = nextGroup();
+        for (Integer roomNumber : rooms) {
+            service.bookRoom(1, roomNumber, checkIn, checkIn.plusDays(1));
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.metrics.HistogramSnapshot;
+import com.hotelreservation.metrics.LatencyHistogram;
+import com.hotelreservation.server.BookingServer;
+import com.hotelreservation.services.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generator for BookingServer: many concurrent clients, each sending BOOK requests
+ * back to back over its own connection, reporting throughput and latency percentiles.
+ * <pre>
+ *   java -cp ... com.hotelreservation.benchmarks.BookingLoadGenerator [local | serve | run]
+ *     -Dload.clients=10000   concurrent connections
+ *     -Dload.requests=20     requests per client
+ *     -Dload.rooms=50000     hotel size
+ *     -Dload.inFlight=256    server limit on requests running at once
+ *     -Dload.port=0          serve: port to listen on; run: port to connect to
+ * </pre>
+ * local (the default) starts the server in a child JVM and runs the clients against it,
+ * so the two ends' sockets count against separate per-process file limits. Clients are
+ * multiplexed on one selector thread, so the client side needs no thread per connection.
+ */
+public final class BookingLoadGenerator {
+    private static final int CLIENTS = Integer.getInteger("load.clients", 10_000);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 20);
+    private static final int ROOMS = Integer.getInteger("load.rooms", 50_000);
+    private static final int IN_FLIGHT = Integer.getInteger("load.inFlight", 256);
+    private static final int PORT = Integer.getInteger("load.port", 0);
+    private static final long QUEUE_TIMEOUT_MILLIS = 5_000;
+    private static final int MAX_PENDING_CONNECTS = 512;
+    private static final String LISTENING = "LISTENING ";
+
+    private BookingLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "local";
+        switch (mode) {
+            case "serve":
+                serve();
+                break;
+            case "run":
+                run(PORT);
+                break;
+            default:
+                local();
+        }
+    }
+
+    // ===== Server Side =====
+
+    private static void serve() throws IOException {
+        Service service = HotelDataGenerator.hotel(ROOMS, CLIENTS, 0, 42);
+        try (BookingServer server = BookingServer.start(service, PORT, CLIENTS + 64, IN_FLIGHT,
+                QUEUE_TIMEOUT_MILLIS)) {
+            System.out.println(LISTENING + server.getPort());
+            System.out.flush();
+            // Serve until the parent closes our stdin
+            while (System.in.read() >= 0) {
+                // Ignore input
+            }
+        }
+    }
+
+    private static void local() throws Exception {
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        List<String> command = new ArrayList<>(List.of(java.toString(), "-cp", System.getProperty("java.class.path")));
+        for (String property : List.of("load.clients", "load.rooms", "load.inFlight")) {
+            if (System.getProperty(property) != null) {
+                command.add("-D" + property + "=" + System.getProperty(property));
+            }
+        }
+        command.add(BookingLoadGenerator.class.getName());
+        command.add("serve");
+
+        Process server = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        try {
+            BufferedReader out = new BufferedReader(
+                    new InputStreamReader(server.getInputStream(), StandardCharsets.US_ASCII));
+            String line;
+            while ((line = out.readLine()) != null && !line.startsWith(LISTENING)) {
+                System.out.println(line);
+            }
+            if (line == null) {
+                throw new IllegalStateException("Server exited before listening");
+            }
+            run(Integer.parseInt(line.substring(LISTENING.length())));
+        } finally {
+            server.getOutputStream().close();
+            if (!server.waitFor(10, TimeUnit.SECONDS)) {
+                server.destroyForcibly();
+            }
+        }
+    }
+
+    // ===== Client Side =====
+
+    private static final class Client {
+        final int userId;
+        final Random random;
+        final ByteBuffer out = ByteBuffer.allocate(128);
+        final ByteBuffer in = ByteBuffer.allocate(128);
+        int remaining = REQUESTS;
+        long sentAt;
+
+        Client(int userId) {
+            this.userId = userId;
+            this.random = new Random(userId);
+        }
+
+        void prepareRequest() {
+            LocalDate checkIn = HotelDataGenerator.START.plusDays(random.nextInt(730));
+            String request = "BOOK " + userId + " " + (1 + random.nextInt(ROOMS)) + " "
+                    + checkIn + " " + checkIn.plusDays(1 + random.nextInt(3)) + "\n";
+            out.clear();
+            out.put(request.getBytes(StandardCharsets.US_ASCII)).flip();
+        }
+    }
+
+    private static void run(int port) throws IOException {
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        try (Selector selector = Selector.open()) {
+            List<SocketChannel> channels = connectAll(selector, address);
+            System.out.printf("Connected %d clients (server on %s threads)%n",
+                    channels.size(), BookingServer.usesVirtualThreads() ? "virtual" : "platform");
+
+            LatencyHistogram latency = new LatencyHistogram();
+            long ok = 0;
+            long refused = 0;
+            long busy = 0;
+            int active = channels.size();
+
+            long started = System.nanoTime();
+            for (SelectionKey key : selector.keys()) {
+                Client client = (Client) key.attachment();
+                client.prepareRequest();
+                client.sentAt = System.nanoTime();
+                ((SocketChannel) key.channel()).write(client.out);
+                key.interestOps(client.out.hasRemaining() ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+            }
+
+            while (active > 0) {
+                selector.select();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    SocketChannel channel = (SocketChannel) key.channel();
+                    Client client = (Client) key.attachment();
+                    if (key.isWritable()) {
+                        channel.write(client.out);
+                        if (!client.out.hasRemaining()) {
+                            key.interestOps(SelectionKey.OP_READ);
+                        }
+                        continue;
+                    }
+                    if (channel.read(client.in) < 0) {
+                        throw new IOException("Server closed a connection");
+                    }
+                    int end = indexOf(client.in, (byte) '\n');
+                    if (end < 0) {
+                        continue;
+                    }
+
+                    latency.record(System.nanoTime() - client.sentAt);
+                    String response = new String(client.in.array(), 0, end, StandardCharsets.US_ASCII);
+                    if (response.equals("OK")) {
+                        ok++;
+                    } else if (response.equals("ERR BUSY")) {
+                        busy++;
+                    } else {
+                        refused++;
+                    }
+                    client.in.clear();
+
+                    if (--client.remaining == 0) {
+                        key.cancel();
+                        channel.close();
+                        active--;
+                    } else {
+                        client.prepareRequest();
+                        client.sentAt = System.nanoTime();
+                        channel.write(client.out);
+                        key.interestOps(client.out.hasRemaining() ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+            long elapsed = System.nanoTime() - started;
+
+            HistogramSnapshot snapshot = latency.snapshot();
+            System.out.printf("Requests: %d in %.2f s = %.0f req/s%n", snapshot.getCount(),
+                    elapsed / 1e9, snapshot.getCount() * 1e9 / elapsed);
+            System.out.printf("Responses: %d OK, %d refused (room taken), %d busy%n", ok, refused, busy);
+            System.out.printf("Latency: p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                    snapshot.getValueAtPercentile(50) / 1e6, snapshot.getValueAtPercentile(99) / 1e6,
+                    snapshot.getValueAtPercentile(99.9) / 1e6, snapshot.getMax() / 1e6);
+        }
+    }
+
+    // Opens every client connection, keeping a bounded number of connects outstanding
+    private static List<SocketChannel> connectAll(Selector selector, InetSocketAddress address) throws IOException {
+        List<SocketChannel> channels = new ArrayList<>(CLIENTS);
+        int pending = 0;
+        int opened = 0;
+        while (channels.size() < CLIENTS) {
+            while (opened < CLIENTS && pending < MAX_PENDING_CONNECTS) {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                opened++;
+                if (channel.connect(address)) {
+                    channel.register(selector, 0, new Client(opened));
+                    channels.add(channel);
+                } else {
+                    channel.register(selector, SelectionKey.OP_CONNECT, new Client(opened));
+                    pending++;
+                }
+            }
+            selector.select();
+            for (SelectionKey key : selector.selectedKeys()) {
+                SocketChannel channel = (SocketChannel) key.channel();
+                channel.finishConnect();
+                key.interestOps(0);
+                channels.add(channel);
+                pending--;
+            }
+            selector.selectedKeys().clear();
+        }
+        return channels;
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte value) {
+        byte[] bytes = buffer.array();
+        for (int i = 0; i < buffer.position(); i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
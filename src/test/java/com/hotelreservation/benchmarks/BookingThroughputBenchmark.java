@@ -0,0 +1,65 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded throughput of the Service write paths on hotels of realistic sizes,
+ * each room already holding a booking history.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingThroughputBenchmark {
+    private static final int USERS = 1000;
+
+    // Boutique hotel, large resort, whole chain
+    @Param({"100", "2000", "50000"})
+    int rooms;
+
+    @Param({"20"})
+    int bookingsPerRoom;
+
+    private Service service;
+    private LocalDate free;
+    private int[] nextNight;
+    private int room;
+    private int user;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = HotelDataGenerator.hotel(rooms, USERS, bookingsPerRoom, 42);
+        free = HotelDataGenerator.START.plusYears(2);
+        nextNight = new int[rooms + 1];
+        room = 0;
+        user = 0;
+    }
+
+    @Benchmark
+    public void bookRoom() {
+        room = room % rooms + 1;
+        user = user % USERS + 1;
+        // Consecutive one-night stays per room never overlap
+        LocalDate checkIn = free.plusDays(nextNight[room]++);
+        service.bookRoom(user, room, checkIn, checkIn.plusDays(1));
+    }
+
+    @Benchmark
+    public void setRoom() {
+        room = room % rooms + 1;
+        service.setRoom(room, RoomType.JUNIOR, 100 + (room & 127));
+    }
+
+    @Benchmark
+    public void setUser() {
+        user = user % USERS + 1;
+        service.setUser(user, Integer.MAX_VALUE - user);
+    }
+}
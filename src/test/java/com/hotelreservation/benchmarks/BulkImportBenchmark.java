@@ -0,0 +1,91 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads millions of users into an empty service: setUser per line of the CSV versus
+ * importUsers, in memory and journaled. setUser is not run journaled, as every call
+ * would wait for its own fsync.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class BulkImportBenchmark {
+    @Param({"5000000"})
+    int users;
+
+    private Path directory;
+    private Path csv;
+    private int[] userIds;
+    private int[] balances;
+    private Service service;
+    private Service durableService;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        directory = Files.createTempDirectory("bulk-import");
+        csv = directory.resolve("users.csv");
+        userIds = new int[users];
+        balances = new int[users];
+        Random random = new Random(42);
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.US_ASCII)) {
+            out.write("user_id,balance\n");
+            for (int i = 0; i < users; i++) {
+                userIds[i] = i + 1;
+                balances[i] = random.nextInt(1_000_000);
+                out.write(userIds[i] + "," + balances[i] + "\n");
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void openService() throws IOException {
+        Path journal = directory.resolve("journal.log");
+        Files.deleteIfExists(journal);
+        service = new Service();
+        durableService = Service.open(journal);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeService() {
+        durableService.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(directory.resolve("journal.log"));
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public long setUserPerLine() {
+        // Parsing is excluded, so this is a lower bound for a line-by-line load
+        for (int i = 0; i < users; i++) {
+            service.setUser(userIds[i], balances[i]);
+        }
+        return users;
+    }
+
+    @Benchmark
+    public long importUsers() throws IOException {
+        return service.importUsers(csv);
+    }
+
+    @Benchmark
+    public long importUsersDurable() throws IOException {
+        return durableService.importUsers(csv);
+    }
+}
@@ -0,0 +1,78 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.persistence.Journal;
+import com.hotelreservation.repositories.BookingRepository;
+import com.hotelreservation.repositories.ListBookingRepository;
+import com.hotelreservation.repositories.RoomRepository;
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Booking latency with and without concurrent cancellations.
+ * Seven threads book random rooms and hand the new ids to three threads that cancel them,
+ * so about 30% of the operations are cancellations. With cancel=false the three threads
+ * only take the ids, keeping the hand-off cost the same. Rooms start with bookingsPerRoom
+ * past stays, so every cancellation edits a populated calendar.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Group)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class CancellationBenchmark {
+    private static final int ROOMS = 1024;
+    private static final int USERS = 1024;
+
+    @Param({"false", "true"})
+    boolean cancel;
+
+    @Param({"100"})
+    int bookingsPerRoom;
+
+    private Service service;
+    private LocalDate free;
+    private AtomicIntegerArray nextNight;
+    private final ConcurrentLinkedQueue<Integer> booked = new ConcurrentLinkedQueue<>();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        RoomRepository rooms = HotelDataGenerator.rooms(ROOMS, 42);
+        BookingRepository bookings = new ListBookingRepository();
+        free = HotelDataGenerator.addHistory(bookings, rooms, USERS, bookingsPerRoom, 42);
+        // Far below Integer.MAX_VALUE so refunds cannot overflow
+        service = new Service(rooms, HotelDataGenerator.users(USERS, 1_000_000_000), bookings, Journal.NONE);
+        nextNight = new AtomicIntegerArray(ROOMS + 1);
+        booked.clear();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(7)
+    public int bookRoom() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int room = 1 + random.nextInt(ROOMS);
+        // Each night of a room is handed out once, so bookings never overlap
+        LocalDate checkIn = free.plusDays(nextNight.getAndIncrement(room));
+        int bookingId = service.bookRoom(1 + random.nextInt(USERS), room, checkIn, checkIn.plusDays(1));
+        booked.offer(bookingId);
+        return bookingId;
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public int cancelBooking() {
+        Integer bookingId = booked.poll();
+        if (bookingId == null || !cancel) {
+            return 0;
+        }
+        return service.cancelBooking(bookingId);
+    }
+}
@@ -0,0 +1,60 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Booking throughput with many threads booking random rooms of one shared service.
+ * Few rooms means threads keep colliding on the same room locks; many rooms means
+ * they mostly contend on the shared repositories. Every thread has its own user.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class ContendedBookingBenchmark {
+
+    @Param({"8", "1024", "50000"})
+    int rooms;
+
+    private Service service;
+    private LocalDate free;
+    private AtomicIntegerArray nextNight;
+    private final AtomicInteger users = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Booker {
+        int userId;
+
+        @Setup(Level.Iteration)
+        public void setUp(ContendedBookingBenchmark benchmark) {
+            userId = benchmark.users.incrementAndGet();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // Enough users for every thread's id in every iteration
+        service = HotelDataGenerator.hotel(rooms, 1024, 0, 42);
+        free = HotelDataGenerator.START;
+        nextNight = new AtomicIntegerArray(rooms + 1);
+        users.set(0);
+    }
+
+    @Benchmark
+    public void bookRoom(Booker booker) {
+        int room = 1 + ThreadLocalRandom.current().nextInt(rooms);
+        // Each night of a room is handed out once, so bookings never overlap
+        LocalDate checkIn = free.plusDays(nextNight.getAndIncrement(room));
+        service.bookRoom(booker.userId, room, checkIn, checkIn.plusDays(1));
+    }
+}
@@ -0,0 +1,87 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Booking throughput with the journal on (group-committed fsync) and off.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(16)
+@Fork(1)
+public class DurableBookingBenchmark {
+    private static final int ROOMS_PER_THREAD = 64;
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    @State(Scope.Benchmark)
+    public static class Hotel {
+        @Param({"false", "true"})
+        boolean durable;
+
+        final AtomicInteger threads = new AtomicInteger();
+        Service service;
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            if (durable) {
+                directory = Files.createTempDirectory("journal-bench");
+                service = Service.open(directory.resolve("hotel.journal"));
+            } else {
+                service = new Service();
+            }
+            for (int room = 0; room < 64 * ROOMS_PER_THREAD; room++) {
+                service.setRoom(room, RoomType.STANDARD, 1);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            service.close();
+            if (directory != null) {
+                try (var files = Files.list(directory)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(directory);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Guest {
+        int userId;
+        int firstRoom;
+        int room;
+        LocalDate checkIn = START;
+
+        @Setup(Level.Trial)
+        public void setUp(Hotel hotel) {
+            userId = hotel.threads.getAndIncrement();
+            firstRoom = userId * ROOMS_PER_THREAD;
+            room = firstRoom;
+            hotel.service.setUser(userId, Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public void bookRoom(Hotel hotel, Guest guest) {
+        if (++guest.room == guest.firstRoom + ROOMS_PER_THREAD) {
+            guest.room = guest.firstRoom;
+            guest.checkIn = guest.checkIn.plusDays(1);
+        }
+        hotel.service.bookRoom(guest.userId, guest.room, guest.checkIn, guest.checkIn.plusDays(1));
+    }
+}
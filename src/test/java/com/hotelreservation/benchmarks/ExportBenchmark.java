@@ -0,0 +1,88 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.reports.ReportExporter;
+import com.hotelreservation.reports.ReportFormat;
+import com.hotelreservation.repositories.BookingRepository;
+import com.hotelreservation.repositories.ColumnarBookingRepository;
+import com.hotelreservation.repositories.ListBookingRepository;
+import com.hotelreservation.repositories.RoomRepository;
+import com.hotelreservation.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports one million bookings as text, comparing the streamed report writer
+ * against the previous copy-then-printf implementation of printAll.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ExportBenchmark {
+    private static final int BOOKINGS = 1_000_000;
+    private static final int ROOMS = 10_000;
+
+    @Param({"list", "columnar"})
+    String storage;
+
+    private BookingRepository bookingRepository;
+    private ReportExporter exporter;
+    private Writer sink;
+    private PrintStream printSink;
+
+    @Setup
+    public void setUp() {
+        bookingRepository = storage.equals("columnar") ? new ColumnarBookingRepository() : new ListBookingRepository();
+        RoomType[] types = RoomType.values();
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            int room = i % ROOMS;
+            LocalDate checkIn = start.plusDays(2L * (i / ROOMS));
+            bookingRepository.save(new Booking(i % 5000, room, checkIn, checkIn.plusDays(2),
+                    types[room % types.length], 1000 + room % 500, 1_000_000));
+        }
+        exporter = new ReportExporter(new RoomRepository(), new UserRepository(), bookingRepository);
+        sink = new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8);
+        printSink = new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void streamed() {
+        exporter.exportBookings(sink, ReportFormat.TEXT);
+    }
+
+    @Benchmark
+    public void streamedCsv() {
+        exporter.exportBookings(sink, ReportFormat.CSV);
+    }
+
+    @Benchmark
+    public void printf() {
+        List<Booking> bookings = bookingRepository.findAll();
+        printSink.println("\n=== ALL BOOKINGS (Latest First) ===");
+        for (int i = bookings.size() - 1; i >= 0; i--) {
+            Booking b = bookings.get(i);
+            long nights = ChronoUnit.DAYS.between(b.getCheckIn(), b.getCheckOut());
+            int cost = (int) nights * b.getPricePerNightAtBooking();
+
+            printSink.printf("Booking | User: %d | Room: %d | %s to %s (%d nights)%n",
+                    b.getUserId(), b.getRoomNumber(), b.getCheckIn(), b.getCheckOut(), nights);
+            printSink.printf("  → Booked as: %s @ %d/night | Total: %d | User balance was: %d%n",
+                    b.getRoomTypeAtBooking(), b.getPricePerNightAtBooking(), cost, b.getUserBalanceAtBooking());
+        }
+        printSink.flush();
+    }
+}
@@ -0,0 +1,99 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.entities.User;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.persistence.Journal;
+import com.hotelreservation.repositories.BookingRepository;
+import com.hotelreservation.repositories.ListBookingRepository;
+import com.hotelreservation.repositories.RoomRepository;
+import com.hotelreservation.repositories.UserRepository;
+import com.hotelreservation.services.Service;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Reproducible synthetic hotels for benchmarks.
+ * Rooms are 70% STANDARD, 20% JUNIOR and 10% SUITE with type-dependent prices;
+ * each room's history is a run of 1-14 night stays separated by 0-9 free nights,
+ * starting at START. Repositories are filled directly, skipping validation and locking,
+ * so even million-booking hotels build in seconds.
+ */
+public final class HotelDataGenerator {
+    public static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    private HotelDataGenerator() {
+    }
+
+    /**
+     * Hotel with rooms 1..rooms, users 1..users and bookingsPerRoom past stays per room.
+     */
+    public static Service hotel(int rooms, int users, int bookingsPerRoom, long seed) {
+        RoomRepository roomRepository = rooms(rooms, seed);
+        UserRepository userRepository = users(users, Integer.MAX_VALUE);
+        BookingRepository bookingRepository = new ListBookingRepository();
+        addHistory(bookingRepository, roomRepository, users, bookingsPerRoom, seed);
+        return new Service(roomRepository, userRepository, bookingRepository, Journal.NONE);
+    }
+
+    public static RoomRepository rooms(int count, long seed) {
+        Random random = new Random(seed);
+        RoomRepository repository = new RoomRepository();
+        for (int room = 1; room <= count; room++) {
+            RoomType type = roomType(random);
+            repository.save(new Room(room, type, price(type, random)));
+        }
+        return repository;
+    }
+
+    public static UserRepository users(int count, int balance) {
+        UserRepository repository = new UserRepository();
+        for (int user = 1; user <= count; user++) {
+            repository.save(new User(user, balance));
+        }
+        return repository;
+    }
+
+    /**
+     * Saves bookingsPerRoom stays for every room, assigned to users round-robin.
+     * Returns the first day after the latest check-out, from which every room is free.
+     */
+    public static LocalDate addHistory(BookingRepository bookings, RoomRepository rooms, int users,
+                                       int bookingsPerRoom, long seed) {
+        Random random = new Random(seed);
+        long latest = START.toEpochDay();
+        int user = 0;
+        for (Room room : rooms.findAll()) {
+            long day = START.toEpochDay();
+            for (int i = 0; i < bookingsPerRoom; i++) {
+                day += random.nextInt(10);
+                long checkOut = day + 1 + random.nextInt(14);
+                bookings.save(new Booking(1 + user, room.getRoomNumber(),
+                        LocalDate.ofEpochDay(day), LocalDate.ofEpochDay(checkOut),
+                        room.getRoomType(), room.getPricePerNight(), Integer.MAX_VALUE));
+                user = (user + 1) % users;
+                day = checkOut;
+            }
+            latest = Math.max(latest, day);
+        }
+        return LocalDate.ofEpochDay(latest);
+    }
+
+    public static RoomType roomType(Random random) {
+        int roll = random.nextInt(10);
+        return roll < 7 ? RoomType.STANDARD : roll < 9 ? RoomType.JUNIOR : RoomType.SUITE;
+    }
+
+    public static int price(RoomType type, Random random) {
+        switch (type) {
+            case STANDARD:
+                return 80 + random.nextInt(120);
+            case JUNIOR:
+                return 180 + random.nextInt(170);
+            default:
+                return 400 + random.nextInt(800);
+        }
+    }
+}
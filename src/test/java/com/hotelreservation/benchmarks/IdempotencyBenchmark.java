@@ -0,0 +1,57 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.enums.BookingStatus;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what idempotency keys add to tryBookRoom: a request without a key, one with a
+ * new key (claimed, run and recorded in a full cache, so every claim also evicts), and a
+ * retry answered from the cache. Requests are refused as ROOM_UNAVAILABLE so the hotel
+ * never fills up; the refusal path still looks up, locks and checks the room.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdempotencyBenchmark {
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 7, 1);
+    private static final LocalDate CHECK_OUT = LocalDate.of(2026, 7, 3);
+
+    private Service service;
+    private long next;
+
+    @Setup
+    public void setUp() {
+        service = new Service();
+        service.setRoom(1, RoomType.STANDARD, 100);
+        service.setUser(1, Integer.MAX_VALUE);
+        service.bookRoom(1, 1, CHECK_IN, CHECK_OUT);
+        service.tryBookRoom("retried", 1, 1, CHECK_IN, CHECK_OUT);
+        // Fill the cache, so new keys run at steady state
+        for (int i = 0; i < 1 << 20; i++) {
+            service.tryBookRoom("fill-" + i, 1, 1, CHECK_IN, CHECK_OUT);
+        }
+    }
+
+    @Benchmark
+    public BookingStatus withoutKey() {
+        return service.tryBookRoom(1, 1, CHECK_IN, CHECK_OUT);
+    }
+
+    @Benchmark
+    public BookingStatus newKey() {
+        return service.tryBookRoom("request-" + next++, 1, 1, CHECK_IN, CHECK_OUT);
+    }
+
+    @Benchmark
+    public BookingStatus retriedKey() {
+        return service.tryBookRoom("retried", 1, 1, CHECK_IN, CHECK_OUT);
+    }
+}
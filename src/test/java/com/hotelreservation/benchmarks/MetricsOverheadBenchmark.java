@@ -0,0 +1,48 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of service metrics on bookRoom: the same bookings with recording on and off.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    private static final int ROOMS = 2000;
+    private static final int USERS = 1000;
+
+    @Param({"true", "false"})
+    boolean metrics;
+
+    private Service service;
+    private LocalDate free;
+    private int[] nextNight;
+    private int room;
+    private int user;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = HotelDataGenerator.hotel(ROOMS, USERS, 20, 42);
+        service.getMetrics().setEnabled(metrics);
+        free = HotelDataGenerator.START.plusYears(2);
+        nextNight = new int[ROOMS + 1];
+        room = 0;
+        user = 0;
+    }
+
+    @Benchmark
+    public void bookRoom() {
+        room = room % ROOMS + 1;
+        user = user % USERS + 1;
+        LocalDate checkIn = free.plusDays(nextNight[room]++);
+        service.bookRoom(user, room, checkIn, checkIn.plusDays(1));
+    }
+}
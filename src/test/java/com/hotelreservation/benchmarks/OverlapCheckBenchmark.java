@@ -0,0 +1,56 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.repositories.BookingRepository;
+import com.hotelreservation.repositories.ListBookingRepository;
+import com.hotelreservation.repositories.RoomRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the overlap check behind every booking as a room's history grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class OverlapCheckBenchmark {
+    private static final int ROOMS = 256;
+    private static final int PROBES = 1024;
+
+    @Param({"1", "16", "256", "4096"})
+    int bookingsPerRoom;
+
+    private BookingRepository bookings;
+    private int[] probeRooms;
+    private LocalDate[] probeCheckIns;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        RoomRepository rooms = HotelDataGenerator.rooms(ROOMS, 42);
+        bookings = new ListBookingRepository();
+        LocalDate end = HotelDataGenerator.addHistory(bookings, rooms, 100, bookingsPerRoom, 42);
+
+        // Probes spread over the booked period, hitting both free and taken nights
+        int span = (int) (end.toEpochDay() - HotelDataGenerator.START.toEpochDay());
+        Random random = new Random(7);
+        probeRooms = new int[PROBES];
+        probeCheckIns = new LocalDate[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeRooms[i] = 1 + random.nextInt(ROOMS);
+            probeCheckIns[i] = HotelDataGenerator.START.plusDays(random.nextInt(span));
+        }
+    }
+
+    @Benchmark
+    public boolean hasOverlap() {
+        cursor = (cursor + 1) & (PROBES - 1);
+        LocalDate checkIn = probeCheckIns[cursor];
+        return bookings.hasOverlap(probeRooms[cursor], checkIn, checkIn.plusDays(3));
+    }
+}
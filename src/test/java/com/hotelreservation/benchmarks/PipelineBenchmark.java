@@ -0,0 +1,127 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.enums.BookingStatus;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.persistence.FileJournal;
+import com.hotelreservation.persistence.Journal;
+import com.hotelreservation.persistence.RepositoryLoader;
+import com.hotelreservation.pipeline.BookingPipeline;
+import com.hotelreservation.repositories.BookingRepository;
+import com.hotelreservation.repositories.ListBookingRepository;
+import com.hotelreservation.repositories.RoomRepository;
+import com.hotelreservation.repositories.UserRepository;
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Booking throughput of the lock-based Service against the single-writer BookingPipeline,
+ * with the journal off and on. Each thread books its own rooms, as in DurableBookingBenchmark,
+ * so the difference is the cost of the concurrency scheme rather than refused bookings.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(8)
+@Fork(1)
+public class PipelineBenchmark {
+    private static final int ROOMS_PER_THREAD = 64;
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    @State(Scope.Benchmark)
+    public static class Hotel {
+        @Param({"locks", "pipeline"})
+        String mode;
+
+        @Param({"false", "true"})
+        boolean durable;
+
+        final AtomicInteger threads = new AtomicInteger();
+        Service service;
+        BookingPipeline pipeline;
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            RoomRepository rooms = new RoomRepository();
+            UserRepository users = new UserRepository();
+            BookingRepository bookings = new ListBookingRepository();
+            Journal journal = Journal.NONE;
+            if (durable) {
+                directory = Files.createTempDirectory("pipeline-bench");
+                journal = FileJournal.open(directory.resolve("hotel.journal"),
+                        new RepositoryLoader(rooms, users, bookings));
+            }
+
+            if (mode.equals("pipeline")) {
+                pipeline = BookingPipeline.start(rooms, users, bookings, journal, 4096);
+                for (int room = 0; room < 64 * ROOMS_PER_THREAD; room++) {
+                    pipeline.setRoom(room, RoomType.STANDARD, 1);
+                }
+                for (int user = 0; user < 64; user++) {
+                    pipeline.setUser(user, Integer.MAX_VALUE);
+                }
+                pipeline.setUser(64, Integer.MAX_VALUE).join();
+            } else {
+                service = new Service(rooms, users, bookings, journal);
+                for (int room = 0; room < 64 * ROOMS_PER_THREAD; room++) {
+                    service.setRoom(room, RoomType.STANDARD, 1);
+                }
+                for (int user = 0; user <= 64; user++) {
+                    service.setUser(user, Integer.MAX_VALUE);
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            if (pipeline != null) {
+                pipeline.close();
+            } else {
+                service.close();
+            }
+            if (directory != null) {
+                try (var files = Files.list(directory)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(directory);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Guest {
+        int userId;
+        int firstRoom;
+        int room;
+        LocalDate checkIn = START;
+
+        @Setup(Level.Trial)
+        public void setUp(Hotel hotel) {
+            userId = hotel.threads.getAndIncrement();
+            firstRoom = userId * ROOMS_PER_THREAD;
+            room = firstRoom;
+        }
+    }
+
+    @Benchmark
+    public BookingStatus bookRoom(Hotel hotel, Guest guest) {
+        if (++guest.room == guest.firstRoom + ROOMS_PER_THREAD) {
+            guest.room = guest.firstRoom;
+            guest.checkIn = guest.checkIn.plusDays(1);
+        }
+        if (hotel.pipeline != null) {
+            return hotel.pipeline.bookRoom(guest.userId, guest.room, guest.checkIn, guest.checkIn.plusDays(1)).join();
+        }
+        return hotel.service.tryBookRoom(guest.userId, guest.room, guest.checkIn, guest.checkIn.plusDays(1));
+    }
+}
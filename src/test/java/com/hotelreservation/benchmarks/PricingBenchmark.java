@@ -0,0 +1,83 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.pricing.PricingEngine;
+import com.hotelreservation.pricing.RateRule;
+import com.hotelreservation.pricing.RateTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures pricing a stay from the compiled rate table against summing each night's rate,
+ * for growing rule counts and stay lengths, and what compiling the table costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    @Param({"0", "64"})
+    int rules;
+
+    @Param({"1", "28"})
+    int nights;
+
+    private PricingEngine engine;
+    private List<RateRule> ruleList;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ruleList = new ArrayList<>(rules);
+        for (int i = 0; i < rules; i++) {
+            LocalDate from = START.plusDays(i * 11L);
+            ruleList.add(i % 2 == 0
+                    ? RateRule.season(ROOM_TYPES[i % ROOM_TYPES.length], from, from.plusDays(30), 1.1)
+                    : RateRule.daysOfWeek(EnumSet.of(DayOfWeek.of(i % 7 + 1)), 1.05));
+        }
+        engine = new PricingEngine((roomType, from, to) -> null);
+        engine.setRules(START, ruleList);
+    }
+
+    @Benchmark
+    public long prefixSumCost() {
+        LocalDate checkIn = nextCheckIn();
+        return engine.cost(RoomType.JUNIOR, 1000, checkIn, checkIn.plusDays(nights));
+    }
+
+    @Benchmark
+    public long perNightCost() {
+        LocalDate checkIn = nextCheckIn();
+        RateTable table = engine.getRateTable();
+        long basisPoints = 0;
+        for (int night = 0; night < nights; night++) {
+            basisPoints += table.getRate(RoomType.JUNIOR, checkIn.plusDays(night));
+        }
+        return 1000 * basisPoints / RateTable.BASE_RATE;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public RateTable compile() {
+        engine.setRules(START, ruleList);
+        return engine.getRateTable();
+    }
+
+    // ===== Private Helpers =====
+
+    private LocalDate nextCheckIn() {
+        next = (next + 1) % 600;
+        return START.plusDays(next);
+    }
+}
@@ -0,0 +1,71 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.repositories.Page;
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traverses every booking of a million-booking hotel latest first: through a findAll copy,
+ * a snapshot iterator, a snapshot visitor and cursor pages. Run with -prof gc to compare
+ * the bytes allocated per traversal (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadViewBenchmark {
+    @Param({"100"})
+    int bookingsPerRoom;
+
+    private Service service;
+
+    @Setup
+    public void setUp() {
+        service = HotelDataGenerator.hotel(10_000, 10_000, bookingsPerRoom, 42);
+    }
+
+    @Benchmark
+    public long findAllCopy() {
+        long sum = 0;
+        for (Booking booking : service.getBookings()) {
+            sum += booking.getPricePerNightAtBooking();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long snapshotIterator() {
+        long sum = 0;
+        for (Booking booking : service.snapshotBookings()) {
+            sum += booking.getPricePerNightAtBooking();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long snapshotVisitor() {
+        long[] sum = new long[1];
+        service.snapshotBookings().forEach((userId, roomNumber, checkInDay, checkOutDay, type, price, total,
+                                            balance) -> sum[0] += price);
+        return sum[0];
+    }
+
+    @Benchmark
+    public long pages() {
+        long sum = 0;
+        int cursor = Page.FIRST;
+        while (cursor >= 0) {
+            Page<Booking> page = service.findBookings(cursor, 1000);
+            for (Booking booking : page.getItems()) {
+                sum += booking.getPricePerNightAtBooking();
+            }
+            cursor = page.getNextCursor();
+        }
+        return sum;
+    }
+}
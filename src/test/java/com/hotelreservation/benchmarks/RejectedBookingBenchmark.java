@@ -0,0 +1,67 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.enums.BookingStatus;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of refused bookings: bookRoom throwing an exception per refusal
+ * against tryBookRoom returning a status. Run with -prof gc to compare allocation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectedBookingBenchmark {
+    private static final int ROOMS = 1000;
+    private static final LocalDate START = HotelDataGenerator.START;
+
+    @Param({"ROOM_UNAVAILABLE", "INSUFFICIENT_BALANCE"})
+    BookingStatus refusal;
+
+    private Service service;
+    private int userId;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    private int room;
+
+    @Setup
+    public void setUp() {
+        service = new Service();
+        service.setUser(1, Integer.MAX_VALUE);
+        service.setUser(2, 0);
+        for (int i = 1; i <= ROOMS; i++) {
+            service.setRoom(i, RoomType.STANDARD, 100);
+            service.bookRoom(1, i, START, START.plusDays(7));
+        }
+
+        // Either overlap every room's existing stay, or ask for free dates with no balance
+        boolean overlap = refusal == BookingStatus.ROOM_UNAVAILABLE;
+        userId = overlap ? 1 : 2;
+        checkIn = overlap ? START.plusDays(2) : START.plusDays(30);
+        checkOut = checkIn.plusDays(2);
+    }
+
+    @Benchmark
+    public boolean throwing() {
+        room = room % ROOMS + 1;
+        try {
+            service.bookRoom(userId, room, checkIn, checkOut);
+            return true;
+        } catch (RuntimeException refused) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public BookingStatus status() {
+        room = room % ROOMS + 1;
+        return service.tryBookRoom(userId, room, checkIn, checkOut);
+    }
+}
@@ -0,0 +1,92 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.entities.User;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.repositories.RoomRepository;
+import com.hotelreservation.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares hash-indexed repository lookups against the previous
+ * stream-over-ArrayList implementation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryLookupBenchmark {
+
+    @Param({"1000", "40000", "1000000"})
+    int size;
+
+    private RoomRepository roomRepository;
+    private UserRepository userRepository;
+    private List<Room> roomList;
+    private List<User> userList;
+    private int[] probes;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        roomRepository = new RoomRepository();
+        userRepository = new UserRepository();
+        roomList = new ArrayList<>(size);
+        userList = new ArrayList<>(size);
+
+        RoomType[] types = RoomType.values();
+        for (int i = 1; i <= size; i++) {
+            Room room = new Room(i, types[i % types.length], 1000 + i % 500);
+            User user = new User(i, 10000);
+            roomRepository.save(room);
+            userRepository.save(user);
+            roomList.add(room);
+            userList.add(user);
+        }
+
+        probes = new int[1024];
+        Random random = new Random(42);
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = 1 + random.nextInt(size);
+        }
+    }
+
+    private int nextProbe() {
+        cursor = (cursor + 1) & (probes.length - 1);
+        return probes[cursor];
+    }
+
+    @Benchmark
+    public Optional<Room> roomLookupIndexed() {
+        return roomRepository.findByRoomNumber(nextProbe());
+    }
+
+    @Benchmark
+    public Optional<Room> roomLookupStream() {
+        int roomNumber = nextProbe();
+        return roomList.stream()
+                .filter(r -> r.getRoomNumber() == roomNumber)
+                .findFirst();
+    }
+
+    @Benchmark
+    public Optional<User> userLookupIndexed() {
+        return userRepository.findByUserId(nextProbe());
+    }
+
+    @Benchmark
+    public Optional<User> userLookupStream() {
+        int userId = nextProbe();
+        return userList.stream()
+                .filter(u -> u.getUserId() == userId)
+                .findFirst();
+    }
+}
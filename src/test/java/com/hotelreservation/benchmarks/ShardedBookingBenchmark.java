@@ -0,0 +1,80 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.enums.BookingStatus;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.services.ShardedService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking throughput of ShardedService as the shard count grows.
+ * Each invocation submits a burst of one-night bookings spread over 8 properties,
+ * then waits for all of them, so every shard executor has work queued.
+ * Throughput can only scale up to the number of cores the JVM gets.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardedBookingBenchmark {
+    private static final int PROPERTIES = 8;
+    private static final int ROOMS_PER_PROPERTY = 1000;
+    private static final int USERS = 1000;
+    private static final int BURST = 1024;
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    @Param({"1", "2", "4", "8"})
+    int shards;
+
+    private ShardedService service;
+    private final List<CompletableFuture<BookingStatus>> pending = new ArrayList<>(BURST);
+    private final Random random = new Random(42);
+    private int night;
+
+    @Setup
+    public void setUp() {
+        service = new ShardedService(shards, ROOMS_PER_PROPERTY);
+        List<CompletableFuture<Void>> setup = new ArrayList<>();
+        for (int room = 0; room < PROPERTIES * ROOMS_PER_PROPERTY; room++) {
+            setup.add(service.setRoom(room, RoomType.STANDARD, 100));
+        }
+        for (int user = 1; user <= USERS; user++) {
+            setup.add(service.setUser(user, Integer.MAX_VALUE));
+        }
+        setup.forEach(CompletableFuture::join);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public int bookBurst() {
+        // A fresh night per burst keeps nearly every booking successful
+        LocalDate checkIn = START.plusDays(night++ % 3650);
+        LocalDate checkOut = checkIn.plusDays(1);
+        for (int i = 0; i < BURST; i++) {
+            int room = random.nextInt(PROPERTIES * ROOMS_PER_PROPERTY);
+            pending.add(service.bookRoom(1 + random.nextInt(USERS), room, checkIn, checkOut));
+        }
+
+        int succeeded = 0;
+        for (CompletableFuture<BookingStatus> booking : pending) {
+            if (booking.join() == BookingStatus.SUCCESS) {
+                succeeded++;
+            }
+        }
+        pending.clear();
+        return succeeded;
+    }
+}
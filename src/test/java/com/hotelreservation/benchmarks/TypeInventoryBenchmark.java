@@ -0,0 +1,61 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures booking "a SUITE" for a stay: reserving against the per-night type counters
+ * versus searching the type's rooms and booking the first free one.
+ * Every operation is undone afterwards, so the hotel stays equally full.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeInventoryBenchmark {
+    private static final int NIGHTS = 3;
+
+    @Param({"1000", "10000"})
+    int suites;
+
+    private Service service;
+    private LocalDate checkIn;
+
+    @Setup
+    public void setUp() {
+        service = new Service();
+        for (int room = 1; room <= suites; room++) {
+            service.setRoom(room, RoomType.SUITE, 500);
+        }
+        service.setUser(1, Integer.MAX_VALUE);
+
+        // Half the suites are taken for the stay, the first half of the list
+        checkIn = LocalDate.now().plusDays(60);
+        for (int room = 1; room <= suites / 2; room++) {
+            service.bookRoom(1, room, checkIn, checkIn.plusDays(NIGHTS));
+        }
+    }
+
+    @Benchmark
+    public int reserveRoomType() {
+        int reservation = service.reserveRoomType(1, RoomType.SUITE, checkIn, checkIn.plusDays(NIGHTS));
+        service.cancelReservation(reservation);
+        return reservation;
+    }
+
+    @Benchmark
+    public int searchAndBookRoom() {
+        List<Room> free = service.findAvailableRooms(RoomType.SUITE, checkIn, checkIn.plusDays(NIGHTS));
+        int booking = service.bookRoom(1, free.get(0).getRoomNumber(), checkIn, checkIn.plusDays(NIGHTS));
+        service.cancelBooking(booking);
+        return booking;
+    }
+}
@@ -0,0 +1,65 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.analytics.UserBookingSummary;
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.services.Service;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures "all bookings of user X" and "what did user X spend" on a million-booking hotel:
+ * a scan of every booking, the per-user index, and the cached summary.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserHistoryBenchmark {
+    private static final int ROOMS = 10_000;
+    private static final int USERS = 50_000;
+
+    @Param({"100"})
+    int bookingsPerRoom;
+
+    private Service service;
+    private int user;
+
+    @Setup
+    public void setUp() {
+        service = HotelDataGenerator.hotel(ROOMS, USERS, bookingsPerRoom, 42);
+    }
+
+    @Benchmark
+    public List<Booking> scanAllBookings() {
+        int userId = nextUser();
+        List<Booking> result = new ArrayList<>();
+        for (Booking booking : service.getBookings()) {
+            if (booking.getUserId() == userId) {
+                result.add(booking);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Booking> findBookingsByUser() {
+        return service.findBookingsByUser(nextUser());
+    }
+
+    @Benchmark
+    public UserBookingSummary userSummary() {
+        return service.getUserSummary(nextUser());
+    }
+
+    // ===== Private Helpers =====
+
+    private int nextUser() {
+        user = user % USERS + 1;
+        return user;
+    }
+}
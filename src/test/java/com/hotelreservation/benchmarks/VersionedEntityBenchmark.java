@@ -0,0 +1,124 @@
+package com.hotelreservation.benchmarks;
+
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.entities.RoomState;
+import com.hotelreservation.entities.User;
+import com.hotelreservation.enums.RoomType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 95% reads, 5% writes on one shared room and one shared user, from 4 threads:
+ * the versioned, compare-and-set entities against the same state behind a read-write lock.
+ * A read takes the room's type and price together, or the user's balance.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class VersionedEntityBenchmark {
+    private static final RoomType[] TYPES = RoomType.values();
+    // One operation in WRITE_EVERY is a write
+    private static final int WRITE_EVERY = 20;
+
+    private final Room room = new Room(1, RoomType.STANDARD, 100);
+    private final LockedRoom lockedRoom = new LockedRoom(RoomType.STANDARD, 100);
+    private final User user = new User(1, Integer.MAX_VALUE);
+    private final LockedUser lockedUser = new LockedUser(Integer.MAX_VALUE);
+
+    @State(Scope.Thread)
+    public static class Counter {
+        int operations;
+
+        boolean nextIsWrite() {
+            return ++operations % WRITE_EVERY == 0;
+        }
+    }
+
+    @Benchmark
+    public int roomVersioned(Counter counter) {
+        if (counter.nextIsWrite()) {
+            RoomState state = room.getState();
+            room.update(TYPES[(state.getRoomType().ordinal() + 1) % TYPES.length], state.getPricePerNight() + 1);
+            return 0;
+        }
+        RoomState state = room.getState();
+        return state.getRoomType().ordinal() + state.getPricePerNight();
+    }
+
+    @Benchmark
+    public int roomLocked(Counter counter) {
+        if (counter.nextIsWrite()) {
+            lockedRoom.lock.writeLock().lock();
+            try {
+                lockedRoom.roomType = TYPES[(lockedRoom.roomType.ordinal() + 1) % TYPES.length];
+                lockedRoom.pricePerNight++;
+            } finally {
+                lockedRoom.lock.writeLock().unlock();
+            }
+            return 0;
+        }
+        lockedRoom.lock.readLock().lock();
+        try {
+            return lockedRoom.roomType.ordinal() + lockedRoom.pricePerNight;
+        } finally {
+            lockedRoom.lock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    public long userVersioned(Counter counter) {
+        if (counter.nextIsWrite()) {
+            return user.deductIfCovered(1);
+        }
+        return user.getBalance();
+    }
+
+    @Benchmark
+    public long userLocked(Counter counter) {
+        if (counter.nextIsWrite()) {
+            return lockedUser.deductIfCovered(1);
+        }
+        return lockedUser.getBalance();
+    }
+
+    // ===== Lock-based baselines =====
+
+    private static final class LockedRoom {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        RoomType roomType;
+        int pricePerNight;
+
+        LockedRoom(RoomType roomType, int pricePerNight) {
+            this.roomType = roomType;
+            this.pricePerNight = pricePerNight;
+        }
+    }
+
+    private static final class LockedUser {
+        private int balance;
+        private int version;
+
+        LockedUser(int balance) {
+            this.balance = balance;
+        }
+
+        synchronized int getBalance() {
+            return balance;
+        }
+
+        synchronized long deductIfCovered(int amount) {
+            if (balance < amount) {
+                return User.NOT_DEDUCTED;
+            }
+            version++;
+            balance -= amount;
+            return balance + amount;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.exceptions.InvalidBookingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests for the availability bitmap behind bookRoom and findAvailableRooms.
+ * Verifies it agrees with the booking calendars inside the horizon and hands over to them outside it.
+ */
+class AvailabilityIndexTest {
+    private static final LocalDate HORIZON = LocalDate.of(2026, 1, 1);
+
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        service = new Service();
+        service.setAvailabilityHorizon(HORIZON);
+        for (int room = 1; room <= 30; room++) {
+            service.setRoom(room, RoomType.values()[room % 3], 100 * room);
+        }
+        service.setUser(1, 1_000_000_000);
+    }
+
+    @Test
+    void shouldAgreeWithCalendarsForRandomBookingsAndCancellations() {
+        Random random = new Random(7);
+        List<Integer> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            if (!bookingIds.isEmpty() && random.nextInt(10) < 3) {
+                service.cancelBooking(bookingIds.remove(random.nextInt(bookingIds.size())));
+                continue;
+            }
+            LocalDate checkIn = HORIZON.plusDays(random.nextInt(700));
+            try {
+                bookingIds.add(service.bookRoom(1, 1 + random.nextInt(30), checkIn,
+                        checkIn.plusDays(1 + random.nextInt(20))));
+            } catch (InvalidBookingException e) {
+                // Overlaps an earlier stay
+            }
+        }
+
+        List<List<Integer>> fromBitmap = searches(new Random(11));
+        // A horizon far away sends every search to the booking calendars
+        service.setAvailabilityHorizon(HORIZON.plusYears(20));
+        List<List<Integer>> fromCalendars = searches(new Random(11));
+
+        assertEquals(fromCalendars, fromBitmap);
+    }
+
+    @Test
+    void shouldCheckStaysAcrossWordBoundaries() {
+        // Nights 63 and 64 of the horizon sit in different bitmap words
+        LocalDate night63 = HORIZON.plusDays(63);
+        service.bookRoom(1, 1, night63, night63.plusDays(2));
+
+        assertThrows(InvalidBookingException.class, () -> service.bookRoom(1, 1, night63.plusDays(1), night63.plusDays(3)));
+        assertThrows(InvalidBookingException.class, () -> service.bookRoom(1, 1, HORIZON, HORIZON.plusDays(200)));
+        service.bookRoom(1, 1, night63.minusDays(5), night63);
+        service.bookRoom(1, 1, night63.plusDays(2), night63.plusDays(3));
+    }
+
+    @Test
+    void shouldFollowRoomTypeChangesAndStaysBeyondHorizon() {
+        LocalDate checkIn = HORIZON.plusDays(10);
+        service.bookRoom(1, 3, checkIn, checkIn.plusDays(2));
+        service.setRoom(3, RoomType.JUNIOR, 50);
+
+        assertEquals(List.of(1, 4, 7, 10, 13, 16, 19, 22, 25, 28, 3),
+                roomNumbers(service.findAvailableRooms(RoomType.JUNIOR, checkIn.plusDays(2), checkIn.plusDays(3))));
+        assertFalse(roomNumbers(service.findAvailableRooms(RoomType.JUNIOR, checkIn, checkIn.plusDays(1))).contains(3));
+        assertFalse(roomNumbers(service.findAvailableRooms(RoomType.STANDARD, checkIn, checkIn.plusDays(5))).contains(3));
+
+        // Starts inside the horizon, ends past it
+        LocalDate late = HORIZON.plusDays(725);
+        service.bookRoom(1, 4, late, late.plusDays(10));
+        assertFalse(roomNumbers(service.findAvailableRooms(RoomType.JUNIOR, late, late.plusDays(5))).contains(4));
+        assertFalse(roomNumbers(service.findAvailableRooms(RoomType.JUNIOR, late.plusDays(1), late.plusDays(2))).contains(4));
+    }
+
+    @Test
+    void shouldNeverShowBookedRoomsWhileTheHorizonMoves() throws InterruptedException {
+        LocalDate checkIn = HORIZON.plusDays(100);
+        for (int room = 1; room <= 30; room++) {
+            service.bookRoom(1, room, checkIn, checkIn.plusDays(2));
+        }
+
+        // Searches take no room lock, so they run right through each rebuild
+        AtomicBoolean sawBookedRoom = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread searcher = new Thread(() -> {
+            while (!done.get()) {
+                for (RoomType type : RoomType.values()) {
+                    if (!service.findAvailableRooms(type, checkIn, checkIn.plusDays(2)).isEmpty()) {
+                        sawBookedRoom.set(true);
+                    }
+                }
+            }
+        });
+        searcher.start();
+        for (int i = 0; i < 200; i++) {
+            service.setAvailabilityHorizon(HORIZON.plusDays(i % 2));
+        }
+        done.set(true);
+        searcher.join();
+
+        assertFalse(sawBookedRoom.get());
+    }
+
+    // ===== Private Helpers =====
+
+    private List<List<Integer>> searches(Random random) {
+        List<List<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            LocalDate checkIn = HORIZON.plusDays(random.nextInt(700));
+            RoomType type = RoomType.values()[random.nextInt(3)];
+            results.add(roomNumbers(service.findAvailableRooms(type, 100 * (1 + random.nextInt(30)),
+                    checkIn, checkIn.plusDays(1 + random.nextInt(20)))));
+        }
+        return results;
+    }
+
+    private static List<Integer> roomNumbers(List<Room> rooms) {
+        List<Integer> numbers = new ArrayList<>();
+        rooms.forEach(room -> numbers.add(room.getRoomNumber()));
+        return numbers;
+    }
+}
@@ -0,0 +1,141 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.exceptions.BookingNotFoundException;
+import com.hotelreservation.exceptions.InsufficientBalanceException;
+import com.hotelreservation.exceptions.InvalidBookingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for booking cancellation and modification.
+ * Verifies refunds, freed dates, repricing at the booked rate, and replay of both.
+ */
+class BookingCancellationTest {
+    private static final LocalDate JULY_7 = LocalDate.of(2026, 7, 7);
+    private static final LocalDate JULY_9 = LocalDate.of(2026, 7, 9);
+
+    @TempDir
+    Path directory;
+
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        service = new Service();
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setUser(1, 5000);
+    }
+
+    @Test
+    void shouldRefundAndFreeDatesWhenCancelled() {
+        int bookingId = service.bookRoom(1, 1, JULY_7, JULY_9);
+
+        assertEquals(2000, service.cancelBooking(bookingId));
+
+        assertEquals(5000, service.getUsers().get(0).getBalance());
+        assertTrue(service.getBookings().isEmpty());
+        assertTrue(service.findBooking(bookingId).isEmpty());
+        assertEquals(1, service.findAvailableRooms(RoomType.STANDARD, JULY_7, JULY_9).size());
+        assertEquals(0, service.getOccupancy(RoomType.STANDARD, JULY_7, JULY_9).getRoomNightsSold());
+        assertThrows(BookingNotFoundException.class, () -> service.cancelBooking(bookingId));
+    }
+
+    @Test
+    void shouldChargeDifferenceAtBookedPriceWhenModified() {
+        int bookingId = service.bookRoom(1, 1, JULY_7, JULY_9);
+        service.setRoom(1, RoomType.SUITE, 9000);
+
+        // 2 nights become 3, still at the 1000 booked
+        int movedId = service.modifyBooking(bookingId, JULY_9, JULY_9.plusDays(3));
+
+        assertEquals(2000, service.getUsers().get(0).getBalance());
+        Booking moved = service.findBooking(movedId).orElseThrow();
+        assertEquals(RoomType.STANDARD, moved.getRoomTypeAtBooking());
+        assertEquals(1000, moved.getPricePerNightAtBooking());
+        assertEquals(5000, moved.getUserBalanceAtBooking());
+        assertTrue(service.findBooking(bookingId).isEmpty());
+        assertEquals(1, service.getBookings().size());
+    }
+
+    @Test
+    void shouldLeaveBookingUntouchedWhenModificationIsRefused() {
+        int first = service.bookRoom(1, 1, JULY_7, JULY_9);
+        service.bookRoom(1, 1, JULY_9, JULY_9.plusDays(1));
+
+        // Overlapping itself is fine, overlapping the next stay is not
+        int shifted = service.modifyBooking(first, JULY_7.minusDays(1), JULY_9.minusDays(1));
+        assertThrows(InvalidBookingException.class,
+                () -> service.modifyBooking(shifted, JULY_7, JULY_9.plusDays(1)));
+        assertThrows(InsufficientBalanceException.class,
+                () -> service.modifyBooking(shifted, JULY_7.minusDays(30), JULY_7));
+
+        assertEquals(2000, service.getUsers().get(0).getBalance());
+        assertEquals(2, service.getBookings().size());
+        assertTrue(service.findBooking(shifted).isPresent());
+    }
+
+    @Test
+    void shouldMatchNightByNightModelUnderRandomBookingsAndCancellations() {
+        // Past the availability horizon, so the room's calendar alone decides
+        LocalDate base = LocalDate.now().plusYears(5);
+        service.setRoom(2, RoomType.STANDARD, 1);
+        service.setUser(2, 1_000_000_000);
+        Random random = new Random(3);
+        boolean[] taken = new boolean[400];
+        List<int[]> stays = new ArrayList<>();  // {bookingId, first night, nights}
+
+        for (int i = 0; i < 5000; i++) {
+            if (!stays.isEmpty() && random.nextInt(10) < 4) {
+                int[] stay = stays.remove(random.nextInt(stays.size()));
+                service.cancelBooking(stay[0]);
+                Arrays.fill(taken, stay[1], stay[1] + stay[2], false);
+                continue;
+            }
+            int first = random.nextInt(390);
+            int nights = 1 + random.nextInt(10);
+            boolean free = true;
+            for (int night = first; night < first + nights; night++) {
+                free &= !taken[night];
+            }
+            LocalDate checkIn = base.plusDays(first);
+            if (free) {
+                stays.add(new int[] {service.bookRoom(2, 2, checkIn, checkIn.plusDays(nights)), first, nights});
+                Arrays.fill(taken, first, first + nights, true);
+            } else {
+                assertThrows(InvalidBookingException.class, () -> service.bookRoom(2, 2, checkIn, checkIn.plusDays(nights)));
+            }
+        }
+    }
+
+    @Test
+    void shouldReplayCancellationsAndModificationsAfterCheckpoint() throws IOException {
+        try (Service durable = Service.openStore(directory)) {
+            durable.setRoom(1, RoomType.STANDARD, 1000);
+            durable.setUser(1, 10000);
+            int cancelled = durable.bookRoom(1, 1, JULY_7, JULY_9);
+            int moved = durable.bookRoom(1, 1, JULY_9, JULY_9.plusDays(1));
+            durable.checkpoint();
+            durable.cancelBooking(cancelled);
+            durable.modifyBooking(moved, JULY_9, JULY_9.plusDays(2));
+        }
+
+        try (Service restored = Service.openStore(directory)) {
+            assertEquals(1, restored.getBookings().size());
+            assertEquals(JULY_9.plusDays(2), restored.getBookings().get(0).getCheckOut());
+            assertEquals(8000, restored.getUsers().get(0).getBalance());
+            assertEquals(1, restored.findAvailableRooms(RoomType.STANDARD, JULY_7, JULY_9).size());
+        }
+    }
+}
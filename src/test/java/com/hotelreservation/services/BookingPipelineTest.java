@@ -0,0 +1,171 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.enums.BookingStatus;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.pipeline.AvailabilitySnapshot;
+import com.hotelreservation.pipeline.BookingPipeline;
+import com.hotelreservation.pipeline.RoomView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for BookingPipeline.
+ * Verifies mutations apply in order through futures and reads see published snapshots.
+ */
+class BookingPipelineTest {
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 7, 7);
+    private static final LocalDate CHECK_OUT = LocalDate.of(2026, 7, 9);
+
+    @TempDir
+    Path directory;
+
+    private BookingPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = BookingPipeline.start(1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.close();
+    }
+
+    @Test
+    void shouldApplyMutationsInSubmissionOrder() {
+        // Not joined in between: the writer must keep enqueue order
+        pipeline.setRoom(1, RoomType.STANDARD, 1000);
+        pipeline.setUser(1, 5000);
+        CompletableFuture<BookingStatus> first = pipeline.bookRoom(1, 1, CHECK_IN, CHECK_OUT);
+        CompletableFuture<BookingStatus> overlapping = pipeline.bookRoom(1, 1, CHECK_IN.plusDays(1), CHECK_OUT);
+        CompletableFuture<BookingStatus> unknownRoom = pipeline.bookRoom(1, 9, CHECK_IN, CHECK_OUT);
+
+        assertEquals(BookingStatus.SUCCESS, first.join());
+        assertEquals(BookingStatus.ROOM_UNAVAILABLE, overlapping.join());
+        assertEquals(BookingStatus.ROOM_NOT_FOUND, unknownRoom.join());
+    }
+
+    @Test
+    void shouldPublishSnapshotBeforeCompletingFutures() {
+        pipeline.setRoom(1, RoomType.STANDARD, 1000);
+        pipeline.setRoom(2, RoomType.STANDARD, 3000);
+        pipeline.setUser(1, 5000).join();
+        AvailabilitySnapshot before = pipeline.snapshot();
+
+        assertEquals(BookingStatus.SUCCESS, pipeline.bookRoom(1, 1, CHECK_IN, CHECK_OUT).join());
+
+        AvailabilitySnapshot after = pipeline.snapshot();
+        assertEquals(List.of(2), roomNumbers(pipeline.findAvailableRooms(RoomType.STANDARD, CHECK_IN, CHECK_OUT)));
+        assertEquals(1, after.findAvailableRooms(RoomType.STANDARD, 2000, CHECK_OUT, CHECK_OUT.plusDays(1)).size());
+        // Older snapshots are immutable
+        assertEquals(2, before.findAvailableRooms(RoomType.STANDARD, Integer.MAX_VALUE, CHECK_IN, CHECK_OUT).size());
+        assertTrue(after.getSequence() > before.getSequence());
+    }
+
+    @Test
+    void shouldNotDoubleBookUnderConcurrentSubmitters() throws Exception {
+        pipeline.setRoom(1, RoomType.STANDARD, 1000);
+        for (int userId = 1; userId <= 8; userId++) {
+            pipeline.setUser(userId, 10000);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<BookingStatus>> results = new ArrayList<>();
+        for (int userId = 1; userId <= 8; userId++) {
+            int id = userId;
+            results.add(executor.submit(() -> pipeline.bookRoom(id, 1, CHECK_IN, CHECK_OUT).join()));
+        }
+        int successes = 0;
+        for (Future<BookingStatus> result : results) {
+            if (result.get() == BookingStatus.SUCCESS) {
+                successes++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, successes);
+        assertTrue(pipeline.findAvailableRooms(RoomType.STANDARD, CHECK_IN, CHECK_OUT).isEmpty());
+    }
+
+    @Test
+    void shouldApplyQueuedMutationsOnCloseAndRejectLaterOnes() {
+        pipeline.setRoom(1, RoomType.STANDARD, 1000);
+        CompletableFuture<Void> queued = pipeline.setUser(1, 100);
+
+        pipeline.close();
+
+        assertTrue(queued.isDone());
+        assertEquals(1, pipeline.snapshot().getRoomCount());
+        assertThrows(IllegalStateException.class, () -> pipeline.setUser(2, 100));
+    }
+
+    @Test
+    void shouldCompleteEveryFutureWhenCloseRacesSubmitters() throws Exception {
+        BookingPipeline small = BookingPipeline.start(4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<CompletableFuture<Void>>>> submitters = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            submitters.add(executor.submit(() -> {
+                List<CompletableFuture<Void>> submitted = new ArrayList<>();
+                try {
+                    for (int userId = 0; ; userId++) {
+                        submitted.add(small.setUser(userId, 100));
+                    }
+                } catch (IllegalStateException closed) {
+                    return submitted;
+                }
+            }));
+        }
+        Thread.sleep(20);
+        small.close();
+
+        // No submitter stays stuck on the full ring, and no future is left pending
+        for (Future<List<CompletableFuture<Void>>> submitter : submitters) {
+            for (CompletableFuture<Void> future : submitter.get(5, TimeUnit.SECONDS)) {
+                assertTrue(future.isDone());
+            }
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldRestoreJournaledStateAfterRestart() throws IOException {
+        Path journal = directory.resolve("hotel.journal");
+
+        try (BookingPipeline durable = BookingPipeline.open(journal, 64)) {
+            durable.setRoom(1, RoomType.SUITE, 2000);
+            durable.setUser(1, 10000);
+            durable.bookRoom(1, 1, CHECK_IN, CHECK_OUT).join();
+        }
+
+        try (Service restored = Service.open(journal)) {
+            assertEquals(1, restored.getBookings().size());
+            assertEquals(6000, restored.getUsers().get(0).getBalance());
+        }
+        try (BookingPipeline reopened = BookingPipeline.open(journal, 64)) {
+            assertTrue(reopened.findAvailableRooms(RoomType.SUITE, CHECK_IN, CHECK_OUT).isEmpty());
+        }
+    }
+
+    // ===== Private Helpers =====
+
+    private static List<Integer> roomNumbers(List<RoomView> rooms) {
+        List<Integer> numbers = new ArrayList<>();
+        rooms.forEach(room -> numbers.add(room.getRoomNumber()));
+        return numbers;
+    }
+}
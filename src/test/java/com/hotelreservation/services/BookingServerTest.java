@@ -0,0 +1,112 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.server.BookingServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Tests for the socket front end.
+ * Verifies the line protocol and both backpressure limits.
+ */
+class BookingServerTest {
+    private Service service;
+    private BookingServer server;
+
+    @BeforeEach
+    void setUp() {
+        service = new Service();
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setRoom(2, RoomType.STANDARD, 1500);
+        service.setUser(1, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void shouldServeLineProtocol() throws IOException {
+        server = BookingServer.start(service, 0, 16, 16, 1000);
+        try (Connection connection = new Connection(server.getPort())) {
+            assertEquals("OK", connection.send("PING"));
+            assertEquals("OK", connection.send("BOOK 1 1 2026-07-01 2026-07-03"));
+            assertEquals("ERR ROOM_UNAVAILABLE", connection.send("BOOK 1 1 2026-07-02 2026-07-04"));
+            assertEquals("ERR INSUFFICIENT_BALANCE", connection.send("BOOK 1 2 2026-08-01 2026-08-10"));
+            assertEquals("ERR INVALID_DATES", connection.send("BOOK 1 2 2026-08-01 2026-08-01"));
+            assertEquals("OK 2", connection.send("AVAILABLE STANDARD 2026-07-01 2026-07-02"));
+            assertEquals("OK", connection.send("ROOM 3 SUITE 4000"));
+            assertEquals("OK", connection.send("USER 2 9000"));
+            // A retried BOOK with an idempotency key books once
+            assertEquals("OK", connection.send("BOOK 2 3 2026-09-01 2026-09-02 retry-1"));
+            assertEquals("OK", connection.send("BOOK 2 3 2026-09-01 2026-09-02 retry-1"));
+            assertEquals("ERR BAD_REQUEST", connection.send("BOOK 2 3 2026-09-01 2026-09-03 retry-1"));
+            assertEquals("ERR BAD_REQUEST", connection.send("BOOK 1 x 2026-07-01 2026-07-02"));
+            assertEquals("ERR BAD_REQUEST", connection.send("ROOM 4 PENTHOUSE 100"));
+            assertEquals("ERR BAD_REQUEST", connection.send("CANCEL 1"));
+        }
+
+        assertEquals(2, service.getBookings().size());
+        assertEquals(3000, service.getUsers().get(0).getBalance());
+        assertEquals(5000, service.getUsers().get(1).getBalance());
+        assertEquals(LocalDate.of(2026, 7, 3), service.getBookings().get(0).getCheckOut());
+        assertEquals(3, service.getRooms().size());
+    }
+
+    @Test
+    void shouldRejectConnectionsBeyondLimit() throws IOException {
+        server = BookingServer.start(service, 0, 1, 16, 1000);
+        try (Connection first = new Connection(server.getPort())) {
+            assertEquals("OK", first.send("PING"));
+            try (Connection second = new Connection(server.getPort())) {
+                assertEquals("ERR BUSY", second.in.readLine());
+                assertNull(second.in.readLine());
+            }
+        }
+    }
+
+    @Test
+    void shouldAnswerBusyWhenNoRequestSlotFrees() throws IOException {
+        server = BookingServer.start(service, 0, 16, 0, 10);
+        try (Connection connection = new Connection(server.getPort())) {
+            assertEquals("ERR BUSY", connection.send("BOOK 1 1 2026-07-01 2026-07-03"));
+        }
+        assertTrue(service.getBookings().isEmpty());
+    }
+
+    private static final class Connection implements AutoCloseable {
+        final Socket socket;
+        final BufferedReader in;
+        final PrintWriter out;
+
+        Connection(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+        }
+
+        String send(String request) throws IOException {
+            out.print(request + "\n");
+            out.flush();
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
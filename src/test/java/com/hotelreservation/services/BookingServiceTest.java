@@ -1,10 +1,22 @@
 package com.hotelreservation.services;
 
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.enums.BookingStatus;
 import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.exceptions.InsufficientBalanceException;
+import com.hotelreservation.exceptions.InvalidBookingException;
+import com.hotelreservation.exceptions.RoomNotFoundException;
+import com.hotelreservation.exceptions.UserNotFoundException;
+import com.hotelreservation.persistence.Journal;
+import com.hotelreservation.repositories.ColumnarBookingRepository;
+import com.hotelreservation.repositories.RoomRepository;
+import com.hotelreservation.repositories.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Tests for booking business rules and validation logic.
@@ -69,4 +81,131 @@ class BookingServiceTest {
             service.bookRoom(1, 1, LocalDate.of(2026, 7, 8), LocalDate.of(2026, 7, 11));
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldAllowBackToBackBookings() {
+        // Check-out day of one stay is the check-in day of the next
+        service.bookRoom(1, 1, LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 10));
+        service.bookRoom(1, 1, LocalDate.of(2026, 7, 10), LocalDate.of(2026, 7, 12));
+        service.bookRoom(1, 1, LocalDate.of(2026, 7, 5), LocalDate.of(2026, 7, 7));
+
+        assertEquals(3, service.getBookings().size());
+    }
+
+    @Test
+    void shouldFailWhenRequestedStayEnclosesExistingBooking() {
+        service.bookRoom(1, 1, LocalDate.of(2026, 7, 8), LocalDate.of(2026, 7, 9));
+        service.bookRoom(1, 1, LocalDate.of(2026, 7, 20), LocalDate.of(2026, 7, 21));
+
+        assertThrows(RuntimeException.class, () -> {
+            service.bookRoom(1, 1, LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 15));
+        });
+        // Other rooms are unaffected
+        service.bookRoom(1, 2, LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 3));
+    }
+
+    @Test
+    void shouldFindAvailableRoomsByTypeAndPrice() {
+        service.setRoom(3, RoomType.STANDARD, 1500);
+        service.setRoom(4, RoomType.STANDARD, 3000);
+        service.bookRoom(1, 1, LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 9));
+
+        List<Room> free = service.findAvailableRooms(RoomType.STANDARD,
+                LocalDate.of(2026, 7, 8), LocalDate.of(2026, 7, 10));
+        assertEquals(List.of(3, 4), free.stream().map(Room::getRoomNumber).toList());
+
+        List<Room> affordable = service.findAvailableRooms(RoomType.STANDARD, 2000,
+                LocalDate.of(2026, 7, 9), LocalDate.of(2026, 7, 10));
+        assertEquals(List.of(1, 3), affordable.stream().map(Room::getRoomNumber).toList());
+    }
+
+    @Test
+    void shouldSearchRoomsByUpdatedType() {
+        service.setRoom(1, RoomType.SUITE, 5000);
+
+        assertTrue(service.findAvailableRooms(RoomType.STANDARD,
+                LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 8)).isEmpty());
+        assertEquals(1, service.findAvailableRooms(RoomType.SUITE,
+                LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 8)).size());
+    }
+
+    @Test
+    void shouldBookGroupOfRoomsWithSingleCharge() {
+        // 2 nights × (1000 + 2000) = 6000
+        service.bookRooms(1, List.of(1, 2), LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 9));
+
+        assertEquals(2, service.getBookings().size());
+        assertEquals(14000, service.getUsers().get(0).getBalance());
+        assertEquals(20000, service.getBookings().get(1).getUserBalanceAtBooking());
+    }
+
+    @Test
+    void shouldLeaveNoPartialStateWhenGroupBookingFails() {
+        service.setRoom(3, RoomType.SUITE, 3000);
+        service.bookRoom(1, 3, LocalDate.of(2026, 7, 8), LocalDate.of(2026, 7, 9));
+
+        // Room 3 overlaps, so rooms 1 and 2 must not be booked either
+        assertThrows(RuntimeException.class, () -> {
+            service.bookRooms(1, List.of(1, 2, 3), LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 9));
+        });
+        assertEquals(1, service.getBookings().size());
+        assertEquals(17000, service.getUsers().get(0).getBalance());
+
+        // Summed cost 7 nights × 3000 exceeds the remaining balance
+        assertThrows(RuntimeException.class, () -> {
+            service.bookRooms(1, List.of(1, 2), LocalDate.of(2026, 8, 1), LocalDate.of(2026, 8, 8));
+        });
+        assertEquals(1, service.getBookings().size());
+    }
+
+    @Test
+    void shouldBehaveTheSameWithColumnarStorage() {
+        Service columnar = new Service(new RoomRepository(), new UserRepository(),
+                new ColumnarBookingRepository(), Journal.NONE);
+        columnar.setRoom(1, RoomType.STANDARD, 1000);
+        columnar.setUser(1, 20000);
+
+        columnar.bookRoom(1, 1, LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 10));
+        assertThrows(RuntimeException.class, () -> {
+            columnar.bookRoom(1, 1, LocalDate.of(2026, 7, 8), LocalDate.of(2026, 7, 11));
+        });
+        columnar.setRoom(1, RoomType.SUITE, 5000);
+
+        Booking booking = columnar.getBookings().get(0);
+        assertEquals(LocalDate.of(2026, 7, 7), booking.getCheckIn());
+        assertEquals(LocalDate.of(2026, 7, 10), booking.getCheckOut());
+        assertEquals(RoomType.STANDARD, booking.getRoomTypeAtBooking());
+        assertEquals(1000, booking.getPricePerNightAtBooking());
+        assertEquals(20000, booking.getUserBalanceAtBooking());
+        assertEquals(17000, columnar.getUsers().get(0).getBalance());
+    }
+
+    @Test
+    void shouldReportRefusalsAsStatusWithoutChangingState() {
+        LocalDate july7 = LocalDate.of(2026, 7, 7);
+        assertEquals(BookingStatus.SUCCESS, service.tryBookRoom(1, 1, july7, july7.plusDays(3)));
+
+        assertEquals(BookingStatus.ROOM_UNAVAILABLE, service.tryBookRoom(1, 1, july7.plusDays(1), july7.plusDays(4)));
+        assertEquals(BookingStatus.INSUFFICIENT_BALANCE, service.tryBookRoom(1, 2, july7, july7.plusDays(30)));
+        assertEquals(BookingStatus.ROOM_NOT_FOUND, service.tryBookRoom(1, 99, july7, july7.plusDays(1)));
+        assertEquals(BookingStatus.USER_NOT_FOUND, service.tryBookRoom(99, 1, july7, july7.plusDays(1)));
+        assertEquals(BookingStatus.INVALID_DATES, service.tryBookRoom(1, 2, july7, july7));
+
+        assertEquals(1, service.getBookings().size());
+        assertEquals(17000, service.getUsers().get(0).getBalance());
+    }
+
+    @Test
+    void shouldThrowMatchingExceptionTypes() {
+        LocalDate july7 = LocalDate.of(2026, 7, 7);
+        service.bookRoom(1, 1, july7, july7.plusDays(3));
+
+        assertThrows(InvalidBookingException.class, () -> service.bookRoom(1, 1, july7, july7.plusDays(1)));
+        assertThrows(InvalidBookingException.class, () -> service.bookRoom(1, 2, july7, july7.minusDays(1)));
+        assertThrows(RoomNotFoundException.class, () -> service.bookRoom(1, 99, july7, july7.plusDays(1)));
+        assertThrows(UserNotFoundException.class, () -> service.bookRoom(99, 1, july7, july7.plusDays(1)));
+        InsufficientBalanceException e = assertThrows(InsufficientBalanceException.class,
+                () -> service.bookRoom(1, 2, july7, july7.plusDays(30)));
+        assertEquals("Insufficient balance. Required: 60000, Available: 17000", e.getMessage());
+    }
+}
@@ -0,0 +1,151 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.entities.User;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.reports.ReportFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+/**
+ * Tests for bulk CSV import of rooms and users.
+ * Verifies round trips through the exported CSV, upserts, range boundaries and durability.
+ */
+class BulkImportTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldImportExportedRoomsAndUsers() throws IOException {
+        Service source = new Service();
+        source.setRoom(1, RoomType.STANDARD, 1000);
+        source.setRoom(2, RoomType.SUITE, 3000);
+        source.setRoom(3, RoomType.JUNIOR, 2000);
+        source.setUser(1, 5000);
+        source.setUser(-2, -10);
+        Path rooms = directory.resolve("rooms.csv");
+        Path users = directory.resolve("users.csv");
+        try (Writer out = Files.newBufferedWriter(rooms)) {
+            source.exportRooms(out, ReportFormat.CSV);
+        }
+        try (Writer out = Files.newBufferedWriter(users)) {
+            source.exportUsers(out, ReportFormat.CSV);
+        }
+
+        Path journal = directory.resolve("journal.log");
+        try (Service target = Service.open(journal)) {
+            target.setRoom(2, RoomType.STANDARD, 1);
+            assertEquals(3, target.importRooms(rooms));
+            assertEquals(2, target.importUsers(users));
+
+            assertEquals(3, target.getRooms().size());
+            assertEquals(1, target.findAvailableRooms(RoomType.SUITE, LocalDate.of(2026, 7, 1),
+                    LocalDate.of(2026, 7, 2)).size());
+        }
+
+        try (Service restored = Service.open(journal)) {
+            // Room 2 was stored first, so it keeps insertion position 0
+            Room suite = restored.findRooms(0, 1).getItems().get(0);
+            assertEquals(2, suite.getRoomNumber());
+            assertEquals(RoomType.SUITE, suite.getRoomType());
+            assertEquals(3000, suite.getPricePerNight());
+            // The others follow in the order they were added to the source, not the file's
+            assertEquals(List.of(2, 1, 3), restored.getRooms().stream().map(Room::getRoomNumber).toList());
+            List<User> restoredUsers = restored.getUsers();
+            assertEquals(1, restoredUsers.get(0).getUserId());
+            assertEquals(5000, restoredUsers.get(0).getBalance());
+            assertEquals(-2, restoredUsers.get(1).getUserId());
+            assertEquals(-10, restoredUsers.get(1).getBalance());
+        }
+    }
+
+    @Test
+    void shouldKeepOrderAcrossExportAndImportRoundTrips() throws IOException {
+        Service source = new Service();
+        for (int room = 1; room <= 10; room++) {
+            source.setRoom(room, RoomType.values()[room % 3], 100 * room);
+        }
+        source.setRoom(4, RoomType.values()[1], 50);  // repriced, keeps its place
+        Path rooms = directory.resolve("rooms.csv");
+        try (Writer out = Files.newBufferedWriter(rooms)) {
+            source.exportRooms(out, ReportFormat.CSV);
+        }
+
+        Service target = new Service();
+        assertEquals(10, target.importRooms(rooms));
+
+        assertEquals(roomNumbers(source.getRooms()), roomNumbers(target.getRooms()));
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        for (RoomType type : RoomType.values()) {
+            assertEquals(roomNumbers(source.findAvailableRooms(type, checkIn, checkIn.plusDays(1))),
+                    roomNumbers(target.findAvailableRooms(type, checkIn, checkIn.plusDays(1))));
+        }
+    }
+
+    @Test
+    void shouldApplyLinesInFileOrderAcrossRanges() throws IOException {
+        // About 17 MB, so the file is split into several ranges
+        int users = 1_000_000;
+        Path csv = directory.resolve("users.csv");
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.US_ASCII)) {
+            for (int id = 1; id <= users; id++) {
+                out.write(id + "," + (id * 3) + "\r\n");
+            }
+            out.write("7,-1");  // duplicate, without a final newline
+        }
+
+        Service service = new Service();
+        assertEquals(users + 1, service.importUsers(csv));
+
+        List<User> imported = service.getUsers();
+        assertEquals(users, imported.size());
+        for (int i = 0; i < users; i++) {
+            User user = imported.get(i);
+            assertEquals(i + 1, user.getUserId());
+            assertEquals(user.getUserId() == 7 ? -1 : user.getUserId() * 3, user.getBalance());
+        }
+
+        // With a header the file is an export, latest first, and is applied from the end
+        Path exported = directory.resolve("exported.csv");
+        try (BufferedWriter out = Files.newBufferedWriter(exported, StandardCharsets.US_ASCII)) {
+            out.write("user_id,balance\n7,-1\n");
+            for (int id = users; id >= 1; id--) {
+                out.write(id + "," + (id * 3) + "\n");
+            }
+        }
+        Service fromExport = new Service();
+        assertEquals(users + 1, fromExport.importUsers(exported));
+        imported = fromExport.getUsers();
+        for (int i = 0; i < users; i++) {
+            User user = imported.get(i);
+            assertEquals(i + 1, user.getUserId());
+            assertEquals(user.getUserId() == 7 ? -1 : user.getUserId() * 3, user.getBalance());
+        }
+    }
+
+    @Test
+    void shouldRejectMalformedLines() throws IOException {
+        Path csv = directory.resolve("rooms.csv");
+        Files.writeString(csv, "room_number,room_type,price_per_night\n1,STANDARD,100\n2,PENTHOUSE,900\n");
+
+        Service service = new Service();
+        IOException e = assertThrows(IOException.class, () -> service.importRooms(csv));
+        assertTrue(e.getMessage().startsWith("Malformed CSV line at byte 55"));
+        assertThrows(IOException.class, () -> service.importUsers(csv));
+    }
+
+    // ===== Private Helpers =====
+
+    private static List<Integer> roomNumbers(List<Room> rooms) {
+        return rooms.stream().map(Room::getRoomNumber).toList();
+    }
+}
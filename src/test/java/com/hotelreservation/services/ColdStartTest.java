@@ -0,0 +1,66 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.enums.RoomType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures cold-start time from a snapshot of a large synthetic history.
+ * Size defaults to 1M bookings; run with -Dcoldstart.bookings=10000000 for the full-scale check.
+ */
+class ColdStartTest {
+    private static final int ROOMS = 10_000;
+    private static final int GROUP_SIZE = 1_000;
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldStartFromSnapshotQuickly() throws IOException {
+        int bookings = Integer.getInteger("coldstart.bookings", 1_000_000);
+        int nights = bookings / ROOMS;
+        Path store = directory.resolve("store");
+
+        try (Service service = Service.openStore(store)) {
+            for (int room = 1; room <= ROOMS; room++) {
+                service.setRoom(room, RoomType.values()[room % 3], 100);
+            }
+            service.setUser(1, Integer.MAX_VALUE);
+
+            // One night per booking, booked in groups so the journal syncs once per group
+            for (int night = 0; night < nights; night++) {
+                LocalDate checkIn = START.plusDays(night);
+                for (int first = 1; first <= ROOMS; first += GROUP_SIZE) {
+                    List<Integer> group = new ArrayList<>(GROUP_SIZE);
+                    for (int room = first; room < first + GROUP_SIZE; room++) {
+                        group.add(room);
+                    }
+                    service.bookRooms(1, group, checkIn, checkIn.plusDays(1));
+                }
+            }
+            service.checkpoint();
+        }
+
+        long started = System.nanoTime();
+        try (Service restored = Service.openStore(store)) {
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            System.out.printf("Cold start with %d bookings: %d ms%n", nights * ROOMS, elapsedMillis);
+
+            assertEquals(nights * ROOMS, restored.getBookings().size());
+            assertEquals(ROOMS, restored.getRooms().size());
+            assertThrows(RuntimeException.class, () -> {
+                restored.bookRoom(1, ROOMS, START, START.plusDays(1));
+            });
+            // Loading is linear in live state only; generous bound to stay stable on slow machines
+            assertTrue(elapsedMillis < 60_000, "Cold start took " + elapsedMillis + " ms");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.User;
+import com.hotelreservation.enums.RoomType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Multi-threaded stress test for the booking engine.
+ * Verifies no double booking and no balance drift under heavy contention.
+ */
+class ConcurrentBookingTest {
+    private static final int THREADS = 48;
+    private static final int ATTEMPTS_PER_THREAD = 2000;
+    private static final int ROOMS = 40;
+    private static final int USERS = 16;
+    private static final int INITIAL_BALANCE = 40_000;
+    private static final LocalDate START = LocalDate.of(2026, 7, 1);
+
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        service = new Service();
+        RoomType[] types = RoomType.values();
+        for (int room = 1; room <= ROOMS; room++) {
+            service.setRoom(room, types[room % types.length], 100 * (1 + room % 5));
+        }
+        for (int user = 1; user <= USERS; user++) {
+            service.setUser(user, INITIAL_BALANCE);
+        }
+    }
+
+    @Test
+    void shouldNeverDoubleBookOrDriftBalancesUnderContention() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            results.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int succeeded = 0;
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    int userId = 1 + random.nextInt(USERS);
+                    int roomNumber = 1 + random.nextInt(ROOMS);
+                    LocalDate checkIn = START.plusDays(random.nextInt(90));
+                    LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(4));
+                    try {
+                        service.bookRoom(userId, roomNumber, checkIn, checkOut);
+                        succeeded++;
+                    } catch (RuntimeException expected) {
+                        // Overlap or insufficient balance
+                    }
+                }
+                return succeeded;
+            }));
+        }
+
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Integer> result : results) {
+            succeeded += result.get();
+        }
+        pool.shutdown();
+
+        List<Booking> bookings = service.getBookings();
+        assertEquals(succeeded, bookings.size());
+        assertTrue(succeeded > 0);
+
+        // No two bookings of the same room overlap
+        Map<Integer, List<Booking>> byRoom = new HashMap<>();
+        for (Booking b : bookings) {
+            byRoom.computeIfAbsent(b.getRoomNumber(), k -> new ArrayList<>()).add(b);
+        }
+        for (List<Booking> roomBookings : byRoom.values()) {
+            roomBookings.sort(Comparator.comparing(Booking::getCheckIn));
+            for (int i = 1; i < roomBookings.size(); i++) {
+                assertFalse(roomBookings.get(i).getCheckIn().isBefore(roomBookings.get(i - 1).getCheckOut()),
+                        "Double booking on room " + roomBookings.get(i).getRoomNumber());
+            }
+        }
+
+        // Every charge is accounted for and no balance went negative
+        Map<Integer, Long> spent = new HashMap<>();
+        for (Booking b : bookings) {
+            long nights = ChronoUnit.DAYS.between(b.getCheckIn(), b.getCheckOut());
+            spent.merge(b.getUserId(), nights * b.getPricePerNightAtBooking(), Long::sum);
+        }
+        for (User user : service.getUsers()) {
+            assertTrue(user.getBalance() >= 0);
+            assertEquals(INITIAL_BALANCE - spent.getOrDefault(user.getUserId(), 0L), user.getBalance());
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.TypeReservation;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.persistence.Journal;
+import com.hotelreservation.repositories.ListBookingRepository;
+import com.hotelreservation.repositories.RoomRepository;
+import com.hotelreservation.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Tests journal persistence: state survives a restart and a torn tail is discarded.
+ */
+class DurabilityTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRestoreStateAfterRestart() throws IOException {
+        Path journal = directory.resolve("hotel.journal");
+
+        try (Service service = Service.open(journal)) {
+            service.setRoom(1, RoomType.STANDARD, 1000);
+            service.setRoom(2, RoomType.JUNIOR, 2000);
+            service.setUser(1, 20000);
+            service.bookRoom(1, 1, LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 9));
+            service.bookRooms(1, List.of(1, 2), LocalDate.of(2026, 7, 10), LocalDate.of(2026, 7, 11));
+            service.setRoom(1, RoomType.SUITE, 5000);
+        }
+
+        try (Service restored = Service.open(journal)) {
+            assertEquals(2, restored.getRooms().size());
+            assertEquals(RoomType.SUITE, restored.getRooms().get(0).getRoomType());
+            assertEquals(3, restored.getBookings().size());
+            assertEquals(RoomType.STANDARD, restored.getBookings().get(0).getRoomTypeAtBooking());
+            // 20000 - 2 × 1000 - (1000 + 2000)
+            assertEquals(15000, restored.getUsers().get(0).getBalance());
+
+            // Restored bookings still block overlapping stays
+            assertThrows(RuntimeException.class, () -> {
+                restored.bookRoom(1, 1, LocalDate.of(2026, 7, 8), LocalDate.of(2026, 7, 10));
+            });
+        }
+    }
+
+    @Test
+    void shouldChangeNothingWhenABookingCannotBeJournaled() {
+        FailingJournal journal = new FailingJournal();
+        Service service = new Service(new RoomRepository(), new UserRepository(),
+                new ListBookingRepository(), journal);
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setUser(1, 5000);
+        // Inside the availability horizon, so the bitmap and the type inventory are claimed too
+        LocalDate checkIn = LocalDate.now().plusDays(7);
+        LocalDate checkOut = checkIn.plusDays(2);
+
+        journal.failing = true;
+        assertThrows(UncheckedIOException.class, () -> service.bookRoom(1, 1, checkIn, checkOut));
+
+        // Nothing the journal lacks is visible: no booking, no charge, nights and hold handed back
+        assertTrue(service.getBookings().isEmpty());
+        assertTrue(service.findBookingsByUser(1).isEmpty());
+        assertEquals(5000, service.getUsers().get(0).getBalance());
+        assertEquals(0, service.getOccupancy(RoomType.STANDARD, checkIn, checkOut).getRoomNightsSold());
+        assertEquals(1, service.findAvailableRooms(RoomType.STANDARD, checkIn, checkOut).size());
+        assertEquals(1, service.countAvailableStays(RoomType.STANDARD, checkIn, checkOut));
+
+        journal.failing = false;
+        service.bookRoom(1, 1, checkIn, checkOut);
+        assertEquals(3000, service.getUsers().get(0).getBalance());
+    }
+
+    @Test
+    void shouldDiscardTornTailAndKeepAppending() throws IOException {
+        Path journal = directory.resolve("hotel.journal");
+
+        try (Service service = Service.open(journal)) {
+            service.setRoom(1, RoomType.STANDARD, 1000);
+            service.setUser(1, 5000);
+            service.bookRoom(1, 1, LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 8));
+        }
+
+        // Simulate a crash in the middle of writing a booking record
+        Files.write(journal, new byte[] {3, 0, 0, 0, 1, 0, 0}, StandardOpenOption.APPEND);
+
+        try (Service service = Service.open(journal)) {
+            assertEquals(1, service.getBookings().size());
+            service.bookRoom(1, 1, LocalDate.of(2026, 7, 8), LocalDate.of(2026, 7, 9));
+        }
+
+        try (Service restored = Service.open(journal)) {
+            assertEquals(2, restored.getBookings().size());
+            assertEquals(3000, restored.getUsers().get(0).getBalance());
+        }
+    }
+
+    @Test
+    void shouldRestoreFromSnapshotAndCompactOldSegments() throws IOException {
+        Path store = directory.resolve("store");
+
+        try (Service service = Service.openStore(store)) {
+            service.setRoom(1, RoomType.STANDARD, 1000);
+            service.setUser(1, 20000);
+            service.bookRoom(1, 1, LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 9));
+            service.checkpoint();
+
+            // Written after the snapshot, so only the newest segment holds it
+            service.bookRoom(1, 1, LocalDate.of(2026, 7, 9), LocalDate.of(2026, 7, 10));
+            service.bookRoom(1, 1, LocalDate.of(2026, 7, 3), LocalDate.of(2026, 7, 4));
+            service.checkpoint();
+            service.setRoom(1, RoomType.SUITE, 4000);
+        }
+
+        try (Stream<Path> files = Files.list(store)) {
+            assertEquals(List.of("journal-0000000000000003.log", "snapshot-0000000000000003.snap"),
+                    files.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+
+        try (Service restored = Service.openStore(store)) {
+            assertEquals(3, restored.getBookings().size());
+            assertEquals(16000, restored.getUsers().get(0).getBalance());
+            // The snapshot keeps the order bookings were made in
+            assertEquals(List.of(LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 9), LocalDate.of(2026, 7, 3)),
+                    restored.getBookings().stream().map(Booking::getCheckIn).toList());
+            assertEquals(RoomType.SUITE, restored.getRooms().get(0).getRoomType());
+            assertThrows(RuntimeException.class, () -> {
+                restored.bookRoom(1, 1, LocalDate.of(2026, 7, 8), LocalDate.of(2026, 7, 9));
+            });
+        }
+    }
+
+    // Fails booking appends on demand, as a journal whose disk write failed does
+    private static final class FailingJournal implements Journal {
+        volatile boolean failing;
+
+        @Override
+        public long appendRoom(int roomNumber, RoomType roomType, int pricePerNight) {
+            return 0;
+        }
+
+        @Override
+        public long appendUser(int userId, int balance) {
+            return 0;
+        }
+
+        @Override
+        public long appendBooking(Booking booking) {
+            if (failing) {
+                throw new UncheckedIOException("Journal write failed", new IOException("Disk full"));
+            }
+            return 0;
+        }
+
+        @Override
+        public long appendCancel(Booking booking) {
+            return 0;
+        }
+
+        @Override
+        public long appendModify(Booking cancelled, Booking replacement) {
+            return 0;
+        }
+
+        @Override
+        public long appendReservation(int reservationId, TypeReservation reservation) {
+            return 0;
+        }
+
+        @Override
+        public long appendCancelReservation(int reservationId) {
+            return 0;
+        }
+
+        @Override
+        public long appendCheckIn(int reservationId, Booking booking) {
+            return 0;
+        }
+
+        @Override
+        public long appendOverbookingAllowance(RoomType roomType, int allowance) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long position) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
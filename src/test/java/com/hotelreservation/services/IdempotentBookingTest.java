@@ -0,0 +1,158 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.enums.BookingStatus;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.exceptions.InsufficientBalanceException;
+import com.hotelreservation.metrics.CacheStats;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests idempotent booking.
+ * Verifies that retries get the original outcome without booking again, that concurrent
+ * duplicates see IN_PROGRESS, and that the cache stays bounded and forgets expired keys,
+ * but never a request that is still running.
+ */
+class IdempotentBookingTest {
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 7, 1);
+    private static final LocalDate CHECK_OUT = LocalDate.of(2026, 7, 3);
+
+    @Test
+    void shouldReplayOriginalOutcomeForRetries() {
+        Service service = new Service();
+        service.setRoom(1, RoomType.STANDARD, 100);
+        service.setRoom(2, RoomType.SUITE, 1000);
+        service.setUser(1, 1000);
+
+        int booked = service.bookRoom("req-1", 1, 1, CHECK_IN, CHECK_OUT);
+        assertEquals(booked, service.bookRoom("req-1", 1, 1, CHECK_IN, CHECK_OUT));
+        assertEquals(BookingStatus.SUCCESS, service.tryBookRoom("req-1", 1, 1, CHECK_IN, CHECK_OUT));
+        assertEquals(1, service.getBookings().size());
+        assertEquals(800, service.getUsers().get(0).getBalance());
+
+        // A refusal is replayed too, even once it would no longer apply
+        assertThrows(InsufficientBalanceException.class, () ->
+                service.bookRoom("req-2", 1, 2, CHECK_IN, CHECK_OUT));
+        service.setUser(1, 5000);
+        assertEquals(BookingStatus.INSUFFICIENT_BALANCE,
+                service.tryBookRoom("req-2", 1, 2, CHECK_IN, CHECK_OUT));
+        assertEquals(BookingStatus.SUCCESS, service.tryBookRoom("req-3", 1, 2, CHECK_IN, CHECK_OUT));
+
+        // The same key for a different stay is a client error
+        assertThrows(IllegalArgumentException.class, () ->
+                service.bookRoom("req-1", 1, 1, CHECK_IN, CHECK_OUT.plusDays(1)));
+        assertEquals(BookingStatus.KEY_REUSED, service.tryBookRoom("req-1", 1, 1, CHECK_IN, CHECK_OUT.plusDays(1)));
+
+        CacheStats stats = service.getIdempotencyCacheStats();
+        assertEquals(3, stats.getMisses());
+        assertEquals(3, stats.getHits());
+        assertEquals(3, stats.getSize());
+    }
+
+    @Test
+    void shouldReportInProgressUntilCompletedOrAbandoned() {
+        IdempotencyCache cache = new IdempotencyCache();
+        long key = IdempotencyCache.hash("req-1");
+
+        assertEquals(IdempotencyCache.NEW, cache.begin(key, 7));
+        assertEquals(IdempotencyCache.IN_PROGRESS, cache.begin(key, 7));
+        cache.complete(key, 42);
+        assertEquals(42, cache.begin(key, 7));
+
+        // An abandoned request runs again on retry
+        long other = IdempotencyCache.hash("req-2");
+        assertEquals(IdempotencyCache.NEW, cache.begin(other, 7));
+        cache.abandon(other);
+        assertEquals(IdempotencyCache.NEW, cache.begin(other, 7));
+        assertEquals(42, cache.begin(key, 7));
+    }
+
+    @Test
+    void shouldNeverEvictOrExpireRunningRequests() {
+        // Two entries per stripe
+        AtomicLong now = new AtomicLong();
+        IdempotencyCache cache = new IdempotencyCache(128, Duration.ofHours(1), now::get);
+        long[] keys = keysInOneStripe(4);
+
+        assertEquals(IdempotencyCache.NEW, cache.begin(keys[0], 0));
+        assertEquals(IdempotencyCache.NEW, cache.begin(keys[1], 1));
+        cache.complete(keys[1], 1);
+        // The stripe is full: the completed entry makes room, the running one stays
+        assertEquals(IdempotencyCache.NEW, cache.begin(keys[2], 2));
+        assertEquals(IdempotencyCache.IN_PROGRESS, cache.begin(keys[0], 0));
+        assertEquals(1, cache.stats().getEvictions());
+
+        // Full of running requests, the stripe claims nothing more
+        assertEquals(IdempotencyCache.BUSY, cache.begin(keys[3], 3));
+        cache.complete(keys[2], 2);
+        assertEquals(IdempotencyCache.NEW, cache.begin(keys[3], 3));
+        cache.complete(keys[3], 3);
+        // The completed request was the one evicted, so it runs again
+        assertEquals(IdempotencyCache.NEW, cache.begin(keys[1], 1));
+
+        // Past the time to live a running request is still remembered
+        now.addAndGet(Duration.ofHours(2).toNanos());
+        assertEquals(IdempotencyCache.IN_PROGRESS, cache.begin(keys[0], 0));
+        assertEquals(IdempotencyCache.KEY_REUSED, cache.begin(keys[0], 5));
+        cache.complete(keys[0], 42);
+        assertEquals(42, cache.begin(keys[0], 0));
+
+        // In a stripe with room to spare the running entry moves to a free slot
+        IdempotencyCache roomy = new IdempotencyCache(256, Duration.ofHours(1), now::get);
+        assertEquals(IdempotencyCache.NEW, roomy.begin(keys[0], 0));
+        assertEquals(IdempotencyCache.NEW, roomy.begin(keys[1], 1));
+        roomy.complete(keys[1], 1);
+        now.addAndGet(Duration.ofHours(2).toNanos());
+        assertEquals(IdempotencyCache.NEW, roomy.begin(keys[2], 2));
+        assertEquals(2, roomy.size());
+        assertEquals(IdempotencyCache.IN_PROGRESS, roomy.begin(keys[0], 0));
+        roomy.complete(keys[0], 7);
+        assertEquals(7, roomy.begin(keys[0], 0));
+    }
+
+    @Test
+    void shouldStayBoundedAndExpireOldKeys() {
+        int capacity = 1 << 14;
+        int requests = 100_000;
+        AtomicLong now = new AtomicLong();
+        IdempotencyCache cache = new IdempotencyCache(capacity, Duration.ofHours(1), now::get);
+
+        for (int i = 0; i < requests; i++) {
+            long key = IdempotencyCache.hash("req-" + i);
+            assertEquals(IdempotencyCache.NEW, cache.begin(key, i));
+            cache.complete(key, i);
+            now.addAndGet(1_000);
+        }
+        CacheStats stats = cache.stats();
+        assertEquals(capacity, stats.getSize());
+        assertEquals(requests - capacity, stats.getEvictions());
+
+        // The most recent keys are all still answered, across evictions and index shifts
+        for (int i = requests - 1000; i < requests; i++) {
+            assertEquals(i, cache.begin(IdempotencyCache.hash("req-" + i), i));
+        }
+
+        // Past the time to live they are forgotten
+        now.addAndGet(Duration.ofHours(1).toNanos());
+        assertEquals(IdempotencyCache.NEW, cache.begin(IdempotencyCache.hash("req-" + (requests - 1)), 0));
+    }
+
+    // ===== Private Helpers =====
+
+    // Hashes of distinct keys that share the first key's stripe
+    private static long[] keysInOneStripe(int count) {
+        long[] keys = new long[count];
+        keys[0] = IdempotencyCache.hash("req-0");
+        for (int i = 1, found = 1; found < count; i++) {
+            long key = IdempotencyCache.hash("req-" + i);
+            if (key >>> 58 == keys[0] >>> 58) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,128 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.analytics.OccupancyReport;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.pricing.RateRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for occupancy, ADR and RevPAR analytics.
+ * Verifies per-day counters, snapshot pricing, parallel recomputation and restore on restart.
+ */
+class OccupancyAnalyticsTest {
+    private static final LocalDate JULY_1 = LocalDate.of(2026, 7, 1);
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        service = new Service();
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setRoom(2, RoomType.STANDARD, 1000);
+        service.setRoom(3, RoomType.SUITE, 5000);
+        service.setUser(1, 100000);
+    }
+
+    @Test
+    void shouldReportOccupancyAdrAndRevParPerDay() {
+        // Room 1: Jul 1-4 at 1000; room 2: Jul 3-5 at 1500 after a price change
+        service.bookRoom(1, 1, JULY_1, JULY_1.plusDays(3));
+        service.setRoom(2, RoomType.STANDARD, 1500);
+        service.bookRoom(1, 2, JULY_1.plusDays(2), JULY_1.plusDays(4));
+
+        OccupancyReport report = service.getOccupancy(RoomType.STANDARD, JULY_1, JULY_1.plusDays(5));
+
+        assertEquals(2, report.getRoomCount());
+        assertArrayEquals(new long[]{1, 1, 2, 1, 0}, soldPerDay(report));
+        assertEquals(0.5, report.getOccupancyRate(0));
+        assertEquals(1.0, report.getOccupancyRate(2));
+        assertEquals(1250.0, report.getAverageDailyRate(2));
+        assertEquals(1250.0, report.getRevPar(2));
+        assertEquals(0.0, report.getAverageDailyRate(4));
+
+        // 5 room nights sold out of 10, revenue 3000 + 3000
+        assertEquals(5, report.getRoomNightsSold());
+        assertEquals(6000, report.getRevenue());
+        assertEquals(0.5, report.getOccupancyRate());
+        assertEquals(1200.0, report.getAverageDailyRate());
+        assertEquals(600.0, report.getRevPar());
+        assertEquals(0, service.getOccupancy(RoomType.SUITE, JULY_1, JULY_1.plusDays(5)).getRoomNightsSold());
+    }
+
+    @Test
+    void shouldCountExactlyWhatWasChargedUnderRateRules() {
+        // First night at 1.5x: 1500 + 1000 + 1000, which does not split evenly over three nights
+        service.setRateRules(JULY_1, List.of(RateRule.season(JULY_1, JULY_1.plusDays(1), 1.5)));
+        int bookingId = service.bookRoom(1, 1, JULY_1, JULY_1.plusDays(3));
+        assertEquals(3500, service.findBooking(bookingId).orElseThrow().getTotalPrice());
+
+        OccupancyReport report = service.getOccupancy(RoomType.STANDARD, JULY_1, JULY_1.plusDays(3));
+        assertEquals(3500, report.getRevenue());
+        assertEquals(1168, report.getRevenue(2));
+        assertEquals(report.getRevenue(),
+                service.recomputeOccupancy(RoomType.STANDARD, JULY_1, JULY_1.plusDays(3)).getRevenue());
+
+        service.cancelBooking(bookingId);
+        assertEquals(0, service.getOccupancy(RoomType.STANDARD, JULY_1, JULY_1.plusDays(3)).getRevenue());
+    }
+
+    @Test
+    void shouldMatchParallelRecomputation() {
+        Service large = new Service();
+        RoomType[] types = RoomType.values();
+        for (int room = 1; room <= 500; room++) {
+            large.setRoom(room, types[room % types.length], 100 + room);
+        }
+        large.setUser(1, Integer.MAX_VALUE);
+
+        // Stays spread over ten years, so the day range grows in both directions
+        Random random = new Random(7);
+        for (int i = 0; i < 40_000; i++) {
+            LocalDate checkIn = JULY_1.plusDays(random.nextInt(3650) - 1825);
+            try {
+                large.bookRoom(1, 1 + random.nextInt(500), checkIn, checkIn.plusDays(1 + random.nextInt(7)));
+            } catch (RuntimeException overlapping) {
+                // Taken dates are skipped
+            }
+        }
+
+        LocalDate from = JULY_1.minusYears(6);
+        LocalDate to = JULY_1.plusYears(6);
+        for (RoomType type : types) {
+            OccupancyReport incremental = large.getOccupancy(type, from, to);
+            OccupancyReport recomputed = large.recomputeOccupancy(type, from, to);
+            assertTrue(incremental.getRoomNightsSold() > 0);
+            assertArrayEquals(soldPerDay(recomputed), soldPerDay(incremental));
+            assertEquals(recomputed.getRevenue(), incremental.getRevenue());
+        }
+    }
+
+    @Test
+    void shouldRestoreAnalyticsAfterRestart(@TempDir Path directory) throws Exception {
+        try (Service durable = Service.openStore(directory)) {
+            durable.setRoom(1, RoomType.SUITE, 5000);
+            durable.setUser(1, 100000);
+            durable.bookRoom(1, 1, JULY_1, JULY_1.plusDays(2));
+        }
+
+        try (Service restored = Service.openStore(directory)) {
+            OccupancyReport report = restored.getOccupancy(RoomType.SUITE, JULY_1, JULY_1.plusDays(2));
+            assertEquals(1.0, report.getOccupancyRate());
+            assertEquals(10000, report.getRevenue());
+        }
+    }
+
+    private static long[] soldPerDay(OccupancyReport report) {
+        long[] sold = new long[report.getDays()];
+        for (int day = 0; day < sold.length; day++) {
+            sold[day] = report.getRoomNightsSold(day);
+        }
+        return sold;
+    }
+}
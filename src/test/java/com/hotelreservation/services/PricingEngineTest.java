@@ -0,0 +1,138 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.enums.BookingStatus;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.exceptions.InsufficientBalanceException;
+import com.hotelreservation.pricing.RateRule;
+import com.hotelreservation.pricing.RateTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Tests dynamic pricing.
+ * Verifies that stacked seasonal and weekday rules price stays per night, that occupancy
+ * rules follow refreshed occupancy, and that the total charged survives a restart.
+ */
+class PricingEngineTest {
+    private static final LocalDate HORIZON_START = LocalDate.of(2026, 7, 1);
+    // Thursday to Monday: nights of Thursday, Friday, Saturday and Sunday
+    private static final LocalDate THURSDAY = LocalDate.of(2026, 7, 9);
+    private static final LocalDate MONDAY = LocalDate.of(2026, 7, 13);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldChargeStackedSeasonAndWeekendRates() {
+        Service service = new Service();
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setRoom(2, RoomType.SUITE, 1000);
+        service.setUser(1, 20000);
+        service.setRateRules(HORIZON_START, weekendAndSummerRules());
+
+        int standard = service.bookRoom(1, 1, THURSDAY, MONDAY);
+        int suite = service.bookRoom(1, 2, THURSDAY, MONDAY);
+
+        // Standard: 1.2 × (1000 + 1500 + 1500 + 1000); suite gets the weekend rate only
+        assertEquals(6000, service.findBooking(standard).orElseThrow().getTotalPrice());
+        assertEquals(5000, service.findBooking(suite).orElseThrow().getTotalPrice());
+        assertEquals(1000, service.findBooking(suite).orElseThrow().getPricePerNightAtBooking());
+        assertEquals(9000, service.getUsers().get(0).getBalance());
+
+        // Refunds return exactly what was charged, even after the rules are gone
+        service.setRateRules(HORIZON_START, List.of());
+        assertEquals(6000, service.cancelBooking(standard));
+        assertEquals(15000, service.getUsers().get(0).getBalance());
+        assertEquals(RateTable.FLAT, service.getRateTable());
+    }
+
+    @Test
+    void shouldApplyOccupancyRulesFromLastRefresh() {
+        Service service = new Service();
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setRoom(2, RoomType.STANDARD, 1000);
+        service.setUser(1, 20000);
+        service.bookRoom(1, 1, THURSDAY, THURSDAY.plusDays(2));
+        service.setRateRules(HORIZON_START, List.of(RateRule.occupancyAtLeast(0.5, 2.0)));
+
+        // Half the rooms are taken on Thursday and Friday, none on Saturday
+        assertEquals(RateTable.BASE_RATE * 2, service.getRateTable().getRate(RoomType.STANDARD, THURSDAY));
+        int booking = service.bookRoom(1, 2, THURSDAY, THURSDAY.plusDays(3));
+        assertEquals(2000 + 2000 + 1000, service.findBooking(booking).orElseThrow().getTotalPrice());
+
+        // Saturday's surge only applies once the table is recompiled
+        LocalDate saturday = THURSDAY.plusDays(2);
+        assertEquals(RateTable.BASE_RATE, service.getRateTable().getRate(RoomType.STANDARD, saturday));
+        service.refreshRates(HORIZON_START);
+        assertEquals(RateTable.BASE_RATE * 2, service.getRateTable().getRate(RoomType.STANDARD, saturday));
+    }
+
+    @Test
+    void shouldKeepChargedTotalsAcrossSnapshotAndJournal() throws IOException {
+        Path store = directory.resolve("store");
+
+        try (Service service = Service.openStore(store)) {
+            service.setRoom(1, RoomType.STANDARD, 1000);
+            service.setUser(1, 20000);
+            service.setRateRules(HORIZON_START, weekendAndSummerRules());
+            service.bookRoom(1, 1, THURSDAY, MONDAY);
+            service.checkpoint();
+            int moved = service.bookRoom(1, 1, MONDAY, MONDAY.plusDays(1));
+            service.modifyBooking(moved, MONDAY, MONDAY.plusDays(2));
+        }
+
+        try (Service restored = Service.openStore(store)) {
+            List<Booking> bookings = restored.getBookings();
+            assertEquals(2, bookings.size());
+            assertEquals(6000, bookings.get(0).getTotalPrice());
+            assertEquals(2400, bookings.get(1).getTotalPrice());
+            assertEquals(20000 - 6000 - 2400, restored.getUsers().get(0).getBalance());
+
+            // The snapshot's booking is replayed first, so it is id 0 again
+            assertEquals(6000, restored.cancelBooking(0));
+            assertEquals(20000 - 2400, restored.getUsers().get(0).getBalance());
+        }
+    }
+
+    @Test
+    void shouldRefuseStaysCostingMoreThanAnyBalance() {
+        Service service = new Service();
+        service.setRoom(1, RoomType.SUITE, 100_000);
+        service.setRoom(2, RoomType.SUITE, 100_000);
+        service.setUser(1, Integer.MAX_VALUE);
+        service.setRateRules(HORIZON_START, List.of(
+                RateRule.season(HORIZON_START, HORIZON_START.plusYears(3), 100)));
+
+        // 730 nights at 100 × 100000 alone come to 7.3 billion, past Integer.MAX_VALUE
+        LocalDate checkOut = HORIZON_START.plusYears(3);
+        assertThrows(InsufficientBalanceException.class, () -> service.bookRoom(1, 1, HORIZON_START, checkOut));
+        assertEquals(BookingStatus.INSUFFICIENT_BALANCE, service.tryBookRoom(1, 1, HORIZON_START, checkOut));
+        assertThrows(InsufficientBalanceException.class, () ->
+                service.bookRooms(1, List.of(1, 2), HORIZON_START, checkOut));
+
+        int booking = service.bookRoom(1, 1, HORIZON_START, HORIZON_START.plusDays(1));
+        assertThrows(InsufficientBalanceException.class, () -> service.modifyBooking(booking, HORIZON_START, checkOut));
+
+        // Nothing was credited or booked along the way
+        assertEquals(Integer.MAX_VALUE - 10_000_000, service.getUsers().get(0).getBalance());
+        assertEquals(1, service.getBookings().size());
+        assertEquals(10_000_000, service.findBooking(booking).orElseThrow().getTotalPrice());
+    }
+
+    // ===== Private Helpers =====
+
+    private static List<RateRule> weekendAndSummerRules() {
+        return List.of(
+                RateRule.daysOfWeek(EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY), 1.5),
+                RateRule.season(RoomType.STANDARD, HORIZON_START, HORIZON_START.plusMonths(2), 1.2));
+    }
+}
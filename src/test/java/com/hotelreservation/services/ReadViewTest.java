@@ -0,0 +1,102 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.repositories.BookingSnapshot;
+import com.hotelreservation.repositories.Page;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * Tests for paginated reads and booking snapshots.
+ * Verifies latest-first order, stable cursors, and that snapshots ignore later changes.
+ */
+class ReadViewTest {
+    private static final LocalDate JULY_1 = LocalDate.of(2026, 7, 1);
+    private static final int ROOMS = 300;
+
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        service = new Service();
+        service.setUser(1, Integer.MAX_VALUE);
+        for (int room = 1; room <= ROOMS; room++) {
+            service.setRoom(room, RoomType.STANDARD, 100);
+            service.bookRoom(1, room, JULY_1, JULY_1.plusDays(2));
+        }
+    }
+
+    @Test
+    void shouldPageLatestFirstWithStableCursors() {
+        Page<Room> first = service.findRooms(Page.FIRST, 100);
+        assertEquals(300, first.getItems().get(0).getRoomNumber());
+        assertEquals(201, first.getItems().get(99).getRoomNumber());
+
+        // Rooms added between pages go in front and never shift the next page
+        service.setRoom(ROOMS + 1, RoomType.SUITE, 500);
+        List<Integer> rest = new ArrayList<>();
+        int cursor = first.getNextCursor();
+        while (cursor >= 0) {
+            Page<Room> page = service.findRooms(cursor, 64);
+            page.getItems().forEach(room -> rest.add(room.getRoomNumber()));
+            cursor = page.getNextCursor();
+        }
+        assertEquals(200, rest.size());
+        assertEquals(200, rest.get(0));
+        assertEquals(1, rest.get(199));
+
+        assertEquals(1, service.findUsers(Page.FIRST, 10).getItems().size());
+        assertFalse(service.findUsers(Page.FIRST, 10).hasNext());
+        assertThrows(IllegalArgumentException.class, () -> service.findBookings(Page.FIRST, 0));
+    }
+
+    @Test
+    void shouldSkipCancelledBookingsWhenPaging() {
+        // Booking ids are 0-299, for rooms 1-300
+        service.cancelBooking(298);
+        service.cancelBooking(150);
+
+        Page<Booking> page = service.findBookings(Page.FIRST, 2);
+        assertEquals(300, page.getItems().get(0).getRoomNumber());
+        assertEquals(298, page.getItems().get(1).getRoomNumber());
+
+        int count = page.getItems().size();
+        while (page.hasNext()) {
+            page = service.findBookings(page.getNextCursor(), 100);
+            count += page.getItems().size();
+        }
+        assertEquals(ROOMS - 2, count);
+    }
+
+    @Test
+    void shouldIgnoreChangesMadeAfterSnapshot() {
+        service.cancelBooking(10);
+        BookingSnapshot snapshot = service.snapshotBookings();
+
+        service.bookRoom(1, 1, JULY_1.plusDays(5), JULY_1.plusDays(6));
+        service.cancelBooking(0);
+        service.cancelBooking(200);
+
+        assertEquals(ROOMS - 1, snapshot.size());
+        List<Integer> iterated = new ArrayList<>();
+        for (Booking booking : snapshot) {
+            iterated.add(booking.getRoomNumber());
+        }
+        List<Integer> visited = new ArrayList<>();
+        snapshot.forEach((userId, roomNumber, checkInDay, checkOutDay, type, price, total, balance) ->
+                visited.add(roomNumber));
+
+        assertEquals(ROOMS - 1, iterated.size());
+        assertEquals(iterated, visited);
+        assertEquals(300, iterated.get(0));
+        assertEquals(1, iterated.get(ROOMS - 2));
+        assertFalse(iterated.contains(11));
+        assertEquals(ROOMS - 2, service.getBookings().size());
+    }
+}
@@ -0,0 +1,130 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.reports.ReportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests for streamed report export.
+ * Verifies the text report matches the original printf layout and the CSV columns.
+ */
+class ReportExportTest {
+    private static final String N = System.lineSeparator();
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        service = new Service();
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setRoom(2, RoomType.SUITE, 3000);
+        service.setUser(1, 20000);
+        service.setUser(2, 10000);
+        service.bookRoom(1, 1, LocalDate.of(2026, 6, 30), LocalDate.of(2026, 7, 7));
+        service.bookRoom(2, 2, LocalDate.of(1999, 12, 31), LocalDate.of(2000, 1, 2));
+    }
+
+    @Test
+    void shouldPrintSameTextAsFormattedOutput() {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        PrintStream legacy = new PrintStream(expected);
+        legacy.println("\n=== ALL ROOMS (Latest First) ===");
+        legacy.printf("Room %d | Type: %s | Price: %d/night%n", 2, RoomType.SUITE, 3000);
+        legacy.printf("Room %d | Type: %s | Price: %d/night%n", 1, RoomType.STANDARD, 1000);
+        legacy.println("\n=== ALL BOOKINGS (Latest First) ===");
+        legacy.printf("Booking | User: %d | Room: %d | %s to %s (%d nights)%n",
+                2, 2, LocalDate.of(1999, 12, 31), LocalDate.of(2000, 1, 2), 2);
+        legacy.printf("  → Booked as: %s @ %d/night | Total: %d | User balance was: %d%n",
+                RoomType.SUITE, 3000, 6000, 10000);
+        legacy.printf("Booking | User: %d | Room: %d | %s to %s (%d nights)%n",
+                1, 1, LocalDate.of(2026, 6, 30), LocalDate.of(2026, 7, 7), 7);
+        legacy.printf("  → Booked as: %s @ %d/night | Total: %d | User balance was: %d%n",
+                RoomType.STANDARD, 1000, 7000, 20000);
+        legacy.println("\n=== ALL USERS (Latest First) ===");
+        legacy.printf("User %d | Balance: %d%n", 2, 4000);
+        legacy.printf("User %d | Balance: %d%n", 1, 13000);
+        legacy.flush();
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(actual));
+        try {
+            service.printAll();
+            service.printAllUsers();
+        } finally {
+            System.setOut(original);
+        }
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void shouldExportCsvLatestFirst() {
+        StringWriter rooms = new StringWriter();
+        StringWriter bookings = new StringWriter();
+        StringWriter users = new StringWriter();
+
+        service.exportRooms(rooms, ReportFormat.CSV);
+        service.exportBookings(bookings, ReportFormat.CSV);
+        service.exportUsers(users, ReportFormat.CSV);
+
+        assertEquals("room_number,room_type,price_per_night" + N
+                + "2,SUITE,3000" + N
+                + "1,STANDARD,1000" + N, rooms.toString());
+        assertEquals("user_id,room_number,check_in,check_out,nights,room_type,price_per_night,total,"
+                + "user_balance_at_booking" + N
+                + "2,2,1999-12-31,2000-01-02,2,SUITE,3000,6000,10000" + N
+                + "1,1,2026-06-30,2026-07-07,7,STANDARD,1000,7000,20000" + N, bookings.toString());
+        assertEquals("user_id,balance" + N
+                + "2,4000" + N
+                + "1,13000" + N, users.toString());
+    }
+
+    @Test
+    void shouldNotBlockBookingsWhileWritingToTheSink() throws Exception {
+        service.setRoom(3, RoomType.STANDARD, 10);
+        service.setUser(3, 1_000_000);
+        LocalDate day = LocalDate.of(2027, 1, 1);
+        // Enough rows to fill the writer's buffer, so the sink is written mid-export
+        for (int i = 0; i < 4000; i++) {
+            service.bookRoom(3, 3, day.plusDays(i), day.plusDays(i + 1));
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicBoolean bookedWhileWriting = new AtomicBoolean();
+        Writer slowSink = new StringWriter() {
+            @Override
+            public void write(char[] chars, int offset, int length) {
+                if (!bookedWhileWriting.get()) {
+                    Future<Integer> booking = executor.submit(() ->
+                            service.bookRoom(3, 3, day.minusDays(1), day));
+                    try {
+                        booking.get(5, TimeUnit.SECONDS);
+                        bookedWhileWriting.set(true);
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Booking blocked by the export", e);
+                    }
+                }
+                super.write(chars, offset, length);
+            }
+        };
+
+        service.exportBookings(slowSink, ReportFormat.CSV);
+        executor.shutdown();
+
+        assertTrue(bookedWhileWriting.get());
+        // The export is a snapshot: the booking made during it is not in it
+        assertEquals(4003, slowSink.toString().split(N).length);
+    }
+}
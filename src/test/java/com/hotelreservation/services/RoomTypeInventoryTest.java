@@ -0,0 +1,280 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.enums.BookingStatus;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.exceptions.InsufficientBalanceException;
+import com.hotelreservation.exceptions.InvalidBookingException;
+import com.hotelreservation.metrics.ServiceMetrics.Operation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests booking by room type.
+ * Verifies that reservations stop at the type's rooms plus its overbooking allowance, share
+ * that limit with room bookings, are assigned a room and charged at check-in, and survive a restart.
+ */
+class RoomTypeInventoryTest {
+    // Inside the inventory horizon, which starts today
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(30);
+    private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(3);
+
+    @Test
+    void shouldReserveUpToRoomsPlusOverbookingAllowance() {
+        Service service = new Service();
+        service.setRoom(1, RoomType.SUITE, 500);
+        service.setRoom(2, RoomType.SUITE, 500);
+        service.setUser(1, 10000);
+        service.setOverbookingAllowance(RoomType.SUITE, 1);
+
+        int first = service.reserveRoomType(1, RoomType.SUITE, CHECK_IN, CHECK_OUT);
+        service.reserveRoomType(1, RoomType.SUITE, CHECK_IN, CHECK_OUT);
+        service.reserveRoomType(1, RoomType.SUITE, CHECK_IN.plusDays(2), CHECK_OUT.plusDays(2));
+        assertEquals(0, service.countAvailableStays(RoomType.SUITE, CHECK_IN, CHECK_OUT));
+        assertThrows(InvalidBookingException.class, () ->
+                service.reserveRoomType(1, RoomType.SUITE, CHECK_IN.plusDays(1), CHECK_IN.plusDays(4)));
+
+        // Room bookings count against the same limit: both suites are free, but sold
+        assertThrows(InvalidBookingException.class, () -> service.bookRoom(1, 1, CHECK_IN, CHECK_OUT));
+        assertEquals(10000, service.getUsers().get(0).getBalance());
+
+        service.cancelReservation(first);
+        assertEquals(1, service.countAvailableStays(RoomType.SUITE, CHECK_IN, CHECK_OUT));
+        service.bookRoom(1, 1, CHECK_IN, CHECK_OUT);
+        assertEquals(0, service.countAvailableStays(RoomType.SUITE, CHECK_IN, CHECK_OUT));
+    }
+
+    @Test
+    void shouldAssignRoomAndChargeAtCheckIn() {
+        Service service = new Service();
+        service.setRoom(1, RoomType.JUNIOR, 200);
+        service.setRoom(2, RoomType.STANDARD, 100);
+        service.setUser(1, 1000);
+        service.setUser(2, 100);
+        service.setOverbookingAllowance(RoomType.JUNIOR, 1);
+
+        int guest = service.reserveRoomType(1, RoomType.JUNIOR, CHECK_IN, CHECK_OUT);
+        int poorGuest = service.reserveRoomType(2, RoomType.JUNIOR, CHECK_IN, CHECK_OUT);
+        assertEquals(1000, service.getUsers().get(0).getBalance());
+
+        // Overbooked: the second guest finds no room left, and the reservation stays open
+        Booking booking = service.findBooking(service.checkIn(guest)).orElseThrow();
+        assertEquals(1, booking.getRoomNumber());
+        assertEquals(600, booking.getTotalPrice());
+        assertEquals(400, service.getUsers().get(0).getBalance());
+        assertTrue(service.findReservation(guest).isEmpty());
+        assertThrows(InvalidBookingException.class, () -> service.checkIn(poorGuest));
+        assertTrue(service.findReservation(poorGuest).isPresent());
+
+        // Cancelling the stay frees the room and its inventory again
+        service.cancelBooking(0);
+        assertEquals(1, service.countAvailableStays(RoomType.JUNIOR, CHECK_IN, CHECK_OUT));
+        assertThrows(InsufficientBalanceException.class, () -> service.checkIn(poorGuest));
+        assertTrue(service.findReservation(poorGuest).isPresent());
+        service.cancelReservation(poorGuest);
+        assertEquals(2, service.countAvailableStays(RoomType.JUNIOR, CHECK_IN, CHECK_OUT));
+    }
+
+    @Test
+    void shouldNeverReserveBeyondCapacityUnderContention() throws Exception {
+        int rooms = 20;
+        int threads = 8;
+        Service service = new Service();
+        for (int room = 1; room <= rooms; room++) {
+            service.setRoom(room, RoomType.STANDARD, 100);
+        }
+        for (int user = 1; user <= threads; user++) {
+            service.setUser(user, 0);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int userId = t + 1;
+            int offset = t % 3;
+            results.add(pool.submit(() -> {
+                int reserved = 0;
+                start.await();
+                for (int i = 0; i < 100; i++) {
+                    LocalDate checkIn = CHECK_IN.plusDays((offset + i) % 3);
+                    try {
+                        service.reserveRoomType(userId, RoomType.STANDARD, checkIn, checkIn.plusDays(2));
+                        reserved++;
+                    } catch (InvalidBookingException expected) {
+                        // Sold out
+                    }
+                }
+                return reserved;
+            }));
+        }
+        start.countDown();
+        int reserved = 0;
+        for (Future<Integer> result : results) {
+            reserved += result.get();
+        }
+        pool.shutdown();
+
+        // Each reservation holds two of the four nights; none is over capacity and night 1 is full
+        assertTrue(reserved * 2 <= rooms * 4);
+        for (int night = 0; night < 4; night++) {
+            LocalDate day = CHECK_IN.plusDays(night);
+            int available = service.countAvailableStays(RoomType.STANDARD, day, day.plusDays(1));
+            assertTrue(available >= 0, "Night " + night + ": " + available);
+        }
+        assertEquals(0, service.countAvailableStays(RoomType.STANDARD, CHECK_IN.plusDays(1), CHECK_IN.plusDays(2)));
+    }
+
+    @Test
+    void shouldRestoreReservationsAndAllowancesOnRestart(@TempDir Path store) throws IOException {
+        int checkedIn;
+        int cancelled;
+        int open;
+        int reservedLater;
+        try (Service service = Service.openStore(store)) {
+            service.setRoom(1, RoomType.SUITE, 500);
+            service.setRoom(2, RoomType.SUITE, 500);
+            service.setUser(1, 10000);
+            service.setOverbookingAllowance(RoomType.SUITE, 1);
+            checkedIn = service.reserveRoomType(1, RoomType.SUITE, CHECK_IN, CHECK_OUT);
+            cancelled = service.reserveRoomType(1, RoomType.SUITE, CHECK_IN, CHECK_OUT);
+            open = service.reserveRoomType(1, RoomType.SUITE, CHECK_IN, CHECK_OUT);
+            service.checkIn(checkedIn);
+
+            // The snapshot carries the open reservations, the journal what came after it
+            service.checkpoint();
+            service.cancelReservation(cancelled);
+            reservedLater = service.reserveRoomType(1, RoomType.SUITE, CHECK_IN, CHECK_OUT);
+            assertEquals(1, service.getMetrics().snapshot().getCalls(Operation.CANCEL_RESERVATION));
+        }
+
+        try (Service restored = Service.openStore(store)) {
+            assertTrue(restored.findReservation(checkedIn).isEmpty());
+            assertTrue(restored.findReservation(cancelled).isEmpty());
+            assertEquals(RoomType.SUITE, restored.findReservation(open).orElseThrow().getRoomType());
+            assertEquals(CHECK_OUT, restored.findReservation(reservedLater).orElseThrow().getCheckOut());
+            assertEquals(1, restored.getBookings().size());
+
+            // One booking and two reservations fill both suites and the allowance
+            assertEquals(0, restored.countAvailableStays(RoomType.SUITE, CHECK_IN, CHECK_OUT));
+            assertThrows(InvalidBookingException.class, () ->
+                    restored.reserveRoomType(1, RoomType.SUITE, CHECK_IN, CHECK_OUT));
+            restored.cancelReservation(open);
+            assertTrue(restored.reserveRoomType(1, RoomType.SUITE, CHECK_IN, CHECK_OUT) > reservedLater);
+        }
+    }
+
+    @Test
+    void shouldNeverOverbookWhileRefusedModificationsRace() throws Exception {
+        Service service = new Service();
+        service.setRoom(1, RoomType.SUITE, 500);
+        service.setUser(1, 1500);
+        service.setUser(2, 0);
+        int bookingId = service.bookRoom(1, 1, CHECK_IN, CHECK_OUT);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        CountDownLatch start = new CountDownLatch(1);
+        // The guest cannot pay for a longer stay, so every modification is refused
+        Future<?> modifications = pool.submit(() -> {
+            start.await();
+            for (int i = 0; i < 20_000; i++) {
+                assertThrows(InsufficientBalanceException.class, () ->
+                        service.modifyBooking(bookingId, CHECK_IN, CHECK_OUT.plusDays(1)));
+            }
+            return null;
+        });
+        start.countDown();
+        // The booking holds the only suite throughout, so no reservation may take it
+        int reserved = 0;
+        while (!modifications.isDone()) {
+            try {
+                service.reserveRoomType(2, RoomType.SUITE, CHECK_IN, CHECK_OUT);
+                reserved++;
+            } catch (InvalidBookingException expected) {
+                // Sold out
+            }
+        }
+        modifications.get();
+        pool.shutdown();
+
+        assertEquals(0, reserved);
+        assertEquals(0, service.countAvailableStays(RoomType.SUITE, CHECK_IN, CHECK_OUT));
+        assertEquals(1, service.countAvailableStays(RoomType.SUITE, CHECK_OUT, CHECK_OUT.plusDays(1)));
+    }
+
+    @Test
+    void shouldMoveHeldNightsWithAModifiedStay() {
+        Service service = new Service();
+        service.setRoom(1, RoomType.SUITE, 500);
+        service.setUser(1, 10000);
+        int bookingId = service.bookRoom(1, 1, CHECK_IN, CHECK_OUT);
+
+        // The only suite is sold on the overlapping nights, yet the stay can still move
+        int moved = service.modifyBooking(bookingId, CHECK_IN.plusDays(1), CHECK_OUT.plusDays(1));
+        assertEquals(1, service.countAvailableStays(RoomType.SUITE, CHECK_IN, CHECK_IN.plusDays(1)));
+        assertEquals(0, service.countAvailableStays(RoomType.SUITE, CHECK_IN.plusDays(1), CHECK_OUT.plusDays(1)));
+
+        // To dates that do not overlap at all, and back inside them
+        service.modifyBooking(moved, CHECK_OUT.plusDays(5), CHECK_OUT.plusDays(6));
+        assertEquals(1, service.countAvailableStays(RoomType.SUITE, CHECK_IN, CHECK_OUT.plusDays(1)));
+        assertEquals(0, service.countAvailableStays(RoomType.SUITE, CHECK_OUT.plusDays(5), CHECK_OUT.plusDays(6)));
+    }
+
+    @Test
+    void shouldKeepHoldOfFailedCheckInsWhileTheHorizonMoves() throws Exception {
+        Service service = new Service();
+        service.setRoom(1, RoomType.SUITE, 500);
+        service.setUser(1, 0);
+        service.setUser(2, 1_000_000);
+        int reservation = service.reserveRoomType(1, RoomType.SUITE, CHECK_IN, CHECK_OUT);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        // The guest cannot pay, so every check-in fails and the reservation stays open
+        Future<?> checkIns = pool.submit(() -> {
+            start.await();
+            for (int i = 0; i < 20_000; i++) {
+                try {
+                    service.checkIn(reservation);
+                    fail("Checked in without paying");
+                } catch (InsufficientBalanceException | InvalidBookingException expected) {
+                    // Refused, or the suite was briefly claimed by a refused room booking
+                }
+            }
+            return null;
+        });
+        Future<?> horizonMoves = pool.submit(() -> {
+            start.await();
+            while (!checkIns.isDone()) {
+                service.setAvailabilityHorizon(LocalDate.now());
+            }
+            return null;
+        });
+        start.countDown();
+        // The reservation holds the only suite throughout, so no room booking may take it
+        int booked = 0;
+        while (!checkIns.isDone()) {
+            if (service.tryBookRoom(2, 1, CHECK_IN, CHECK_OUT) == BookingStatus.SUCCESS) {
+                booked++;
+            }
+        }
+        checkIns.get();
+        horizonMoves.get();
+        pool.shutdown();
+
+        assertEquals(0, booked);
+        assertTrue(service.findReservation(reservation).isPresent());
+        assertEquals(0, service.countAvailableStays(RoomType.SUITE, CHECK_IN, CHECK_OUT));
+    }
+}
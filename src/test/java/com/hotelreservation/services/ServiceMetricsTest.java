@@ -0,0 +1,119 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.exceptions.InsufficientBalanceException;
+import com.hotelreservation.exceptions.InvalidBookingException;
+import com.hotelreservation.exceptions.RoomNotFoundException;
+import com.hotelreservation.exceptions.UserNotFoundException;
+import com.hotelreservation.metrics.HistogramSnapshot;
+import com.hotelreservation.metrics.LatencyHistogram;
+import com.hotelreservation.metrics.MetricsSnapshot;
+import com.hotelreservation.metrics.ServiceMetrics.FailureCause;
+import com.hotelreservation.metrics.ServiceMetrics.Operation;
+import com.hotelreservation.metrics.ServiceMetrics.Phase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.StringWriter;
+import java.time.LocalDate;
+
+/**
+ * Tests for service metrics.
+ * Verifies call and failure counters by cause, phase timings and histogram accuracy.
+ */
+class ServiceMetricsTest {
+    private static final LocalDate JULY_1 = LocalDate.of(2026, 7, 1);
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        service = new Service();
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setUser(1, 5000);
+    }
+
+    @Test
+    void shouldCountFailuresByCause() {
+        service.getMetrics().setPhaseSampleRate(1);
+        service.bookRoom(1, 1, JULY_1, JULY_1.plusDays(2));
+        assertThrows(InvalidBookingException.class, () -> service.bookRoom(1, 1, JULY_1, JULY_1.plusDays(1)));
+        assertThrows(InvalidBookingException.class, () -> service.bookRoom(1, 1, JULY_1, JULY_1));
+        assertThrows(RoomNotFoundException.class, () -> service.bookRoom(1, 99, JULY_1, JULY_1.plusDays(1)));
+        assertThrows(UserNotFoundException.class, () -> service.bookRoom(99, 1, JULY_1, JULY_1.plusDays(1)));
+        assertThrows(InsufficientBalanceException.class,
+                () -> service.bookRoom(1, 1, JULY_1.plusDays(5), JULY_1.plusDays(9)));
+
+        MetricsSnapshot snapshot = service.getMetrics().snapshot();
+        assertEquals(6, snapshot.getCalls(Operation.BOOK_ROOM));
+        assertEquals(5, snapshot.getFailures(Operation.BOOK_ROOM));
+        assertEquals(2, snapshot.getFailures(Operation.BOOK_ROOM, FailureCause.INVALID_BOOKING));
+        assertEquals(1, snapshot.getFailures(Operation.BOOK_ROOM, FailureCause.ROOM_NOT_FOUND));
+        assertEquals(1, snapshot.getFailures(Operation.BOOK_ROOM, FailureCause.USER_NOT_FOUND));
+        assertEquals(1, snapshot.getFailures(Operation.BOOK_ROOM, FailureCause.INSUFFICIENT_BALANCE));
+        assertEquals(6, snapshot.getLatency(Operation.BOOK_ROOM).getCount());
+        assertEquals(1, snapshot.getCalls(Operation.SET_ROOM));
+        assertEquals(1, snapshot.getCalls(Operation.SET_USER));
+
+        // Only the successful booking reaches the commit phase
+        assertEquals(1, snapshot.getPhaseLatency(Phase.COMMIT).getCount());
+        assertEquals(1, snapshot.getPhaseLatency(Phase.DURABILITY).getCount());
+    }
+
+    @Test
+    void shouldCountCheckInsOnceUnderTheirOwnOperation() {
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        service.setUser(2, 0);
+        int reservation = service.reserveRoomType(1, RoomType.STANDARD, checkIn, checkIn.plusDays(1));
+        int unpaid = service.reserveRoomType(2, RoomType.STANDARD, checkIn.plusDays(1), checkIn.plusDays(2));
+
+        service.checkIn(reservation);
+        // The room is found and tried, then refused for the balance
+        assertThrows(InsufficientBalanceException.class, () -> service.checkIn(unpaid));
+
+        MetricsSnapshot snapshot = service.getMetrics().snapshot();
+        assertEquals(2, snapshot.getCalls(Operation.CHECK_IN));
+        assertEquals(1, snapshot.getFailures(Operation.CHECK_IN, FailureCause.INSUFFICIENT_BALANCE));
+        assertEquals(0, snapshot.getCalls(Operation.BOOK_ROOM));
+        assertEquals(0, snapshot.getCalls(Operation.FIND_AVAILABLE_ROOMS));
+    }
+
+    @Test
+    void shouldRecordNothingWhenDisabled() {
+        service.getMetrics().setEnabled(false);
+        service.bookRoom(1, 1, JULY_1, JULY_1.plusDays(2));
+        assertThrows(RoomNotFoundException.class, () -> service.bookRoom(1, 99, JULY_1, JULY_1.plusDays(1)));
+
+        MetricsSnapshot snapshot = service.getMetrics().snapshot();
+        assertEquals(0, snapshot.getCalls(Operation.BOOK_ROOM));
+        assertEquals(0, snapshot.getFailures(Operation.BOOK_ROOM));
+        assertEquals(0, snapshot.getPhaseLatency(Phase.LOOKUP).getCount());
+    }
+
+    @Test
+    void shouldReportPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos * 10);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(1_000_000, snapshot.getMax(), 1_000_000 / 32.0);
+        assertEquals(500_005, snapshot.getMean(), 500_005 / 32.0);
+        assertEquals(500_000, snapshot.getValueAtPercentile(50), 500_000 / 32.0);
+        assertEquals(990_000, snapshot.getValueAtPercentile(99), 990_000 / 32.0);
+        assertEquals(snapshot.getMax(), snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    void shouldDumpOneLinePerOperationAndPhase() {
+        service.bookRoom(1, 1, JULY_1, JULY_1.plusDays(2));
+        StringWriter out = new StringWriter();
+        service.getMetrics().snapshot().writeTo(out);
+
+        String dump = out.toString();
+        assertEquals(Operation.values().length + Phase.values().length, dump.lines().count());
+        assertTrue(dump.contains("BOOK_ROOM calls=1 failures=0 p50="));
+        assertTrue(dump.contains("BOOK_ROOM.OVERLAP_CHECK p50="));
+    }
+}
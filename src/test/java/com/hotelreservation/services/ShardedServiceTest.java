@@ -0,0 +1,80 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.enums.BookingStatus;
+import com.hotelreservation.enums.RoomType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+/**
+ * Tests for the sharded service.
+ * Verifies routing by property and that a user shared by all shards is never overdrawn.
+ */
+class ShardedServiceTest {
+    private static final LocalDate JULY_1 = LocalDate.of(2026, 7, 1);
+    private static final int PROPERTIES = 4;
+    private static final int ROOMS_PER_PROPERTY = 100;
+
+    private ShardedService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ShardedService(PROPERTIES, ROOMS_PER_PROPERTY);
+        List<CompletableFuture<Void>> setup = new ArrayList<>();
+        for (int room = 0; room < PROPERTIES * ROOMS_PER_PROPERTY; room++) {
+            setup.add(service.setRoom(room, RoomType.STANDARD, 100));
+        }
+        setup.add(service.setUser(1, 1000));
+        setup.forEach(CompletableFuture::join);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void shouldKeepEachPropertyOnOneShard() {
+        List<Room> shardRooms = service.shardFor(150).getRooms();
+        assertEquals(ROOMS_PER_PROPERTY, shardRooms.size());
+        for (Room room : shardRooms) {
+            assertEquals(1, room.getRoomNumber() / ROOMS_PER_PROPERTY);
+        }
+
+        assertEquals(BookingStatus.SUCCESS, service.bookRoom(1, 150, JULY_1, JULY_1.plusDays(1)).join());
+        assertEquals(BookingStatus.ROOM_UNAVAILABLE, service.bookRoom(1, 150, JULY_1, JULY_1.plusDays(1)).join());
+        assertEquals(BookingStatus.ROOM_NOT_FOUND, service.bookRoom(1, 999, JULY_1, JULY_1.plusDays(1)).join());
+
+        assertEquals(1, service.shardFor(199).getBookings().size());
+        assertEquals(0, service.shardFor(0).getBookings().size());
+        assertEquals(PROPERTIES * ROOMS_PER_PROPERTY - 1,
+                service.findAvailableRooms(RoomType.STANDARD, JULY_1, JULY_1.plusDays(1)).size());
+    }
+
+    @Test
+    void shouldNeverOverdrawSharedUser() {
+        // The balance covers 10 of 400 one-night bookings spread over every shard
+        List<CompletableFuture<BookingStatus>> bookings = new ArrayList<>();
+        for (int room = 0; room < PROPERTIES * ROOMS_PER_PROPERTY; room++) {
+            bookings.add(service.bookRoom(1, room, JULY_1, JULY_1.plusDays(1)));
+        }
+
+        int succeeded = 0;
+        for (CompletableFuture<BookingStatus> booking : bookings) {
+            BookingStatus status = booking.join();
+            if (status == BookingStatus.SUCCESS) {
+                succeeded++;
+            } else {
+                assertEquals(BookingStatus.INSUFFICIENT_BALANCE, status);
+            }
+        }
+        assertEquals(10, succeeded);
+        assertEquals(0, service.shardFor(0).getUsers().get(0).getBalance());
+    }
+}
@@ -0,0 +1,98 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.analytics.UserBookingSummary;
+import com.hotelreservation.analytics.UserSummaryCache;
+import com.hotelreservation.entities.Booking;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.exceptions.UserNotFoundException;
+import com.hotelreservation.metrics.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+/**
+ * Tests for per-user booking history and cached user summaries.
+ * Verifies the per-user index, yearly spend, and that summaries are invalidated on every change.
+ */
+class UserBookingHistoryTest {
+    private static final LocalDate DEC_30 = LocalDate.of(2026, 12, 30);
+    private static final LocalDate JAN_2 = LocalDate.of(2027, 1, 2);
+
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        service = new Service();
+        service.setRoom(1, RoomType.STANDARD, 1000);
+        service.setRoom(2, RoomType.SUITE, 3000);
+        service.setUser(1, 50000);
+        service.setUser(2, 50000);
+    }
+
+    @Test
+    void shouldFindOnlyTheUsersActiveBookingsInOrder() {
+        int first = service.bookRoom(1, 1, DEC_30, JAN_2);
+        service.bookRoom(2, 2, DEC_30, JAN_2);
+        int third = service.bookRoom(1, 2, JAN_2, JAN_2.plusDays(1));
+
+        List<Booking> bookings = service.findBookingsByUser(1);
+        assertEquals(2, bookings.size());
+        assertEquals(1, bookings.get(0).getRoomNumber());
+        assertEquals(2, bookings.get(1).getRoomNumber());
+
+        service.cancelBooking(first);
+        int moved = service.modifyBooking(third, JAN_2.plusDays(5), JAN_2.plusDays(7));
+
+        bookings = service.findBookingsByUser(1);
+        assertEquals(1, bookings.size());
+        assertEquals(service.findBooking(moved).orElseThrow(), bookings.get(0));
+        assertTrue(service.findBookingsByUser(3).isEmpty());
+    }
+
+    @Test
+    void shouldInvalidateSummaryWhenBookingsChange() {
+        int bookingId = service.bookRoom(1, 1, DEC_30, JAN_2);
+
+        UserBookingSummary summary = service.getUserSummary(1);
+        assertEquals(1, summary.getBookingCount());
+        assertEquals(3, summary.getNightsBooked());
+        assertEquals(3000, summary.getTotalSpent());
+        // The stay counts towards the year it checks in
+        assertEquals(3000, summary.getSpentInYear(2026));
+        assertEquals(0, summary.getSpentInYear(2027));
+        assertSame(summary, service.getUserSummary(1));
+
+        service.bookRoom(1, 2, JAN_2, JAN_2.plusDays(2));
+        assertEquals(6000, service.getUserSummary(1).getSpentInYear(2027));
+
+        service.bookRooms(1, List.of(1, 2), JAN_2.plusDays(10), JAN_2.plusDays(11));
+        assertEquals(4, service.getUserSummary(1).getBookingCount());
+
+        service.cancelBooking(bookingId);
+        assertEquals(0, service.getUserSummary(1).getSpentInYear(2026));
+
+        CacheStats stats = service.getUserSummaryCacheStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(4, stats.getMisses());
+        assertEquals(0.2, stats.getHitRatio(), 1e-9);
+        assertThrows(UserNotFoundException.class, () -> service.getUserSummary(99));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedSummaries() {
+        // 16 segments of one entry each
+        UserSummaryCache cache = new UserSummaryCache(1);
+        for (int userId = 1; userId <= 1000; userId++) {
+            cache.put(UserBookingSummary.of(userId, List.of()));
+        }
+
+        CacheStats stats = cache.stats();
+        assertEquals(16, stats.getCapacity());
+        assertEquals(16, stats.getSize());
+        assertEquals(1000 - 16, stats.getEvictions());
+        assertNull(cache.get(1));
+        assertNotNull(cache.get(1000));
+    }
+}
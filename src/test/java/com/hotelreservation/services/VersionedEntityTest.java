@@ -0,0 +1,138 @@
+package com.hotelreservation.services;
+
+import com.hotelreservation.entities.Room;
+import com.hotelreservation.entities.RoomState;
+import com.hotelreservation.entities.User;
+import com.hotelreservation.enums.RoomType;
+import com.hotelreservation.exceptions.InvalidBookingException;
+import com.hotelreservation.exceptions.UserNotFoundException;
+import com.hotelreservation.repositories.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * Tests for versioned Room and User updates.
+ * Verifies versions, conflict detection and that concurrent updates are never lost or torn.
+ */
+class VersionedEntityTest {
+
+    @Test
+    void shouldDetectConflictingRoomUpdates() {
+        RoomRepository repository = new RoomRepository();
+        Room room = new Room(1, RoomType.STANDARD, 100);
+        repository.save(room);
+        RoomState read = room.getState();
+
+        repository.update(room, RoomType.STANDARD, 120);
+        assertFalse(repository.compareAndUpdate(room, read.getVersion(), RoomType.SUITE, 500));
+        assertEquals(1, repository.findByRoomType(RoomType.STANDARD, Integer.MAX_VALUE).size());
+
+        RoomState reread = room.getState();
+        assertEquals(1, reread.getVersion());
+        assertTrue(repository.compareAndUpdate(room, reread.getVersion(), RoomType.SUITE, 500));
+        assertEquals(RoomType.SUITE, room.getRoomType());
+        assertEquals(500, room.getPricePerNight());
+        assertTrue(repository.findByRoomType(RoomType.STANDARD, Integer.MAX_VALUE).isEmpty());
+        // The state read earlier is unchanged
+        assertEquals(120, reread.getPricePerNight());
+    }
+
+    @Test
+    void shouldKeepIndexesInSyncWithVersionedRoomUpdates() {
+        Service service = new Service();
+        service.setRoom(1, RoomType.STANDARD, 100);
+        service.setUser(1, 10_000);
+        LocalDate checkIn = LocalDate.now().plusDays(5);
+        int version = service.getRooms().get(0).getVersion();
+
+        service.setRoom(1, RoomType.STANDARD, 120);
+        // A stale version changes nothing, type indexes included
+        assertFalse(service.compareAndSetRoom(1, version, RoomType.SUITE, 500));
+        assertEquals(1, service.findAvailableRooms(RoomType.STANDARD, checkIn, checkIn.plusDays(1)).size());
+        assertTrue(service.findAvailableRooms(RoomType.SUITE, checkIn, checkIn.plusDays(1)).isEmpty());
+
+        assertTrue(service.compareAndSetRoom(1, version + 1, RoomType.SUITE, 500));
+        assertTrue(service.findAvailableRooms(RoomType.STANDARD, checkIn, checkIn.plusDays(1)).isEmpty());
+        assertEquals(1, service.findAvailableRooms(RoomType.SUITE, checkIn, checkIn.plusDays(1)).size());
+        // The type inventory follows the room to its new type
+        service.reserveRoomType(1, RoomType.SUITE, checkIn, checkIn.plusDays(1));
+        assertThrows(InvalidBookingException.class, () ->
+                service.reserveRoomType(1, RoomType.SUITE, checkIn, checkIn.plusDays(1)));
+        assertThrows(InvalidBookingException.class, () ->
+                service.reserveRoomType(1, RoomType.STANDARD, checkIn, checkIn.plusDays(1)));
+    }
+
+    @Test
+    void shouldDetectConflictingBalanceUpdates() {
+        User user = new User(1, 1000);
+        int version = user.getVersion();
+
+        assertEquals(1000, user.deductIfCovered(300));
+        assertFalse(user.compareAndSetBalance(version, 0));
+        assertTrue(user.compareAndSetBalance(user.getVersion(), -5));
+        assertEquals(-5, user.getBalance());
+        assertEquals(User.NOT_DEDUCTED, user.deductIfCovered(1));
+        assertEquals(2, user.getVersion());
+    }
+
+    @Test
+    void shouldJournalVersionedBalanceUpdates(@TempDir Path dir) throws IOException {
+        Path journal = dir.resolve("journal.log");
+        try (Service service = Service.open(journal)) {
+            service.setUser(1, 1000);
+            int version = service.getUsers().get(0).getVersion();
+
+            service.setUser(1, 900);
+            // A stale version changes nothing
+            assertFalse(service.compareAndSetUser(1, version, 0));
+            assertEquals(900, service.getUsers().get(0).getBalance());
+            assertTrue(service.compareAndSetUser(1, version + 1, 700));
+            assertThrows(UserNotFoundException.class, () -> service.compareAndSetUser(2, 0, 700));
+        }
+
+        // The swap was journaled, so it survives a restart
+        try (Service reopened = Service.open(journal)) {
+            assertEquals(700, reopened.getUsers().get(0).getBalance());
+        }
+    }
+
+    @Test
+    void shouldNeverTearOrLoseConcurrentUpdates() throws InterruptedException {
+        Room room = new Room(1, RoomType.STANDARD, 0);
+        User user = new User(1, 0);
+        boolean[] torn = new boolean[1];
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    // Writers keep the price equal to the type's ordinal
+                    RoomType type = RoomType.values()[i % RoomType.values().length];
+                    room.update(type, type.ordinal());
+                    RoomState state = room.getState();
+                    if (state.getPricePerNight() != state.getRoomType().ordinal()) {
+                        torn[0] = true;
+                    }
+                    user.addBalance(1);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertFalse(torn[0]);
+        assertEquals(40_000, room.getVersion());
+        assertEquals(40_000, user.getBalance());
+        assertEquals(40_000, user.getVersion());
+    }
+}